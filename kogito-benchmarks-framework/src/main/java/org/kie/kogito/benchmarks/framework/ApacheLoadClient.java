@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Synchronous Apache HTTP Client 4 with a connection pool sized to the number of concurrent requests.
+ */
+public class ApacheLoadClient implements LoadClient {
+
+    private final CloseableHttpClient client;
+
+    public ApacheLoadClient(int maxConnections) {
+        // The default pool allows only 2 connections per route, which would cap the concurrency
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.client = HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
+    @Override
+    public PreparedRequest prepare(HTTPRequestInfo requestInfo) {
+        byte[][] payloads = requestInfo.getPayloads();
+        // Templated URIs are only known when sending, these requests are built every time
+        HttpUriRequest[] requests = new HttpUriRequest[requestInfo.isURITemplate() ? 0 : Math.max(1, payloads.length)];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = build(requestInfo, requestInfo.getURI(), payloads, i);
+        }
+        return new ApacheRequest(requestInfo, payloads, requests);
+    }
+
+    private static HttpUriRequest build(HTTPRequestInfo requestInfo, String uri, byte[][] payloads, int payload) {
+        RequestBuilder builder = RequestBuilder.create(requestInfo.getMethod()).setUri(uri);
+        if (payloads.length > 0) {
+            builder.setEntity(new ByteArrayEntity(payloads[payload]));
+        }
+        requestInfo.getHeaders().forEach(builder::setHeader);
+        return builder.build();
+    }
+
+    private class ApacheRequest implements PreparedRequest {
+        private final HTTPRequestInfo requestInfo;
+        private final byte[][] payloads;
+        private final HttpUriRequest[] requests;
+        private int next;
+
+        ApacheRequest(HTTPRequestInfo requestInfo, byte[][] payloads, HttpUriRequest[] requests) {
+            this.requestInfo = requestInfo;
+            this.payloads = payloads;
+            this.requests = requests;
+            // Every prepared request starts at a different place in the corpus, so concurrent workers don't send the same bodies in lockstep
+            this.next = ThreadLocalRandom.current().nextInt(Math.max(1, payloads.length));
+        }
+
+        @Override
+        public int send() throws IOException {
+            return send(null, null);
+        }
+
+        @Override
+        public int send(Map<String, String> values, ByteArrayOutputStream responseBody) throws IOException {
+            int payload = next;
+            next = (next + 1) % Math.max(1, payloads.length);
+            HttpUriRequest request = requestInfo.isURITemplate()
+                    ? build(requestInfo, requestInfo.getURI(values), payloads, payload)
+                    : requests[payload];
+            try (CloseableHttpResponse response = client.execute(request)) {
+                if (responseBody != null) {
+                    responseBody.reset();
+                    if (response.getEntity() != null) {
+                        response.getEntity().writeTo(responseBody);
+                    }
+                }
+                EntityUtils.consume(response.getEntity());
+                return response.getStatusLine().getStatusCode();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
@@ -38,6 +38,24 @@ public enum App {
     PMML_REGRESSION_QUARKUS_JVM("pmml-kie-benchmarks-regression-quarkus-mvn", MvnCmds.QUARKUS_JVM, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
     PMML_SCORECARD_QUARKUS_JVM("pmml-kie-benchmarks-scorecard-quarkus-mvn", MvnCmds.QUARKUS_JVM, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
 
+    SMARTHOUSE_02_QUARKUS_JVM_CDS("smarthouse-02-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_QUARKUS_JVM_CDS("smarthouse-03-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_QUARKUS_JVM_CDS("stp-smarthouse-03-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_QUARKUS_JVM_CDS("pmml-kie-benchmarks-clustering-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_QUARKUS_JVM_CDS("pmml-kie-benchmarks-forest-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_QUARKUS_JVM_CDS("pmml-kie-benchmarks-mine-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_QUARKUS_JVM_CDS("pmml-kie-benchmarks-regression-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_QUARKUS_JVM_CDS("pmml-kie-benchmarks-scorecard-quarkus-mvn", MvnCmds.QUARKUS_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+
+    SMARTHOUSE_02_QUARKUS_NATIVE("smarthouse-02-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_QUARKUS_NATIVE("smarthouse-03-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_QUARKUS_NATIVE("stp-smarthouse-03-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_QUARKUS_NATIVE("pmml-kie-benchmarks-clustering-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_QUARKUS_NATIVE("pmml-kie-benchmarks-forest-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_QUARKUS_NATIVE("pmml-kie-benchmarks-mine-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_QUARKUS_NATIVE("pmml-kie-benchmarks-regression-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_QUARKUS_NATIVE("pmml-kie-benchmarks-scorecard-quarkus-mvn", MvnCmds.NATIVE, new String[] { "-Xmx3G" }, URLContent.PMML_QUARKUS, WhitelistLogLines.EVERYTHING),
+
     SMARTHOUSE_02_SPRING_BOOT("smarthouse-02-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
     SMARTHOUSE_03_SPRING_BOOT("smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
     SMARTHOUSE_STP_SPRING_BOOT_JVM("stp-smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
@@ -45,7 +63,43 @@ public enum App {
     PMML_FOREST_SPRING_BOOT("pmml-kie-benchmarks-forest-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
     PMML_MINE_SPRING_BOOT("pmml-kie-benchmarks-mine-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
     PMML_REGRESSION_SPRING_BOOT("pmml-kie-benchmarks-regression-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
-    PMML_SCORECARD_SPRING_BOOT("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),;
+    PMML_SCORECARD_SPRING_BOOT("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+
+    SMARTHOUSE_02_SPRING_BOOT_CDS("smarthouse-02-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_SPRING_BOOT_CDS("smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_SPRING_BOOT_CDS("stp-smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_SPRING_BOOT_CDS("pmml-kie-benchmarks-clustering-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_SPRING_BOOT_CDS("pmml-kie-benchmarks-forest-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_SPRING_BOOT_CDS("pmml-kie-benchmarks-mine-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_SPRING_BOOT_CDS("pmml-kie-benchmarks-regression-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_SPRING_BOOT_CDS("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM_CDS, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+
+    SMARTHOUSE_02_SPRING_BOOT_AOT("smarthouse-02-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_SPRING_BOOT_AOT("smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_SPRING_BOOT_AOT("stp-smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_SPRING_BOOT_AOT("pmml-kie-benchmarks-clustering-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_SPRING_BOOT_AOT("pmml-kie-benchmarks-forest-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_SPRING_BOOT_AOT("pmml-kie-benchmarks-mine-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_SPRING_BOOT_AOT("pmml-kie-benchmarks-regression-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_SPRING_BOOT_AOT("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM_AOT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+
+    SMARTHOUSE_02_SPRING_BOOT_EXPLODED("smarthouse-02-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_SPRING_BOOT_EXPLODED("smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_SPRING_BOOT_EXPLODED("stp-smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_SPRING_BOOT_EXPLODED("pmml-kie-benchmarks-clustering-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_SPRING_BOOT_EXPLODED("pmml-kie-benchmarks-forest-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_SPRING_BOOT_EXPLODED("pmml-kie-benchmarks-mine-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_SPRING_BOOT_EXPLODED("pmml-kie-benchmarks-regression-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_SPRING_BOOT_EXPLODED("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM_EXPLODED, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+
+    SMARTHOUSE_02_SPRING_BOOT_LAZY_INIT("smarthouse-02-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.SMARTHOUSE_02, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_03_SPRING_BOOT_LAZY_INIT("smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_03, WhitelistLogLines.EVERYTHING),
+    SMARTHOUSE_STP_SPRING_BOOT_LAZY_INIT("stp-smarthouse-03-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx3G" }, URLContent.SMARTHOUSE_STP, WhitelistLogLines.EVERYTHING),
+    PMML_CLUSTERING_SPRING_BOOT_LAZY_INIT("pmml-kie-benchmarks-clustering-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_FOREST_SPRING_BOOT_LAZY_INIT("pmml-kie-benchmarks-forest-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_MINE_SPRING_BOOT_LAZY_INIT("pmml-kie-benchmarks-mine-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_REGRESSION_SPRING_BOOT_LAZY_INIT("pmml-kie-benchmarks-regression-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING),
+    PMML_SCORECARD_SPRING_BOOT_LAZY_INIT("pmml-kie-benchmarks-scorecard-springboot", MvnCmds.SPRING_BOOT_JVM_LAZY_INIT, new String[] { "-Xms1G", "-Xmx2G" }, URLContent.PMML_SPRINGBOOT, WhitelistLogLines.EVERYTHING);
 
     public final String dir;
     public final MvnCmds mavenCommands;
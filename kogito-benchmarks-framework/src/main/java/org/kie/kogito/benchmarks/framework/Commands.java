@@ -39,12 +39,15 @@ import java.util.Scanner;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +62,11 @@ public class Commands {
     public static final String ARCHIVED_LOGS_DIR = getArchivedLogsDir();
     public static final boolean USE_CUSTOM_MAVEN_REPO = getUseCustomMavenRepo();
     public static final boolean USE_MAIN_BUILD_SETTINGS = getUseMainBuildSettings();
+    public static final long SAMPLING_INTERVAL_MS = getSamplingIntervalMs();
+    public static final long JVM_SAMPLING_INTERVAL_MS = getJvmSamplingIntervalMs();
+    public static final boolean GC_LOG = Boolean.parseBoolean(System.getProperty("gcLog", "true"));
+    public static final boolean STARTUP_LOG = Boolean.parseBoolean(System.getProperty("startupLog", "true"));
+    public static final boolean NATIVE_MEMORY_TRACKING = Boolean.parseBoolean(System.getProperty("nativeMemoryTracking", "false"));
     public static final String MVNW = Commands.isThisWindows ? "mvnw.cmd" : "./mvnw";
     public static final boolean isThisWindows = System.getProperty("os.name").matches(".*[Ww]indows.*");
     private static final Pattern numPattern = Pattern.compile("[ \t]*[0-9]+[ \t]*");
@@ -162,6 +170,19 @@ public class Commands {
         return !"false".equalsIgnoreCase(value);
     }
 
+    public static long getSamplingIntervalMs() {
+        String value = getSystemPropertyOrEnvVarValueSilent("samplingIntervalMs");
+        return StringUtils.isNotBlank(value) ? Long.parseLong(value.trim()) : 50L;
+    }
+
+    /**
+     * @return interval of sampling the JVM telemetry of the app over JMX; zero or negative disables it as it adds the management agent to the app
+     */
+    public static long getJvmSamplingIntervalMs() {
+        String value = getSystemPropertyOrEnvVarValueSilent("jvmSamplingIntervalMs");
+        return StringUtils.isNotBlank(value) ? Long.parseLong(value.trim()) : 0L;
+    }
+
     private static String getSystemPropertyOrEnvVarValueSilent(String name) {
         String systemPropertyValue = System.getProperty(name);
         if (StringUtils.isNotBlank(systemPropertyValue)) {
@@ -186,7 +207,12 @@ public class Commands {
         cleanDirOrFile(target, logs);
     }
 
-    public static BuildResult buildApp(App app, String methodName, String className, StringBuilder whatIDidReport) throws InterruptedException {
+    /**
+     * Builds the app. The modes using a CDS archive also run the training creating it and the exploded mode extracts the jar,
+     * neither is included in the build time. The test is skipped if the Spring AOT mode built no AOT initializers.
+     */
+    public static BuildResult buildApp(App app, Slot slot, String methodName, String className, StringBuilder whatIDidReport)
+            throws IOException, InterruptedException {
         File appDir = app.getAppDir();
         File buildLogA = Path.of(appDir.getAbsolutePath(), "logs", app.mavenCommands.name().toLowerCase() + "-build.log").toFile();
         ExecutorService buildService = Executors.newFixedThreadPool(1);
@@ -205,29 +231,158 @@ public class Commands {
         long buildEnds = System.currentTimeMillis();
         long buildTimeMs = buildEnds - buildStarts;
 
+        if (app.mavenCommands == MvnCmds.SPRING_BOOT_JVM_AOT) {
+            // A Spring Boot 2 app has no native profile running process-aot and ignores spring.aot.enabled, it would be measured
+            // as a plain SPRING_BOOT_JVM start under another name
+            Assumptions.assumeTrue(hasSpringAotInitializers(appDir.toPath().resolve("target/runner.jar")),
+                    "target/runner.jar of " + app + " contains no classes generated by Spring AOT, see " + buildLogA);
+            appendln(whatIDidReport, "Checked the Spring AOT initializers in target/runner.jar");
+        }
+        if (app.mavenCommands == MvnCmds.SPRING_BOOT_JVM_EXPLODED) {
+            ExplodedJar.explode(appDir.toPath(), appDir.toPath().resolve("target/runner.jar"));
+            appendln(whatIDidReport, "Extracted target/runner.jar to " + ExplodedJar.DIR);
+        }
+        if (app.mavenCommands.isAppCDS()) {
+            trainAppCDS(app, slot, whatIDidReport);
+            appendln(whatIDidReport, "AppCDS training took " + (System.currentTimeMillis() - buildEnds) + " ms");
+        }
+
         return new BuildResult(buildTimeMs, buildLogA, 0);
     }
 
-    public static RunInfo startApp(App app, StringBuilder whatIDidReport) throws IOException, InterruptedException {
+    /**
+     * @return true if the fat jar contains the bean factory registrations Spring AOT generates, e.g.
+     *         BOOT-INF/classes/com/example/Application__BeanFactoryRegistrations.class
+     */
+    static boolean hasSpringAotInitializers(Path jar) throws IOException {
+        if (Files.notExists(jar)) {
+            return false;
+        }
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.stream().anyMatch(entry -> entry.getName().startsWith("BOOT-INF/classes/")
+                    && entry.getName().endsWith("__BeanFactoryRegistrations.class"));
+        }
+    }
+
+    /**
+     * Starts the app with {@link MvnCmds.AppCDS#CREATE_ARCHIVE}, requests all of its URLs and stops it gracefully.
+     * The JVM dumps the classes loaded until then to the archive when it exits.
+     */
+    public static void trainAppCDS(App app, Slot slot, StringBuilder whatIDidReport) throws IOException, InterruptedException {
+        File appDir = app.getAppDir();
+        File trainingLog = Path.of(appDir.getAbsolutePath(), "logs", app.mavenCommands.name().toLowerCase() + "-training.log").toFile();
+        Path archive = appDir.toPath().resolve(MvnCmds.AppCDS.ARCHIVE);
+        Files.deleteIfExists(archive);
+        String[] jvmArgs = Stream.concat(Arrays.stream(app.jvmArgs), Stream.of(portOption(app, slot.getPort()))).toArray(String[]::new);
+        List<String> cmd = inSlot(slot, getRunCommand(app.mavenCommands.mvnCmds[2], jvmArgs));
+        appendlnSection(whatIDidReport, String.join(" ", cmd));
+        logger.info("Running AppCDS training: {}", cmd);
+        Process p = newProcessBuilder(cmd, appDir, trainingLog).start();
+        try {
+            for (String[] urlContent : app.urlContent.urlContent) {
+                WebpageTester.testWeb(withPort(urlContent[0], slot.getPort()), 180, urlContent[1], false);
+            }
+        } finally {
+            processStopper(p, false);
+        }
+        Assertions.assertThat(waitForTcpClosed("localhost", slot.getPort(), 60))
+                .as("Main port is still open after the AppCDS training").isTrue();
+        Assertions.assertThat(archive).as("CDS archive of the training run, see " + trainingLog).exists();
+    }
+
+    public static RunInfo startApp(App app, Slot slot, StringBuilder whatIDidReport) throws IOException, InterruptedException {
+        return startApp(app, app.mavenCommands, slot, whatIDidReport);
+    }
+
+    /**
+     * Starts the build of the app with the run command of the given mode, e.g. the same build without the CDS archive
+     * by {@link MvnCmds#withoutAppCDS()}. The app listens on the port of the slot, where its URLs are checked.
+     */
+    public static RunInfo startApp(App app, MvnCmds mvnCmds, Slot slot, StringBuilder whatIDidReport) throws IOException, InterruptedException {
         File appDir = app.getAppDir();
-        File runLogA = Path.of(appDir.getAbsolutePath(), "logs", app.mavenCommands.name().toLowerCase() + "-run.log").toFile();
-        List<String> cmd = getRunCommand(app.mavenCommands.mvnCmds[1], app.jvmArgs);
+        File runLogA = Path.of(appDir.getAbsolutePath(), "logs", mvnCmds.name().toLowerCase() + "-run.log").toFile();
+        String[] jvmArgs = Stream.concat(Arrays.stream(app.jvmArgs), Stream.of(portOption(app, slot.getPort()))).toArray(String[]::new);
+        if (GC_LOG && mvnCmds.isJVM()) {
+            // Relative to the app dir, an absolute path on Windows would contain ':'
+            jvmArgs = Stream.concat(Arrays.stream(jvmArgs), Stream.of(GcLog.xlogOption("logs/" + getGcLog(runLogA).getName())))
+                    .toArray(String[]::new);
+            Files.deleteIfExists(getGcLog(runLogA).toPath());
+        }
+        if (STARTUP_LOG && mvnCmds.isJVM()) {
+            jvmArgs = Stream.concat(Arrays.stream(jvmArgs), Stream.of("-Xlog:startuptime:file=logs/" + getStartupLog(runLogA).getName() + ":uptimenanos,tags"))
+                    .toArray(String[]::new);
+            Files.deleteIfExists(getStartupLog(runLogA).toPath());
+        }
+        if (NATIVE_MEMORY_TRACKING && mvnCmds.isJVM()) {
+            jvmArgs = Stream.concat(Arrays.stream(jvmArgs), Stream.of(NativeMemory.JVM_OPTION)).toArray(String[]::new);
+        }
+        List<String> cmd = inSlot(slot, getRunCommand(mvnCmds.mvnCmds[1], jvmArgs));
         appendln(whatIDidReport, appDir.getAbsolutePath());
         appendlnSection(whatIDidReport, String.join(" ", cmd));
-        Process pA = runCommand(cmd, appDir, runLogA);
+        logger.info("Running command: {}", cmd);
+        ProcessBuilder processBuilder = newProcessBuilder(cmd, appDir, runLogA);
+        // Startup is measured from here
+        long spawnNs = System.nanoTime();
+        Process pA = processBuilder.start();
+        ProcessSampler sampler = ProcessSampler.start(pA.pid(), spawnNs, SAMPLING_INTERVAL_MS);
         // Test web pages
-        long timeToFirstOKRequest = WebpageTester.testWeb(app.urlContent.urlContent[0][0], 180, app.urlContent.urlContent[0][1], true);
+        ReadinessProbe.Result readiness = ReadinessProbe.await(spawnNs, withPort(app.urlContent.urlContent[0][0], slot.getPort()), 180,
+                app.urlContent.urlContent[0][1]);
+        // CPU time of the whole startup, -1 if not available
+        long cpuTimeToFirstOKRequestNs = sampler.sample().getCpuTimeNs();
         logger.info("Testing web page content...");
         for (String[] urlContent : app.urlContent.urlContent) {
-            WebpageTester.testWeb(urlContent[0], 5, urlContent[1], false);
+            WebpageTester.testWeb(withPort(urlContent[0], slot.getPort()), 5, urlContent[1], false);
+        }
+        long timeToAllURLsOKNs = System.nanoTime() - spawnNs;
+        // Only now, forking jcmd would delay the URL checks
+        NativeMemory nativeMemoryAtAllURLsOK = null;
+        if (NATIVE_MEMORY_TRACKING && mvnCmds.isJVM()) {
+            nativeMemoryAtAllURLsOK = readNativeMemory(pA.pid());
+        }
+        JvmSampler jvmSampler = null;
+        if (JVM_SAMPLING_INTERVAL_MS > 0 && mvnCmds.isJVM()) {
+            jvmSampler = JvmSampler.attach(pA.pid(), JVM_SAMPLING_INTERVAL_MS);
         }
 
-        return new RunInfo(pA, runLogA, timeToFirstOKRequest);
+        return new RunInfo(pA, runLogA, slot.getPort(), readiness, timeToAllURLsOKNs, cpuTimeToFirstOKRequestNs, sampler, jvmSampler, nativeMemoryAtAllURLsOK);
     }
 
-    public static void setCPUAffinity(RunInfo runInfo, int numOfCores) throws IOException, InterruptedException {
-        logger.info("Setting CPU affinity of app to " + numOfCores + " core(s)");
-        String listOfCores = "0-" + (numOfCores - 1);
+    /**
+     * @return null if the app is not a JVM or NMT is not enabled in it
+     */
+    public static NativeMemory readNativeMemory(long pid) throws InterruptedException {
+        Long jvmPid = Jcmd.findJvm(pid);
+        if (jvmPid == null) {
+            return null;
+        }
+        try {
+            return NativeMemory.read(jvmPid);
+        } catch (IOException e) {
+            logger.warn("Unable to read the native memory summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return GC log written next to the run log if {@link #GC_LOG} is enabled for JVM apps
+     */
+    public static File getGcLog(File runLog) {
+        return new File(runLog.getParentFile(), runLog.getName().replace("-run.log", "-gc.log"));
+    }
+
+    /**
+     * @return -Xlog:startuptime log written next to the run log if {@link #STARTUP_LOG} is enabled for JVM apps
+     */
+    public static File getStartupLog(File runLog) {
+        return new File(runLog.getParentFile(), runLog.getName().replace("-run.log", "-startup.log"));
+    }
+
+    /**
+     * @param listOfCores in the format taskset prints it, see {@link Slot#getAppCpus()}
+     */
+    public static void setCPUAffinity(RunInfo runInfo, String listOfCores) throws IOException, InterruptedException {
+        logger.info("Setting CPU affinity of app to core(s) " + listOfCores);
         String processId = String.valueOf(runInfo.getProcess().pid());
         ProcessBuilder pBuilder = new ProcessBuilder("taskset", "-cpa", listOfCores, processId);
         pBuilder.redirectErrorStream(true);
@@ -237,8 +392,7 @@ public class Commands {
                     .filter(s -> s.contains("new affinity list"))
                     .findFirst()
                     .orElseThrow(() -> new RuntimeException("New CPU Affinity not set!"));
-            String expectedAffinityList = numOfCores == 1 ? "0" : numOfCores == 2 ? "0,1" : listOfCores;
-            Assertions.assertThat(newCPUAffinity).contains(expectedAffinityList);
+            Assertions.assertThat(newCPUAffinity).contains(listOfCores);
             p.waitFor();
         }
         Assertions.assertThat(p.exitValue()).isEqualTo(0);
@@ -339,18 +493,34 @@ public class Commands {
         }
     }
 
-    public static int parsePort(String url) {
-        return Integer.parseInt(url.split(":")[2].split("/")[0]);
+    /**
+     * @return the URL with its port replaced, e.g. for the URLs of the apps written with the default port 8080
+     */
+    public static String withPort(String url, int port) {
+        return url.replaceFirst("^(\\w+://[^/:]+):\\d+", "$1:" + port);
+    }
+
+    /**
+     * @return system property setting the HTTP port of the app
+     */
+    public static String portOption(App app, int port) {
+        return (app.isQuarkus() ? "-Dquarkus.http.port=" : "-Dserver.port=") + port;
+    }
+
+    /**
+     * Apps running in parallel are started on the CPUs of their slot, so that their startups don't compete for CPUs.
+     * A single app is pinned only after its start, if at all, so that startup is measured as before there were slots.
+     */
+    private static List<String> inSlot(Slot slot, List<String> cmd) {
+        if (Slot.PARALLEL_APPS == 1 || slot.getAppCpus() == null) {
+            return cmd;
+        }
+        return Stream.concat(Stream.of("taskset", "-c", slot.getAppCpus()), cmd.stream()).collect(Collectors.toUnmodifiableList());
     }
 
     public static Process runCommand(List<String> command, File directory, File logFile) {
         logger.info("Running command: {}", command);
-        ProcessBuilder pa = new ProcessBuilder(command);
-        Map<String, String> envA = pa.environment();
-        envA.put("PATH", System.getenv("PATH"));
-        pa.directory(directory);
-        pa.redirectErrorStream(true);
-        pa.redirectOutput(ProcessBuilder.Redirect.to(logFile));
+        ProcessBuilder pa = newProcessBuilder(command, directory, logFile);
         Process pA = null;
         try {
             pA = pa.start();
@@ -360,6 +530,16 @@ public class Commands {
         return pA;
     }
 
+    private static ProcessBuilder newProcessBuilder(List<String> command, File directory, File logFile) {
+        ProcessBuilder pa = new ProcessBuilder(command);
+        Map<String, String> envA = pa.environment();
+        envA.put("PATH", System.getenv("PATH"));
+        pa.directory(directory);
+        pa.redirectErrorStream(true);
+        pa.redirectOutput(ProcessBuilder.Redirect.to(logFile));
+        return pa;
+    }
+
     public static void pidKiller(long pid, boolean force) {
         try {
             if (isThisWindows) {
@@ -432,7 +612,7 @@ public class Commands {
                     }
                 }
             } else {
-                // TODO: For the time being we count apples and oranges; we might want to distinguish .so and .jar ?
+                // Counts all kinds of descriptors; ProcessSampler.openedFiles() distinguishes sockets, .so, .jar and regular files
                 while (processOutputReader.readLine() != null) {
                     count++;
                 }
@@ -443,7 +623,7 @@ public class Commands {
     }
 
     /*
-     * TODO: CPU cycles used
+     * CPU cycles used: CPU time comes from /proc via ProcessSampler, cycles and instructions from PerfStat when perf is available.
      * 
      * Pros: good data
      * Cons: dependency on perf tool; will not translate to Windows data
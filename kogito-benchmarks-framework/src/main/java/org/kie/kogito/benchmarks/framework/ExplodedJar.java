@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Spring Boot fat jar extracted to a directory. The app is then started by its main class with plain directories and jars
+ * on the class path, instead of the Spring Boot launcher loading the classes from the jars nested in the fat jar.
+ */
+public class ExplodedJar {
+
+    public static final String DIR = "target/exploded";
+    /**
+     * Class path and main class of the exploded app, for the java launcher as {@code @target/exploded/java.args}
+     */
+    public static final String ARG_FILE = DIR + "/java.args";
+
+    private static final String CLASSES = "BOOT-INF/classes";
+    private static final String LIB = "BOOT-INF/lib";
+    private static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+    private static final Pattern CLASSPATH_INDEX_ENTRY = Pattern.compile("\"(.+)\"");
+
+    private ExplodedJar() {
+    }
+
+    /**
+     * Extracts the jar to {@link #DIR} of the app dir and writes the {@link #ARG_FILE}. The jars are on the class path
+     * in the order of the classpath index of the fat jar, if there is one.
+     */
+    public static void explode(Path appDir, Path jar) throws IOException {
+        Path dir = appDir.resolve(DIR);
+        Commands.cleanDirOrFile(dir);
+        String startClass;
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            startClass = jarFile.getManifest().getMainAttributes().getValue("Start-Class");
+            if (startClass == null) {
+                throw new IllegalArgumentException(jar + " is not a Spring Boot jar, its manifest has no Start-Class");
+            }
+            Enumeration<? extends ZipEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path target = dir.resolve(entry.getName()).normalize();
+                if (!target.startsWith(dir)) {
+                    throw new IOException("Entry " + entry.getName() + " is outside of " + dir);
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try (InputStream in = jarFile.getInputStream(entry)) {
+                        Files.copy(in, target);
+                    }
+                }
+            }
+        }
+
+        List<String> classPath = new ArrayList<>();
+        classPath.add(DIR + "/" + CLASSES);
+        Path index = dir.resolve(CLASSPATH_INDEX);
+        if (Files.exists(index)) {
+            for (String line : Files.readAllLines(index, UTF_8)) {
+                Matcher m = CLASSPATH_INDEX_ENTRY.matcher(line);
+                if (m.find()) {
+                    classPath.add(DIR + "/" + m.group(1));
+                }
+            }
+        } else if (Files.isDirectory(dir.resolve(LIB))) {
+            try (Stream<Path> libs = Files.list(dir.resolve(LIB))) {
+                classPath.addAll(libs.map(lib -> DIR + "/" + LIB + "/" + lib.getFileName()).sorted().collect(Collectors.toList()));
+            }
+        }
+        // Forward slashes work on Windows too and need no escaping in the argument file
+        Files.write(appDir.resolve(ARG_FILE),
+                ("-cp \"" + String.join(File.pathSeparator, classPath) + "\"\n" + startClass + "\n").getBytes(UTF_8));
+    }
+}
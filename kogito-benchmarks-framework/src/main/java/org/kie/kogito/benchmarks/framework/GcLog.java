@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Allocation, promotion and pauses of a time window of a unified JVM GC log written with {@link #xlogOption(String)}.
+ * <p>
+ * The log is streamed, so it may be as long as the run. The bytes allocated before a pause are the heap occupancy
+ * before it minus the occupancy after the previous pause; the allocation after the last pause of the window isn't
+ * visible, which makes the rate slightly low for windows with few collections. Promotion is the growth of the old
+ * generation in young pauses, known for G1, Parallel and Serial. Pauses are attributed to the window by the
+ * wall-clock time they ended at.
+ */
+public class GcLog {
+
+    private static final double BYTES_IN_MB = 1024.0 * 1024.0;
+
+    // [0.062s][1634043000123ms][info][gc] - the JVM orders the decorators, timemillis is the only one in ms
+    private static final Pattern TIME = Pattern.compile("\\[(\\d+)ms\\]");
+    // GC(12) Pause Young (Normal) (G1 Evacuation Pause) 24M->4M(256M) 3.456ms
+    private static final Pattern PAUSE = Pattern.compile("GC\\((\\d+)\\) (Pause .*?) (\\d+)([KMG])->(\\d+)([KMG])\\(\\d+[KMG]\\) (\\d+(?:\\.\\d+)?)ms");
+    // GC(12) Old regions: 20->22
+    private static final Pattern G1_OLD_REGIONS = Pattern.compile("GC\\((\\d+)\\) Old regions: (\\d+)->(\\d+)");
+    // GC(12) Tenured: 0K->1234K(10944K) or GC(12) ParOldGen: 0K(44032K)->8K(44032K)
+    private static final Pattern OLD_GEN = Pattern.compile("GC\\((\\d+)\\) (?:Tenured|ParOldGen|PSOldGen): (\\d+)K(?:\\(\\d+K\\))?->(\\d+)K");
+    // Heap Region Size: 1M (JDK 17) or Heap region size: 1M (JDK 11)
+    private static final Pattern G1_REGION_SIZE = Pattern.compile("Heap [Rr]egion [Ss]ize: (\\d+)([KMG])");
+
+    private final long windowMs;
+    private final LatencyHistogram pauses = new LatencyHistogram();
+    private long allocatedBytes;
+    private long promotedBytes;
+
+    private GcLog(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * @param file path of the log, must not contain ':' as it separates the -Xlog options
+     * @return JVM option logging all GC events to the file with wall-clock time in ms, without rotation
+     */
+    public static String xlogOption(String file) {
+        return "-Xlog:gc*:file=" + file + ":timemillis,uptime,level,tags:filecount=0";
+    }
+
+    /**
+     * @param fromEpochMs start of the window, e.g. of the measured phase, as {@link System#currentTimeMillis()}
+     * @param toEpochMs end of the window
+     */
+    public static GcLog parse(Path log, long fromEpochMs, long toEpochMs) throws IOException {
+        GcLog gcLog = new GcLog(toEpochMs - fromEpochMs);
+        long regionSizeBytes = -1L;
+        long heapAfterPreviousPause = -1L;
+        long oldGenGrowthBytes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher time = TIME.matcher(line);
+                if (!time.find()) {
+                    continue;
+                }
+                long timeMs = Long.parseLong(time.group(1));
+                boolean inWindow = timeMs >= fromEpochMs && timeMs <= toEpochMs;
+                Matcher m;
+                if ((m = PAUSE.matcher(line)).find()) {
+                    long heapBefore = toBytes(m.group(3), m.group(4));
+                    long heapAfter = toBytes(m.group(5), m.group(6));
+                    if (inWindow) {
+                        if (heapAfterPreviousPause >= 0) {
+                            // Concurrent cycles may free memory between pauses
+                            gcLog.allocatedBytes += Math.max(heapBefore - heapAfterPreviousPause, 0);
+                        }
+                        if (m.group(2).startsWith("Pause Young")) {
+                            gcLog.promotedBytes += oldGenGrowthBytes;
+                        }
+                        gcLog.pauses.recordValue((long) (Double.parseDouble(m.group(7)) * TimeUnit.MILLISECONDS.toNanos(1)));
+                    }
+                    heapAfterPreviousPause = heapAfter;
+                    oldGenGrowthBytes = 0;
+                } else if ((m = G1_OLD_REGIONS.matcher(line)).find()) {
+                    if (regionSizeBytes > 0) {
+                        oldGenGrowthBytes = Math.max(Long.parseLong(m.group(3)) - Long.parseLong(m.group(2)), 0) * regionSizeBytes;
+                    }
+                } else if ((m = OLD_GEN.matcher(line)).find()) {
+                    oldGenGrowthBytes = Math.max(Long.parseLong(m.group(3)) - Long.parseLong(m.group(2)), 0) * 1024L;
+                } else if ((m = G1_REGION_SIZE.matcher(line)).find()) {
+                    regionSizeBytes = toBytes(m.group(1), m.group(2));
+                }
+            }
+        }
+        return gcLog;
+    }
+
+    private static long toBytes(String value, String unit) {
+        long bytes = Long.parseLong(value);
+        switch (unit) {
+            case "G":
+                return bytes * 1024L * 1024L * 1024L;
+            case "M":
+                return bytes * 1024L * 1024L;
+            default:
+                return bytes * 1024L;
+        }
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getPromotedBytes() {
+        return promotedBytes;
+    }
+
+    public double getAllocationRateMBps() {
+        return windowMs > 0 ? allocatedBytes / BYTES_IN_MB / (windowMs / 1000.0) : 0.0;
+    }
+
+    public double getPromotionRateMBps() {
+        return windowMs > 0 ? promotedBytes / BYTES_IN_MB / (windowMs / 1000.0) : 0.0;
+    }
+
+    /**
+     * @return durations of the pauses in the window in ns
+     */
+    public LatencyHistogram getPauses() {
+        return pauses;
+    }
+}
@@ -15,31 +15,101 @@
  */
 package org.kie.kogito.benchmarks.framework;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.kie.kogito.benchmarks.framework.PayloadGenerator.Distribution.arrayOf;
+import static org.kie.kogito.benchmarks.framework.PayloadGenerator.Distribution.integer;
+import static org.kie.kogito.benchmarks.framework.PayloadGenerator.Distribution.normal;
+import static org.kie.kogito.benchmarks.framework.PayloadGenerator.Distribution.oneOf;
+import static org.kie.kogito.benchmarks.framework.PayloadGenerator.Distribution.uniform;
 
 /**
  * A class representing HTTP Request details such as:
  * <ul>
- * <li>URI</li>
+ * <li>URI, possibly with placeholders like {@link #ID_PLACEHOLDER} filled in from the responses of previous requests</li>
  * <li>Request body</li>
  * <li>HTTP method</li>
  * <li>HTTP headers</li>
  * <li>Expected status code of the response</li>
+ * <li>Optionally a corpus of request bodies to cycle through instead of the single body, see {@link PayloadGenerator}</li>
  * </ul>
  */
 public class HTTPRequestInfo {
 
+    public static final String ID_PLACEHOLDER = "{id}";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
     private String uri;
+    private boolean uriTemplate;
     private String body;
     private String method;
     private Map<String, String> headers = new HashMap<>();
     private int expectedResponseStatusCode;
+    private PayloadGenerator payloadGenerator;
+    private byte[][] payloads;
 
     public String getURI() {
         return uri;
     }
 
+    /**
+     * @param values by the names of the placeholders, e.g. "id" for {@link #ID_PLACEHOLDER}
+     * @return the URI with the placeholders replaced by the values
+     */
+    public String getURI(Map<String, String> values) {
+        return fill(uri, values);
+    }
+
+    /**
+     * @return placeholder of the value of the given name, e.g. {workItemId}
+     */
+    public static String placeholder(String name) {
+        return "{" + name + "}";
+    }
+
+    /**
+     * @return names of the placeholders in the template, in the order of their occurrence
+     */
+    static List<String> placeholders(String template) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    static String fill(String template, Map<String, String> values) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder filled = new StringBuilder(template.length() + 64);
+        while (matcher.find()) {
+            String value = values == null ? null : values.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException(template + " requires a value of " + matcher.group());
+            }
+            matcher.appendReplacement(filled, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(filled);
+        return filled.toString();
+    }
+
+    /**
+     * @return copy of the request sent to the app listening on the given port
+     */
+    public HTTPRequestInfo withPort(int port) {
+        return toBuilder().URI(Commands.withPort(uri, port)).build();
+    }
+
+    public boolean isURITemplate() {
+        return uriTemplate;
+    }
+
     public String getBody() {
         return body;
     }
@@ -56,10 +126,36 @@ public class HTTPRequestInfo {
         return expectedResponseStatusCode;
     }
 
+    public PayloadGenerator getPayloadGenerator() {
+        return payloadGenerator;
+    }
+
+    /**
+     * @return the pre-generated bodies if set, otherwise the single body; empty if there is no body
+     */
+    public byte[][] getPayloads() {
+        if (payloads != null) {
+            return payloads;
+        }
+        return body == null ? new byte[0][] : new byte[][] { body.getBytes(UTF_8) };
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
+    public Builder toBuilder() {
+        Builder builder = builder()
+                .URI(uri)
+                .body(body)
+                .method(method)
+                .expectedResponseStatusCode(expectedResponseStatusCode)
+                .payloadGenerator(payloadGenerator)
+                .payloads(payloads);
+        headers.forEach(builder::header);
+        return builder;
+    }
+
     public static class Builder {
 
         private final HTTPRequestInfo instance = new HTTPRequestInfo();
@@ -89,7 +185,21 @@ public class HTTPRequestInfo {
             return this;
         }
 
+        /**
+         * Generator the randomized bodies can be taken from, the single body is still used unless payloads are set.
+         */
+        public Builder payloadGenerator(PayloadGenerator payloadGenerator) {
+            instance.payloadGenerator = payloadGenerator;
+            return this;
+        }
+
+        public Builder payloads(byte[][] payloads) {
+            instance.payloads = payloads;
+            return this;
+        }
+
         public HTTPRequestInfo build() {
+            instance.uriTemplate = instance.uri != null && PLACEHOLDER.matcher(instance.uri).find();
             return instance;
         }
 
@@ -253,4 +363,122 @@ public class HTTPRequestInfo {
                 "  \"input2\": 0.0\n" +
                 "}";
     }
+
+    /**
+     * Randomized counterparts of {@link Body}. Value ranges follow the data sets the models were trained on.
+     */
+    public static class Payloads {
+        private static final String SENSORS_TEMPERATURE = "[\n" +
+                "    {\n" +
+                "      \"placement\": \"OUTSIDE\",\n" +
+                "      \"current\": ${outsideTemperature},\n" +
+                "      \"previous\": ${outsideTemperaturePrevious}\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"placement\": \"INSIDE\",\n" +
+                "      \"current\": ${insideTemperature},\n" +
+                "      \"previous\": ${insideTemperaturePrevious}\n" +
+                "    }\n" +
+                "  ]";
+
+        private static final String SENSORS_HUMIDITY = "[\n" +
+                "    {\n" +
+                "      \"placement\": \"OUTSIDE\",\n" +
+                "      \"current\": ${outsideHumidity},\n" +
+                "      \"previous\": ${outsideHumidityPrevious}\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"placement\": \"INSIDE\",\n" +
+                "      \"current\": ${insideHumidity},\n" +
+                "      \"previous\": ${insideHumidityPrevious}\n" +
+                "    }\n" +
+                "  ]";
+
+        private static final String SETTINGS_TEMPERATURE = "{\n" +
+                "    \"threshold_low\": ${temperatureThresholdLow},\n" +
+                "    \"threshold_high\": ${temperatureThresholdHigh}\n" +
+                "  }";
+
+        private static final String SETTINGS_HUMIDITY = "{\n" +
+                "    \"threshold_low\": ${humidityThresholdLow},\n" +
+                "    \"threshold_high\": ${humidityThresholdHigh}\n" +
+                "  }";
+
+        public static final PayloadGenerator HEATING_02 = smartHouseFields(new PayloadGenerator("{\n" +
+                "  \"Sensors Temperature\": " + SENSORS_TEMPERATURE + ",\n" +
+                "  \"Settings Temperature\": " + SETTINGS_TEMPERATURE + ",\n" +
+                "  \"Settings Humidity\": " + SETTINGS_HUMIDITY + ",\n" +
+                "  \"Sensors Humidity\": " + SENSORS_HUMIDITY + "\n" +
+                "}"));
+
+        public static final PayloadGenerator SMARTHOUSE_BPMN_DMN = smartHouseFields(new PayloadGenerator("{\n" +
+                "  \"sensorsTemperature\": " + SENSORS_TEMPERATURE + ",\n" +
+                "  \"sensorsHumidity\": " + SENSORS_HUMIDITY + ",\n" +
+                "  \"settingsTemperature\": " + SETTINGS_TEMPERATURE + ",\n" +
+                "  \"settingsHumidity\": " + SETTINGS_HUMIDITY + "\n" +
+                "}"));
+
+        public static final PayloadGenerator PMML_CLUSTERING = new PayloadGenerator("{\n" +
+                "  \"sepal_length\": ${sepal_length},\n" +
+                "  \"sepal_width\": ${sepal_width},\n" +
+                "  \"petal_length\": ${petal_length},\n" +
+                "  \"petal_width\": ${petal_width}\n" +
+                "}")
+                        .field("sepal_length", normal(5.84, 0.83, 4.3, 7.9, 1))
+                        .field("sepal_width", normal(3.05, 0.43, 2.0, 4.4, 1))
+                        .field("petal_length", normal(3.76, 1.76, 1.0, 6.9, 1))
+                        .field("petal_width", normal(1.20, 0.76, 0.1, 2.5, 1));
+
+        public static final PayloadGenerator PMML_FOREST = new PayloadGenerator("{\n" +
+                "  \"Age\": ${Age},\n" +
+                "  \"MonthlySalary\": ${MonthlySalary},\n" +
+                "  \"TotalAsset\": ${TotalAsset},\n" +
+                "  \"TotalRequired\": ${TotalRequired},\n" +
+                "  \"NumberInstallments\": ${NumberInstallments}\n" +
+                "}")
+                        .field("Age", uniform(18.0, 80.0, 1))
+                        .field("MonthlySalary", normal(4000.0, 2500.0, 500.0, 20000.0, 1))
+                        .field("TotalAsset", uniform(0.0, 100000.0, 1))
+                        .field("TotalRequired", uniform(1000.0, 50000.0, 1))
+                        .field("NumberInstallments", integer(1, 60));
+
+        public static final PayloadGenerator PMML_MINE = new PayloadGenerator("{\n" +
+                "  \"temperature\": ${temperature},\n" +
+                "  \"humidity\": ${humidity}\n" +
+                "}")
+                        .field("temperature", uniform(-10.0, 50.0, 1))
+                        .field("humidity", uniform(0.0, 100.0, 1));
+
+        public static final PayloadGenerator PMML_REGRESSION = new PayloadGenerator("{\n" +
+                "  \"age\": ${age},\n" +
+                "  \"salary\": ${salary},\n" +
+                "  \"car_location\": ${car_location}\n" +
+                "}")
+                        .field("age", integer(18, 90))
+                        .field("salary", integer(0, 10000))
+                        .field("car_location", oneOf("carpark", "street"));
+
+        public static final PayloadGenerator PMML_SCORECARD = new PayloadGenerator("{\n" +
+                "  \"input1\": ${input1},\n" +
+                "  \"input2\": ${input2}\n" +
+                "}")
+                        .field("input1", uniform(-50.0, 50.0, 1))
+                        .field("input2", uniform(-50.0, 50.0, 1));
+
+        private static PayloadGenerator smartHouseFields(PayloadGenerator generator) {
+            return generator
+                    .field("outsideTemperature", uniform(-20.0, 40.0, 1))
+                    .field("outsideTemperaturePrevious", arrayOf(6, uniform(-20.0, 40.0, 1)))
+                    .field("insideTemperature", normal(22.0, 3.0, 10.0, 35.0, 1))
+                    .field("insideTemperaturePrevious", arrayOf(6, normal(22.0, 3.0, 10.0, 35.0, 1)))
+                    .field("outsideHumidity", integer(0, 100))
+                    .field("outsideHumidityPrevious", arrayOf(6, integer(0, 100)))
+                    .field("insideHumidity", integer(20, 80))
+                    .field("insideHumidityPrevious", arrayOf(6, integer(20, 80)))
+                    .field("temperatureThresholdLow", integer(17, 22))
+                    .field("temperatureThresholdHigh", integer(23, 27))
+                    .field("humidityThresholdLow", integer(0, 40))
+                    .field("humidityThresholdHigh", integer(50, 90));
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs diagnostic commands in the app JVM with the jcmd of the JDK running the tests.
+ */
+public class Jcmd {
+
+    private static final String EXECUTABLE = Path.of(System.getProperty("java.home"), "bin", Commands.isThisWindows ? "jcmd.exe" : "jcmd").toString();
+
+    private Jcmd() {
+    }
+
+    /**
+     * @param command e.g. "VM.native_memory", "summary"
+     * @return output lines without the leading "&lt;pid&gt;:" line
+     * @throws IOException if jcmd fails, e.g. because the command is not enabled in the JVM
+     */
+    public static List<String> execute(long jvmPid, String... command) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(EXECUTABLE);
+        cmd.add(String.valueOf(jvmPid));
+        cmd.addAll(Arrays.asList(command));
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        if (p.waitFor() != 0) {
+            throw new IOException(String.join(" ", command) + " failed in JVM " + jvmPid + ": " + String.join("\n", lines));
+        }
+        return lines.isEmpty() || !lines.get(0).equals(jvmPid + ":") ? lines : lines.subList(1, lines.size());
+    }
+
+    /**
+     * The app may be started through a wrapper, e.g. cmd on Windows, so the JVM is the first java process in the tree.
+     *
+     * @return null if there is no JVM in the process tree, e.g. for a native executable
+     */
+    public static Long findJvm(long pid) {
+        return ProcessHandle.of(pid)
+                .flatMap(root -> Stream.concat(Stream.of(root), root.descendants())
+                        .filter(p -> p.info().command().map(command -> command.matches(".*[/\\\\]java(\\.exe)?$")).orElse(false))
+                        .findFirst())
+                .map(ProcessHandle::pid)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Java 11 {@link HttpClient}. It is asynchronous internally, the requests are sent and the responses are read by its
+ * selector thread and handed over to an executor, here one with a thread per connection instead of the default
+ * unbounded one.
+ * <p>
+ * The load generator waits for the response of each request, as it measures every latency from the intended send time
+ * on its own thread, so this uses the blocking {@link HttpClient#send}. {@code send} is {@code sendAsync} followed by
+ * waiting for the response, and every thread of the load generator has exactly one request in flight.
+ */
+public class JdkLoadClient implements LoadClient {
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    /**
+     * @param maxConnections number of threads of the executor, the JDK client doesn't limit the number of pooled connections,
+     *        the load generator does
+     */
+    public JdkLoadClient(int maxConnections) {
+        this.executor = Executors.newFixedThreadPool(maxConnections, runnable -> {
+            Thread thread = new Thread(runnable, "JdkLoadClient");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public PreparedRequest prepare(HTTPRequestInfo requestInfo) {
+        byte[][] payloads = requestInfo.getPayloads();
+        // Templated URIs are only known when sending, these requests are built every time
+        HttpRequest[] requests = new HttpRequest[requestInfo.isURITemplate() ? 0 : Math.max(1, payloads.length)];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = build(requestInfo, requestInfo.getURI(), payloads, i);
+        }
+        int[] next = { ThreadLocalRandom.current().nextInt(Math.max(1, payloads.length)) };
+        return new PreparedRequest() {
+            @Override
+            public int send() throws IOException {
+                return send(null, null);
+            }
+
+            @Override
+            public int send(Map<String, String> values, ByteArrayOutputStream responseBody) throws IOException {
+                int payload = next[0];
+                next[0] = (next[0] + 1) % Math.max(1, payloads.length);
+                HttpRequest request = requestInfo.isURITemplate()
+                        ? build(requestInfo, requestInfo.getURI(values), payloads, payload)
+                        : requests[payload];
+                try {
+                    if (responseBody == null) {
+                        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    }
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    responseBody.reset();
+                    responseBody.write(response.body());
+                    return response.statusCode();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for response from " + request.uri());
+                }
+            }
+        };
+    }
+
+    private static HttpRequest build(HTTPRequestInfo requestInfo, String uri, byte[][] payloads, int payload) {
+        HttpRequest.BodyPublisher bodyPublisher = payloads.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(payloads[payload]);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .method(requestInfo.getMethod(), bodyPublisher);
+        requestInfo.getHeaders().forEach(builder::header);
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        // HttpClient in Java 11 has no close(), its other resources are released once it becomes unreachable
+        executor.shutdownNow();
+    }
+}
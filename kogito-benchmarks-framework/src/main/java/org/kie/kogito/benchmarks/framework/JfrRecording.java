@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * JFR recording of the app JVM controlled with jcmd, e.g. for exactly the measured phase of a load test.
+ */
+public class JfrRecording {
+
+    private static final String NAME = "kogito-benchmarks";
+
+    private final long jvmPid;
+    private final Path output;
+
+    private JfrRecording(long jvmPid, Path output) {
+        this.jvmPid = jvmPid;
+        this.output = output;
+    }
+
+    /**
+     * Starts a recording with the profile settings, i.e. method sampling every 10 ms, allocation sampling and lock,
+     * socket and file events longer than 10 ms.
+     *
+     * @param output absolute path the recording is written to when it is stopped
+     * @return null if there is no JVM in the process tree
+     */
+    public static JfrRecording start(long pid, Path output) throws IOException, InterruptedException {
+        Long jvmPid = Jcmd.findJvm(pid);
+        if (jvmPid == null) {
+            return null;
+        }
+        Jcmd.execute(jvmPid, "JFR.start", "name=" + NAME, "settings=profile", "filename=" + output.toAbsolutePath());
+        return new JfrRecording(jvmPid, output);
+    }
+
+    /**
+     * Stops the recording, which writes it to the output, and summarizes it.
+     */
+    public JfrSummary stop() throws IOException, InterruptedException {
+        Jcmd.execute(jvmPid, "JFR.stop", "name=" + NAME);
+        return JfrSummary.read(output);
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+}
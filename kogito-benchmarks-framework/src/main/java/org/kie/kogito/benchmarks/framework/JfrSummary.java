@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Top hot methods, allocation sites, lock contention and I/O waits of a JFR recording.
+ * <p>
+ * Hot methods are the top frames of the execution samples. The other events are attributed to the first frame
+ * outside of the JDK, which is where the app or the framework called into it. Parking on a condition is how idle
+ * pool threads wait for work, so only parking on locks counts as contention.
+ */
+public class JfrSummary {
+
+    private static final double BYTES_IN_MB = 1024.0 * 1024.0;
+
+    private final Map<String, Long> hotMethods = new HashMap<>();
+    private final Map<String, Long> allocationSamples = new HashMap<>();
+    private final Map<String, Long> tlabAllocations = new HashMap<>();
+    private final Map<String, long[]> locks = new HashMap<>();
+    private final Map<String, long[]> ioWaits = new HashMap<>();
+    private long executionSamples;
+
+    private JfrSummary() {
+    }
+
+    public static JfrSummary read(Path recording) throws IOException {
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample":
+                executionSamples++;
+                hotMethods.merge(frame(event.getStackTrace(), false), 1L, Long::sum);
+                break;
+            case "jdk.ObjectAllocationSample":
+                // JDK 16+, weighted by the bytes allocated since the previous sample
+                allocationSamples.merge(allocationSite(event), event.getLong("weight"), Long::sum);
+                break;
+            case "jdk.ObjectAllocationInNewTLAB":
+                tlabAllocations.merge(allocationSite(event), event.getLong("tlabSize"), Long::sum);
+                break;
+            case "jdk.ObjectAllocationOutsideTLAB":
+                tlabAllocations.merge(allocationSite(event), event.getLong("allocationSize"), Long::sum);
+                break;
+            case "jdk.JavaMonitorEnter":
+                addDuration(locks, className(event.getClass("monitorClass")) + " at " + frame(event.getStackTrace(), true), event.getDuration());
+                break;
+            case "jdk.ThreadPark":
+                RecordedClass parkedClass = event.getClass("parkedClass");
+                if (parkedClass != null && !parkedClass.getName().endsWith("$ConditionObject")) {
+                    addDuration(locks, className(parkedClass) + " at " + frame(event.getStackTrace(), true), event.getDuration());
+                }
+                break;
+            case "jdk.SocketRead":
+            case "jdk.SocketWrite":
+            case "jdk.FileRead":
+            case "jdk.FileWrite":
+                addDuration(ioWaits, event.getEventType().getLabel() + " at " + frame(event.getStackTrace(), true), event.getDuration());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String allocationSite(RecordedEvent event) {
+        return className(event.getClass("objectClass")) + " at " + frame(event.getStackTrace(), true);
+    }
+
+    private static void addDuration(Map<String, long[]> durations, String key, Duration duration) {
+        long[] countAndNanos = durations.computeIfAbsent(key, k -> new long[2]);
+        countAndNanos[0]++;
+        countAndNanos[1] += duration.toNanos();
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass == null ? "<unknown>" : recordedClass.getName();
+    }
+
+    /**
+     * @param outsideJdk whether to skip the frames of the JDK classes
+     */
+    private static String frame(RecordedStackTrace stackTrace, boolean outsideJdk) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame frame = frames.get(0);
+        if (outsideJdk) {
+            frame = frames.stream()
+                    .filter(f -> !f.getMethod().getType().getName().matches("(java|javax|jdk|sun|com\\.sun)\\..*"))
+                    .findFirst()
+                    .orElse(frame);
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    /**
+     * @return sections with tables of the top entries, ordered by samples, bytes or total duration
+     */
+    public String toMarkdown(int top) {
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("Hot methods:\n\n| Method | Samples | % |\n| --- | --- | --- |\n");
+        for (Map.Entry<String, Long> method : top(hotMethods, top)) {
+            markdown.append("| ").append(method.getKey()).append(" | ").append(method.getValue()).append(" | ")
+                    .append(String.format("%.1f", 100.0 * method.getValue() / executionSamples)).append(" |\n");
+        }
+        // Allocation samples supersede the TLAB events where both are recorded
+        Map<String, Long> allocations = allocationSamples.isEmpty() ? tlabAllocations : allocationSamples;
+        long allocatedBytes = allocations.values().stream().mapToLong(Long::longValue).sum();
+        markdown.append("\nAllocation sites:\n\n| Class at | MB | % |\n| --- | --- | --- |\n");
+        for (Map.Entry<String, Long> site : top(allocations, top)) {
+            markdown.append("| ").append(site.getKey()).append(" | ").append(String.format("%.1f", site.getValue() / BYTES_IN_MB)).append(" | ")
+                    .append(String.format("%.1f", 100.0 * site.getValue() / allocatedBytes)).append(" |\n");
+        }
+        appendDurations(markdown, "Lock contention", "Lock at", locks, top);
+        appendDurations(markdown, "I/O waits", "Event at", ioWaits, top);
+        return markdown.toString();
+    }
+
+    private static void appendDurations(StringBuilder markdown, String title, String column, Map<String, long[]> durations, int top) {
+        markdown.append('\n').append(title).append(":\n\n| ").append(column).append(" | Count | Total ms |\n| --- | --- | --- |\n");
+        durations.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                .limit(top)
+                .forEach(entry -> markdown.append("| ").append(entry.getKey()).append(" | ").append(entry.getValue()[0]).append(" | ")
+                        .append(String.format("%.1f", entry.getValue()[1] / 1_000_000.0)).append(" |\n"));
+    }
+
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> values, int top) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long> comparingByValue().reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+    }
+
+    public long getExecutionSamples() {
+        return executionSamples;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+/**
+ * JVM telemetry of the app at a point in time, see {@link JvmSampler}. Memory is in kB, times in ms.
+ */
+public class JvmSample {
+
+    private final long timeNs;
+    private final long heapUsedKb;
+    private final long heapCommittedKb;
+    private final long metaspaceUsedKb;
+    private final long codeCacheUsedKb;
+    private final long[] gcCounts;
+    private final long[] gcTimesMs;
+    private final long compilationTimeMs;
+    private final int loadedClasses;
+    private final int threads;
+
+    public JvmSample(long timeNs, long heapUsedKb, long heapCommittedKb, long metaspaceUsedKb, long codeCacheUsedKb, long[] gcCounts, long[] gcTimesMs,
+            long compilationTimeMs, int loadedClasses, int threads) {
+        this.timeNs = timeNs;
+        this.heapUsedKb = heapUsedKb;
+        this.heapCommittedKb = heapCommittedKb;
+        this.metaspaceUsedKb = metaspaceUsedKb;
+        this.codeCacheUsedKb = codeCacheUsedKb;
+        this.gcCounts = gcCounts;
+        this.gcTimesMs = gcTimesMs;
+        this.compilationTimeMs = compilationTimeMs;
+        this.loadedClasses = loadedClasses;
+        this.threads = threads;
+    }
+
+    /**
+     * @return nanoseconds since the sampler was attached
+     */
+    public long getTimeNs() {
+        return timeNs;
+    }
+
+    public long getHeapUsedKb() {
+        return heapUsedKb;
+    }
+
+    public long getHeapCommittedKb() {
+        return heapCommittedKb;
+    }
+
+    public long getMetaspaceUsedKb() {
+        return metaspaceUsedKb;
+    }
+
+    /**
+     * @return used memory of all code heaps
+     */
+    public long getCodeCacheUsedKb() {
+        return codeCacheUsedKb;
+    }
+
+    /**
+     * @return collections per collector, in the order of {@link JvmSampler#getCollectorNames()}
+     */
+    public long[] getGcCounts() {
+        return gcCounts.clone();
+    }
+
+    /**
+     * @return accumulated collection time per collector, in the order of {@link JvmSampler#getCollectorNames()}
+     */
+    public long[] getGcTimesMs() {
+        return gcTimesMs.clone();
+    }
+
+    public long getGcCount() {
+        long sum = 0;
+        for (long gcCount : gcCounts) {
+            sum += gcCount;
+        }
+        return sum;
+    }
+
+    public long getGcTimeMs() {
+        long sum = 0;
+        for (long gcTimeMs : gcTimesMs) {
+            sum += gcTimeMs;
+        }
+        return sum;
+    }
+
+    /**
+     * @return accumulated JIT compilation time, -1 if not supported
+     */
+    public long getCompilationTimeMs() {
+        return compilationTimeMs;
+    }
+
+    public int getLoadedClasses() {
+        return loadedClasses;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.sun.tools.attach.VirtualMachine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples heap, metaspace, code cache, GC, JIT, class loading and thread telemetry of a running JVM app over JMX.
+ * <p>
+ * The local management agent is started in the app through the Attach API, so no JVM arguments are needed,
+ * but the agent adds a few threads and classes to the app. Safepoint statistics aren't exposed over JMX,
+ * they are read from the HotSpot performance counters through jcmd when the sampler is closed.
+ */
+public class JvmSampler implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(JvmSampler.class);
+
+    private static final long BYTES_IN_KB = 1024L;
+
+    private final long pid;
+    private final long startTime;
+    private final JMXConnector connector;
+    private final MemoryMXBean memory;
+    private final List<MemoryPoolMXBean> metaspacePools;
+    private final List<MemoryPoolMXBean> codeCachePools;
+    private final List<GarbageCollectorMXBean> collectors;
+    private final List<String> collectorNames;
+    private final CompilationMXBean compilation;
+    private final ClassLoadingMXBean classLoading;
+    private final ThreadMXBean threads;
+    private final List<JvmSample> samples = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean closed;
+    private long safepoints = -1L;
+    private long safepointTimeMs = -1L;
+    private long safepointSyncTimeMs = -1L;
+
+    private JvmSampler(long pid, JMXConnector connector, long intervalMs) throws IOException {
+        this.pid = pid;
+        this.startTime = System.nanoTime();
+        this.connector = connector;
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        this.memory = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+        List<MemoryPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(connection, MemoryPoolMXBean.class);
+        this.metaspacePools = pools.stream().filter(pool -> pool.getName().equals("Metaspace")).collect(Collectors.toList());
+        // Segmented code cache has several code heaps, otherwise there's a single "Code Cache" pool
+        this.codeCachePools = pools.stream().filter(pool -> pool.getName().startsWith("CodeHeap") || pool.getName().equals("Code Cache"))
+                .collect(Collectors.toList());
+        this.collectors = ManagementFactory.getPlatformMXBeans(connection, GarbageCollectorMXBean.class);
+        this.collectorNames = collectors.stream().map(GarbageCollectorMXBean::getName).collect(Collectors.toList());
+        this.compilation = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.COMPILATION_MXBEAN_NAME, CompilationMXBean.class);
+        this.classLoading = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.CLASS_LOADING_MXBEAN_NAME, ClassLoadingMXBean.class);
+        this.threads = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+        if (intervalMs > 0) {
+            this.thread = new Thread(() -> run(intervalMs), "jvm-sampler-" + pid);
+            this.thread.setDaemon(true);
+        } else {
+            this.thread = null;
+        }
+    }
+
+    /**
+     * Attaches to the JVM of the process tree and starts sampling. The JVM has to be up already, i.e. call it after
+     * the first OK request.
+     *
+     * @param intervalMs sampling interval; zero or negative for sampling only on demand
+     * @return null if there is no JVM in the tree or it can't be attached to, e.g. a native executable
+     */
+    public static JvmSampler attach(long pid, long intervalMs) {
+        Long jvmPid = Jcmd.findJvm(pid);
+        if (jvmPid == null) {
+            logger.warn("No JVM found in the process tree of " + pid + ", JVM telemetry won't be sampled");
+            return null;
+        }
+        try {
+            VirtualMachine vm = VirtualMachine.attach(String.valueOf(jvmPid));
+            String address;
+            try {
+                address = vm.startLocalManagementAgent();
+            } finally {
+                vm.detach();
+            }
+            JvmSampler sampler = new JvmSampler(jvmPid, JMXConnectorFactory.connect(new JMXServiceURL(address)), intervalMs);
+            if (sampler.thread != null) {
+                sampler.thread.start();
+            }
+            return sampler;
+        } catch (Exception e) {
+            logger.warn("Unable to attach to JVM " + jvmPid + ", JVM telemetry won't be sampled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void run(long intervalMs) {
+        try {
+            while (!closed) {
+                sample();
+                Thread.sleep(intervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The JVM may exit or the connection may break at any time
+            if (!closed) {
+                logger.warn("Sampling of JVM " + pid + " stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Takes a sample right now and adds it to the time series.
+     */
+    public JvmSample sample() {
+        long timeNs = System.nanoTime() - startTime;
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        long[] gcCounts = new long[collectors.size()];
+        long[] gcTimesMs = new long[collectors.size()];
+        for (int i = 0; i < collectors.size(); i++) {
+            // -1 if not supported by the collector
+            gcCounts[i] = Math.max(collectors.get(i).getCollectionCount(), 0);
+            gcTimesMs[i] = Math.max(collectors.get(i).getCollectionTime(), 0);
+        }
+        JvmSample sample = new JvmSample(timeNs, heap.getUsed() / BYTES_IN_KB, heap.getCommitted() / BYTES_IN_KB,
+                usedKb(metaspacePools), usedKb(codeCachePools), gcCounts, gcTimesMs,
+                compilation.isCompilationTimeMonitoringSupported() ? compilation.getTotalCompilationTime() : -1L,
+                classLoading.getLoadedClassCount(), threads.getThreadCount());
+        synchronized (samples) {
+            samples.add(sample);
+        }
+        return sample;
+    }
+
+    private static long usedKb(List<MemoryPoolMXBean> pools) {
+        return pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum() / BYTES_IN_KB;
+    }
+
+    /**
+     * @return names of the garbage collectors, e.g. "G1 Young Generation" and "G1 Old Generation"
+     */
+    public List<String> getCollectorNames() {
+        return collectorNames;
+    }
+
+    /**
+     * @return copy of the time series taken so far
+     */
+    public List<JvmSample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    public long getMaxHeapUsedKb() {
+        return getSamples().stream().mapToLong(JvmSample::getHeapUsedKb).max().orElse(-1L);
+    }
+
+    /**
+     * @return number of safepoints since the JVM started, -1 if not available; read when the sampler is closed
+     */
+    public long getSafepoints() {
+        return safepoints;
+    }
+
+    /**
+     * @return total time spent in safepoints since the JVM started, -1 if not available
+     */
+    public long getSafepointTimeMs() {
+        return safepointTimeMs;
+    }
+
+    /**
+     * @return part of the safepoint time spent bringing the threads to the safepoint, -1 if not available
+     */
+    public long getSafepointSyncTimeMs() {
+        return safepointSyncTimeMs;
+    }
+
+    /**
+     * Writes the time series as CSV, with count and time columns per collector.
+     */
+    public void writeTimeSeries(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            StringBuilder header = new StringBuilder("timeMs,heapUsedKb,heapCommittedKb,metaspaceUsedKb,codeCacheUsedKb");
+            for (String collector : getCollectorNames()) {
+                header.append(',').append(collector).append(" count,").append(collector).append(" timeMs");
+            }
+            header.append(",JITTimeMs,loadedClasses,threads\n");
+            writer.write(header.toString());
+            for (JvmSample sample : getSamples()) {
+                StringBuilder line = new StringBuilder();
+                line.append(TimeUnit.NANOSECONDS.toMillis(sample.getTimeNs())).append(',').append(sample.getHeapUsedKb()).append(',')
+                        .append(sample.getHeapCommittedKb()).append(',').append(sample.getMetaspaceUsedKb()).append(',')
+                        .append(sample.getCodeCacheUsedKb());
+                long[] gcCounts = sample.getGcCounts();
+                long[] gcTimesMs = sample.getGcTimesMs();
+                for (int i = 0; i < gcCounts.length; i++) {
+                    line.append(',').append(gcCounts[i]).append(',').append(gcTimesMs[i]);
+                }
+                line.append(',').append(sample.getCompilationTimeMs()).append(',').append(sample.getLoadedClasses()).append(',')
+                        .append(sample.getThreads()).append('\n');
+                writer.write(line.toString());
+            }
+        }
+    }
+
+    /**
+     * Takes a final sample, reads the safepoint statistics and disconnects. Has to be called while the app still runs,
+     * calling it again does nothing.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            sample();
+        } catch (Exception e) {
+            logger.warn("Final sample of JVM " + pid + " failed: " + e.getMessage());
+        }
+        readSafepoints();
+        try {
+            connector.close();
+        } catch (IOException e) {
+            logger.debug("Closing JMX connection to " + pid + " failed: " + e.getMessage());
+        }
+    }
+
+    private void readSafepoints() {
+        Map<String, Long> counters = new HashMap<>();
+        try {
+            for (String line : Jcmd.execute(pid, "PerfCounter.print")) {
+                // e.g. sun.rt.safepoints=1234
+                String[] nameValue = line.split("=", 2);
+                if (nameValue.length == 2 && nameValue[1].matches("[0-9]+")) {
+                    counters.put(nameValue[0], Long.parseLong(nameValue[1]));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read the performance counters of JVM " + pid + ": " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Long ticksPerSecond = counters.get("sun.os.hrt.frequency");
+        if (counters.containsKey("sun.rt.safepoints") && ticksPerSecond != null && ticksPerSecond > 0) {
+            safepoints = counters.get("sun.rt.safepoints");
+            safepointTimeMs = counters.getOrDefault("sun.rt.safepointTime", 0L) * 1000 / ticksPerSecond;
+            safepointSyncTimeMs = counters.getOrDefault("sun.rt.safepointSyncTime", 0L) * 1000 / ticksPerSecond;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * HTTP client used by the load generator to send requests to the app under test.
+ * <p>
+ * Everything that doesn't change between requests (URI parsing, headers, body encoding) is done once
+ * in {@link #prepare(HTTPRequestInfo)}, so that the per-request overhead of the client is as low as possible.
+ * Implementations must be safe to be used from multiple threads, {@link PreparedRequest} instances are not.
+ *
+ * @see LoadClientType
+ */
+public interface LoadClient extends Closeable {
+
+    /**
+     * Prepares a request that can be sent repeatedly by a single thread.
+     */
+    PreparedRequest prepare(HTTPRequestInfo requestInfo) throws IOException;
+
+    interface PreparedRequest {
+
+        /**
+         * Sends the request and reads the whole response.
+         *
+         * @return HTTP status code of the response
+         */
+        int send() throws IOException;
+
+        /**
+         * Sends the request with the placeholders in its URI, like {@link HTTPRequestInfo#ID_PLACEHOLDER}, replaced by the given values
+         * and keeps the response body, for requests which depend on the responses of previous ones.
+         * Requests with a templated URI have to be sent this way.
+         *
+         * @param values replace the placeholders by their names, may be null if the URI is not a template
+         * @param responseBody reset and filled with the response body
+         * @return HTTP status code of the response
+         */
+        int send(Map<String, String> values, ByteArrayOutputStream responseBody) throws IOException;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.function.IntFunction;
+
+/**
+ * Available {@link LoadClient} implementations. They differ a lot in the overhead per request,
+ * which is part of every measured latency.
+ */
+public enum LoadClientType {
+    APACHE_HTTP_CLIENT_4(ApacheLoadClient::new),
+    JDK_HTTP_CLIENT(JdkLoadClient::new),
+    NIO(maxConnections -> new NioLoadClient());
+
+    private final IntFunction<LoadClient> factory;
+
+    LoadClientType(IntFunction<LoadClient> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @param maxConnections maximum number of concurrent requests the client is expected to handle, which sizes the
+     *        connection pool of the Apache client and the executor of the JDK client; ignored by NIO, which keeps one
+     *        connection per prepared request, so per worker of the {@link LoadGenerator} and request of its workload
+     */
+    public LoadClient create(int maxConnections) {
+        return factory.apply(maxConnections);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Sends requests to the app under test from a fixed number of threads, each with its own connection per request of the workload.
+ * <p>
+ * With a positive rate this is an open model: the requests are scheduled at a constant arrival rate
+ * no matter how long the responses take, and the latency is measured from the intended send time. A stall of the app
+ * then shows up in the latencies instead of just slowing down the load generator (coordinated omission).
+ * Without a rate this is a closed model: every thread sends the next request as soon as it gets the previous response.
+ * <p>
+ * Not thread-safe, runs are expected to be started one after another.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadClient client;
+    private final int concurrency;
+    // One prepared request per worker, reused across runs so that persistent connections are reused too
+    private final Map<HTTPRequestInfo, LoadClient.PreparedRequest[]> preparedRequests = new HashMap<>();
+
+    public LoadGenerator(LoadClient client, int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be a positive int, was: " + concurrency);
+        }
+        this.client = client;
+        this.concurrency = concurrency;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Closed model run.
+     */
+    public LoadResult run(HTTPRequestInfo requestInfo, int count) throws IOException, InterruptedException {
+        return run(requestInfo, count, 0);
+    }
+
+    /**
+     * @param requestsPerSecond constant arrival rate; zero or negative for the closed model
+     */
+    public LoadResult run(HTTPRequestInfo requestInfo, int count, int requestsPerSecond) throws IOException, InterruptedException {
+        return run(Workload.of(requestInfo), count, requestsPerSecond);
+    }
+
+    /**
+     * Sends the requests of the workload interleaved according to their weights. The arrival rate and the count apply
+     * to the workload as a whole, a lifecycle of the workload counts as a single request.
+     *
+     * @param requestsPerSecond constant arrival rate; zero or negative for the closed model
+     */
+    public LoadResult run(Workload workload, int count, int requestsPerSecond) throws IOException, InterruptedException {
+        return run(workload.getLifecycles(), workload::requestIndex, workload.getStepNames(), count, requestsPerSecond);
+    }
+
+    /**
+     * Creates process instances and takes each of them through the lifecycle. The latencies are reported per step,
+     * the latency of the create step includes the time the instance waited for its scheduled start.
+     *
+     * @param instancesPerSecond constant arrival rate of new instances; zero or negative for the closed model
+     */
+    public LoadResult run(ProcessLifecycle lifecycle, int instances, int instancesPerSecond) throws IOException, InterruptedException {
+        return run(Collections.singletonList(lifecycle), i -> 0, lifecycle.getNames(), instances, instancesPerSecond);
+    }
+
+    /**
+     * Sends the count lifecycles selected by their sequence, the steps of each one after another.
+     *
+     * @param stepNames names the steps of all the lifecycles are reported under, in the order of the lifecycles
+     */
+    private LoadResult run(List<ProcessLifecycle> lifecycles, IntUnaryOperator lifecycleIndex, List<String> stepNames, int count,
+            int perSecond) throws IOException, InterruptedException {
+        long intervalNs = perSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / perSecond : 0;
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicLong firstResponseTime = new AtomicLong(-1L);
+        AtomicBoolean errorLogged = new AtomicBoolean();
+        // Per lifecycle, the index of its first step in the results and its prepared requests
+        int[] firstSteps = new int[lifecycles.size()];
+        LoadClient.PreparedRequest[][][] requests = new LoadClient.PreparedRequest[lifecycles.size()][][];
+        for (int l = 0, step = 0; l < lifecycles.size(); step += lifecycles.get(l).size(), l++) {
+            firstSteps[l] = step;
+            requests[l] = prepare(lifecycles.get(l).getRequestInfos().toArray(new HTTPRequestInfo[0]));
+        }
+        long startTime = System.nanoTime();
+        List<WorkerResult> workerResults = runWorkers(worker -> () -> {
+            WorkerResult workerResult = new WorkerResult(stepNames.size());
+            ByteArrayOutputStream responseBody = new ByteArrayOutputStream(1024);
+            Map<String, String> values = new HashMap<>();
+            int i;
+            while ((i = sequence.getAndIncrement()) < count) {
+                int l = lifecycleIndex.applyAsInt(i);
+                ProcessLifecycle lifecycle = lifecycles.get(l);
+                long requestStartTime = awaitStart(startTime, i, intervalNs);
+                values.clear();
+                for (int s = 0; s < lifecycle.size(); s++) {
+                    HTTPRequestInfo requestInfo = lifecycle.getRequestInfos().get(s);
+                    LoadClient.PreparedRequest request = requests[l][s][worker];
+                    boolean captures = lifecycle.captures(s);
+                    String failure;
+                    try {
+                        int statusCode = captures || requestInfo.isURITemplate()
+                                ? request.send(values, captures ? responseBody : null)
+                                : request.send();
+                        failure = checkStatus(statusCode, requestInfo);
+                        if (failure == null && captures) {
+                            failure = lifecycle.capture(s, responseBody.toString(UTF_8), values);
+                        }
+                    } catch (IOException e) {
+                        failure = e.toString();
+                    }
+                    long duration = System.nanoTime() - requestStartTime;
+                    if (failure != null) {
+                        workerResult.errors[firstSteps[l] + s]++;
+                        logFirstError(errorLogged, requestInfo.getURI(), failure);
+                        break;
+                    }
+                    workerResult.latencies[firstSteps[l] + s].recordValue(duration);
+                    if (i == 0 && s == 0) {
+                        firstResponseTime.set(duration);
+                    }
+                    requestStartTime = System.nanoTime();
+                }
+            }
+            return workerResult;
+        }, stepNames.toString());
+        long durationNs = System.nanoTime() - startTime;
+        return collect(stepNames, workerResults, firstResponseTime.get(), durationNs);
+    }
+
+    /**
+     * Runs a task per worker, the worker index selects its prepared requests.
+     */
+    private List<WorkerResult> runWorkers(IntFunction<Callable<WorkerResult>> task, String target) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<WorkerResult>> workers = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(executor.submit(task.apply(w)));
+            }
+            List<WorkerResult> workerResults = new ArrayList<>(concurrency);
+            for (Future<WorkerResult> worker : workers) {
+                workerResults.add(worker.get());
+            }
+            return workerResults;
+        } catch (ExecutionException e) {
+            throw new IOException("Load generator failed when sending requests to " + target, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return intended start of the i-th request in the open model, once it is reached; now in the closed model
+     */
+    private static long awaitStart(long startTime, int i, long intervalNs) {
+        if (intervalNs <= 0) {
+            return System.nanoTime();
+        }
+        long requestStartTime = startTime + i * intervalNs;
+        long now;
+        while ((now = System.nanoTime()) < requestStartTime) {
+            LockSupport.parkNanos(requestStartTime - now);
+        }
+        return requestStartTime;
+    }
+
+    private static String checkStatus(int statusCode, HTTPRequestInfo requestInfo) {
+        if (statusCode != requestInfo.getExpectedResponseStatusCode()) {
+            return "Unexpected status code " + statusCode + ", expected " + requestInfo.getExpectedResponseStatusCode();
+        }
+        return null;
+    }
+
+    private static void logFirstError(AtomicBoolean errorLogged, String uri, String failure) {
+        if (errorLogged.compareAndSet(false, true)) {
+            logger.warn("Request to " + uri + " failed: " + failure);
+        }
+    }
+
+    private static LoadResult collect(List<String> names, List<WorkerResult> workerResults, long firstResponseTimeNs, long durationNs) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long errors = 0;
+        Map<String, LoadResult> requestResults = new LinkedHashMap<>();
+        for (int r = 0; r < names.size(); r++) {
+            LatencyHistogram requestLatencies = new LatencyHistogram();
+            long requestErrors = 0;
+            for (WorkerResult workerResult : workerResults) {
+                requestLatencies.add(workerResult.latencies[r]);
+                requestErrors += workerResult.errors[r];
+            }
+            latencies.add(requestLatencies);
+            errors += requestErrors;
+            requestResults.put(names.get(r), new LoadResult(requestLatencies, -1L, durationNs, requestErrors));
+        }
+        return new LoadResult(latencies, firstResponseTimeNs, durationNs, errors, requestResults);
+    }
+
+    private LoadClient.PreparedRequest[][] prepare(HTTPRequestInfo[] requestInfos) throws IOException {
+        LoadClient.PreparedRequest[][] requests = new LoadClient.PreparedRequest[requestInfos.length][];
+        for (int r = 0; r < requestInfos.length; r++) {
+            requests[r] = prepare(requestInfos[r]);
+        }
+        return requests;
+    }
+
+    private LoadClient.PreparedRequest[] prepare(HTTPRequestInfo requestInfo) throws IOException {
+        LoadClient.PreparedRequest[] requests = preparedRequests.get(requestInfo);
+        if (requests == null) {
+            requests = new LoadClient.PreparedRequest[concurrency];
+            for (int w = 0; w < concurrency; w++) {
+                requests[w] = client.prepare(requestInfo);
+            }
+            preparedRequests.put(requestInfo, requests);
+        }
+        return requests;
+    }
+
+    private static class WorkerResult {
+        private final LatencyHistogram[] latencies;
+        private final long[] errors;
+
+        WorkerResult(int requestTypes) {
+            this.latencies = new LatencyHistogram[requestTypes];
+            for (int r = 0; r < requestTypes; r++) {
+                latencies[r] = new LatencyHistogram();
+            }
+            this.errors = new long[requestTypes];
+        }
+    }
+}
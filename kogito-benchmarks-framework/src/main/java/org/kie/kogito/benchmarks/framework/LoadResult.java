@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class which holds the outcome of a single {@link LoadGenerator} run. For a {@link Workload} the values are aggregated
+ * over all its requests and the results of the individual requests are available by name.
+ */
+public class LoadResult {
+
+    private final LatencyHistogram latencies;
+    private final long firstResponseTimeNs;
+    private final long durationNs;
+    private final long errors;
+    private final Map<String, LoadResult> requestResults;
+
+    public LoadResult(LatencyHistogram latencies, long firstResponseTimeNs, long durationNs, long errors) {
+        this(latencies, firstResponseTimeNs, durationNs, errors, Collections.emptyMap());
+    }
+
+    public LoadResult(LatencyHistogram latencies, long firstResponseTimeNs, long durationNs, long errors, Map<String, LoadResult> requestResults) {
+        this.latencies = latencies;
+        this.firstResponseTimeNs = firstResponseTimeNs;
+        this.durationNs = durationNs;
+        this.errors = errors;
+        this.requestResults = requestResults;
+    }
+
+    /**
+     * @return latencies of the successful requests in nanoseconds
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getFirstResponseTimeNs() {
+        return firstResponseTimeNs;
+    }
+
+    public long getDurationNs() {
+        return durationNs;
+    }
+
+    /**
+     * @return number of requests which failed or returned an unexpected status code
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRequests() {
+        return latencies.getTotalCount() + errors;
+    }
+
+    public double getErrorRate() {
+        return getRequests() == 0 ? 0.0 : (double) errors / getRequests();
+    }
+
+    /**
+     * @return successful requests per second
+     */
+    public double getThroughput() {
+        return latencies.getTotalCount() / (durationNs / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * @return results of the individual requests of the workload in the order they were added, keyed by their names;
+     *         their throughput is relative to the duration of the whole run
+     */
+    public Map<String, LoadResult> getRequestResults() {
+        return Collections.unmodifiableMap(requestResults);
+    }
+}
@@ -16,9 +16,12 @@
 package org.kie.kogito.benchmarks.framework;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class LogBuilder {
 
+    private static final double NANOS_IN_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
     public static class Log {
         public final String headerCSV;
         public final String headerMarkdown;
@@ -53,12 +56,187 @@ public class LogBuilder {
     private double avgResponseTime = -1.0;
     private double firstResponseTime = -1.0;
     private double totalDuration = -1.0;
+    private static final String p50ResponseTimeHeader = "p50ResponseTimeMs";
+    private double p50ResponseTime = -1.0;
+    private static final String p90ResponseTimeHeader = "p90ResponseTimeMs";
+    private double p90ResponseTime = -1.0;
+    private static final String p99ResponseTimeHeader = "p99ResponseTimeMs";
+    private double p99ResponseTime = -1.0;
+    private static final String p999ResponseTimeHeader = "p99.9ResponseTimeMs";
+    private double p999ResponseTime = -1.0;
+    private static final String p9999ResponseTimeHeader = "p99.99ResponseTimeMs";
+    private double p9999ResponseTime = -1.0;
+    private static final String maxResponseTimeHeader = "maxResponseTimeMs";
+    private double maxResponseTime = -1.0;
+    private static final String concurrencyHeader = "concurrency";
+    private int concurrency = -1;
+    private static final String throughputHeader = "throughputRps";
+    private double throughput = -1.0;
+    private static final String warmUpRequestsHeader = "warmUpRequests";
+    private long warmUpRequests = -1L;
+    private static final String warmUpDurationHeader = "warmUpDurationS";
+    private double warmUpDuration = -1.0;
+    private static final String offeredRateHeader = "offeredRateRps";
+    private int offeredRate = -1;
+    private static final String errorRateHeader = "errorRate";
+    private double errorRate = -1.0;
+    private static final String maxSustainableThroughputHeader = "maxSustainableThroughputRps";
+    private double maxSustainableThroughput = -1.0;
+    private static final String elapsedHeader = "elapsedS";
+    private double elapsed = -1.0;
+    private static final String threadsHeader = "threads";
+    private long threads = -1L;
+    // Slopes can be negative, NaN marks them as not set
+    private static final String rssKbSlopeHeader = "RSSKbSlopePerHour";
+    private double rssKbSlope = Double.NaN;
+    private static final String openedFilesSlopeHeader = "FDsSlopePerHour";
+    private double openedFilesSlope = Double.NaN;
+    private static final String cpuTimeToFirstOKRequestMsHeader = "cpuTimeToFirstOKRequestMs";
+    private long cpuTimeToFirstOKRequestMs = -1L;
+    private static final String warmUpCpuTimeHeader = "warmUpCpuTimeMs";
+    private long warmUpCpuTime = -1L;
+    private static final String loadCpuTimeHeader = "loadCpuTimeMs";
+    private long loadCpuTime = -1L;
+    private static final String cpuTimePerRequestHeader = "cpuTimePerRequestUs";
+    private double cpuTimePerRequest = -1.0;
+    private static final String cyclesPerRequestHeader = "cyclesPerRequest";
+    private double cyclesPerRequest = -1.0;
+    private static final String instructionsPerRequestHeader = "instructionsPerRequest";
+    private double instructionsPerRequest = -1.0;
+    private static final String rssKbPeakHeader = "RSSKbPeak";
+    private long rssKbPeak = -1L;
+    private static final String pssKbHeader = "PSSKb";
+    private long pssKb = -1L;
+    private static final String ussKbHeader = "USSKb";
+    private long ussKb = -1L;
+    private static final String anonymousKbHeader = "anonymousKb";
+    private long anonymousKb = -1L;
+    private static final String fileBackedKbHeader = "fileBackedKb";
+    private long fileBackedKb = -1L;
+    private static final String jarMappedKbHeader = "jarMappedKb";
+    private long jarMappedKb = -1L;
+    private static final String sharedLibraryMappedKbHeader = "soMappedKb";
+    private long sharedLibraryMappedKb = -1L;
+    private static final String socketFDsHeader = "socketFDs";
+    private long socketFDs = -1L;
+    private static final String jarFDsHeader = "jarFDs";
+    private long jarFDs = -1L;
+    private static final String sharedLibraryFDsHeader = "soFDs";
+    private long sharedLibraryFDs = -1L;
+    private static final String regularFileFDsHeader = "fileFDs";
+    private long regularFileFDs = -1L;
+    private static final String heapUsedKbHeader = "heapUsedKb";
+    private long heapUsedKb = -1L;
+    private static final String heapUsedKbMaxHeader = "heapUsedKbMax";
+    private long heapUsedKbMax = -1L;
+    private static final String heapCommittedKbHeader = "heapCommittedKb";
+    private long heapCommittedKb = -1L;
+    private static final String metaspaceUsedKbHeader = "metaspaceUsedKb";
+    private long metaspaceUsedKb = -1L;
+    private static final String codeCacheUsedKbHeader = "codeCacheUsedKb";
+    private long codeCacheUsedKb = -1L;
+    private static final String gcCountHeader = "GCs";
+    private long gcCount = -1L;
+    private static final String gcTimeMsHeader = "GCTimeMs";
+    private long gcTimeMs = -1L;
+    private static final String jitTimeMsHeader = "JITTimeMs";
+    private long jitTimeMs = -1L;
+    private static final String loadedClassesHeader = "loadedClasses";
+    private long loadedClasses = -1L;
+    private static final String jvmThreadsHeader = "JVMThreads";
+    private long jvmThreads = -1L;
+    private static final String safepointsHeader = "safepoints";
+    private long safepoints = -1L;
+    private static final String safepointTimeMsHeader = "safepointTimeMs";
+    private long safepointTimeMs = -1L;
+    private static final String allocationRateMBpsHeader = "allocMBps";
+    private double allocationRateMBps = -1.0;
+    private static final String allocatedBytesPerRequestHeader = "allocBytesPerRequest";
+    private double allocatedBytesPerRequest = -1.0;
+    private static final String promotionRateMBpsHeader = "promotionMBps";
+    private double promotionRateMBps = -1.0;
+    private static final String gcPausesHeader = "GCPauses";
+    private long gcPauses = -1L;
+    private static final String gcPauseP50MsHeader = "GCPauseP50Ms";
+    private double gcPauseP50Ms = -1.0;
+    private static final String gcPauseP99MsHeader = "GCPauseP99Ms";
+    private double gcPauseP99Ms = -1.0;
+    private static final String gcPauseMaxMsHeader = "GCPauseMaxMs";
+    private double gcPauseMaxMs = -1.0;
+    private static final String threadsMaxHeader = "threadsMax";
+    private long threadsMax = -1L;
+    private static final String voluntaryCtxSwitchesPerRequestHeader = "volCtxSwitchesPerRequest";
+    private double voluntaryCtxSwitchesPerRequest = -1.0;
+    private static final String nonvoluntaryCtxSwitchesPerRequestHeader = "nonvolCtxSwitchesPerRequest";
+    private double nonvoluntaryCtxSwitchesPerRequest = -1.0;
+    private static final String voluntaryCtxSwitchesPerSecMaxHeader = "volCtxSwitchesPerSecMax";
+    private double voluntaryCtxSwitchesPerSecMax = -1.0;
+    private static final String nonvoluntaryCtxSwitchesPerSecMaxHeader = "nonvolCtxSwitchesPerSecMax";
+    private double nonvoluntaryCtxSwitchesPerSecMax = -1.0;
+    private static final String runQueueWaitPerRequestUsHeader = "runQueueWaitPerRequestUs";
+    private double runQueueWaitPerRequestUs = -1.0;
+    private static final String nmtCommittedKbHeader = "NMTCommittedKb";
+    private long nmtCommittedKb = -1L;
+    private static final String nmtJavaHeapKbHeader = "NMTJavaHeapKb";
+    private long nmtJavaHeapKb = -1L;
+    private static final String nmtClassKbHeader = "NMTClassKb";
+    private long nmtClassKb = -1L;
+    private static final String nmtThreadKbHeader = "NMTThreadKb";
+    private long nmtThreadKb = -1L;
+    private static final String nmtCodeKbHeader = "NMTCodeKb";
+    private long nmtCodeKb = -1L;
+    private static final String nmtGcKbHeader = "NMTGCKb";
+    private long nmtGcKb = -1L;
+    private static final String nmtInternalKbHeader = "NMTInternalKb";
+    private long nmtInternalKb = -1L;
+    private static final String nmtSymbolKbHeader = "NMTSymbolKb";
+    private long nmtSymbolKb = -1L;
+    private static final String timeToPortOpenUsHeader = "timeToPortOpenUs";
+    private long timeToPortOpenUs = -1L;
+    private static final String timeToFirstOKRequestUsHeader = "timeToFirstOKRequestUs";
+    private long timeToFirstOKRequestUs = -1L;
+    private static final String jvmInitUsHeader = "jvmInitUs";
+    private long jvmInitUs = -1L;
+    private static final String firstOKAfterPortOpenUsHeader = "firstOKAfterPortOpenUs";
+    private long firstOKAfterPortOpenUs = -1L;
+    private static final String allURLsAfterFirstOKUsHeader = "allURLsAfterFirstOKUs";
+    private long allURLsAfterFirstOKUs = -1L;
+    private static final String timeToFirstOKRequestMsWithoutCDSHeader = "timeToFirstOKRequestMsNoCDS";
+    private long timeToFirstOKRequestMsWithoutCDS = -1L;
+    private static final String rssKbWithoutCDSHeader = "RSSKbNoCDS";
+    private long rssKbWithoutCDS = -1L;
+    private static final String timeToFirstOKRequestMsMedianHeader = "timeToFirstOKRequestMsMedian";
+    private double timeToFirstOKRequestMsMedian = Double.NaN;
+    private static final String timeToFirstOKRequestMsMadHeader = "timeToFirstOKRequestMsMAD";
+    private double timeToFirstOKRequestMsMad = Double.NaN;
+    private static final String timeToFirstOKRequestMsMeanHeader = "timeToFirstOKRequestMsMean";
+    private double timeToFirstOKRequestMsMean = Double.NaN;
+    private static final String timeToFirstOKRequestMsCiLowHeader = "timeToFirstOKRequestMsCILow";
+    private double timeToFirstOKRequestMsCiLow = Double.NaN;
+    private static final String timeToFirstOKRequestMsCiHighHeader = "timeToFirstOKRequestMsCIHigh";
+    private double timeToFirstOKRequestMsCiHigh = Double.NaN;
+    private static final String rssKbMedianHeader = "RSSKbMedian";
+    private double rssKbMedian = Double.NaN;
+    private static final String rssKbMadHeader = "RSSKbMAD";
+    private double rssKbMad = Double.NaN;
+    private static final String rssKbMeanHeader = "RSSKbMean";
+    private double rssKbMean = Double.NaN;
+    private static final String rssKbCiLowHeader = "RSSKbCILow";
+    private double rssKbCiLow = Double.NaN;
+    private static final String rssKbCiHighHeader = "RSSKbCIHigh";
+    private double rssKbCiHigh = Double.NaN;
+    private static final String startStopIterationsHeader = "startStopIterations";
+    private int startStopIterations = -1;
     private static final String openedFilesHeader = "FDs";
     private long openedFiles = -1L;
     private static final String appHeader = "App";
     private App app = null;
     private static final String modeHeader = "Mode";
     private MvnCmds mode = null;
+    private static final String requestHeader = "Request";
+    private String request = null;
+    private static final String phaseHeader = "Phase";
+    private String phase = null;
 
     public LogBuilder buildTimeMs(long buildTimeMs) {
         if (buildTimeMs <= 0) {
@@ -140,111 +318,1324 @@ public class LogBuilder {
         return this;
     }
 
-    public LogBuilder openedFiles(long openedFiles) {
-        if (openedFiles <= 0) {
-            throw new IllegalArgumentException("openedFiles must be a positive long, was: " + openedFiles);
+    /**
+     * Sets median, MAD, mean and 95% confidence interval columns of the time to first OK request of several starts.
+     */
+    public LogBuilder timeToFirstOKRequestStatistics(SampleStatistics statistics) {
+        this.timeToFirstOKRequestMsMedian = statistics.getMedian();
+        this.timeToFirstOKRequestMsMad = statistics.getMad();
+        this.timeToFirstOKRequestMsMean = statistics.getMean();
+        this.timeToFirstOKRequestMsCiLow = statistics.getCiLow();
+        this.timeToFirstOKRequestMsCiHigh = statistics.getCiHigh();
+        return this;
+    }
+
+    /**
+     * Sets median, MAD, mean and 95% confidence interval columns of the RSS of several starts.
+     */
+    public LogBuilder rssKbStatistics(SampleStatistics statistics) {
+        this.rssKbMedian = statistics.getMedian();
+        this.rssKbMad = statistics.getMad();
+        this.rssKbMean = statistics.getMean();
+        this.rssKbCiLow = statistics.getCiLow();
+        this.rssKbCiHigh = statistics.getCiHigh();
+        return this;
+    }
+
+    /**
+     * Sets p50, p90, p99, p99.9, p99.99 and max response time columns from a histogram of nanosecond values.
+     */
+    public LogBuilder responseTimePercentiles(LatencyHistogram histogram) {
+        if (histogram.getTotalCount() <= 0) {
+            throw new IllegalArgumentException("histogram must contain at least one value");
         }
-        this.openedFiles = openedFiles;
+        this.p50ResponseTime = histogram.getValueAtPercentile(50.0) / NANOS_IN_MILLISECOND;
+        this.p90ResponseTime = histogram.getValueAtPercentile(90.0) / NANOS_IN_MILLISECOND;
+        this.p99ResponseTime = histogram.getValueAtPercentile(99.0) / NANOS_IN_MILLISECOND;
+        this.p999ResponseTime = histogram.getValueAtPercentile(99.9) / NANOS_IN_MILLISECOND;
+        this.p9999ResponseTime = histogram.getValueAtPercentile(99.99) / NANOS_IN_MILLISECOND;
+        this.maxResponseTime = histogram.getMaxValue() / NANOS_IN_MILLISECOND;
         return this;
     }
 
-    public LogBuilder app(App app) {
-        Objects.requireNonNull(app, "Valid app flavour must be provided");
-        this.app = app;
+    public LogBuilder concurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be a positive int, was: " + concurrency);
+        }
+        this.concurrency = concurrency;
         return this;
     }
 
-    public LogBuilder mode(MvnCmds mode) {
-        Objects.requireNonNull(mode, "Valid app flavour must be provided");
-        this.mode = mode;
+    public LogBuilder throughput(double throughput) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("throughput must be a positive double, was: " + throughput);
+        }
+        this.throughput = throughput;
         return this;
     }
 
-    public Log build() {
-        StringBuilder h = new StringBuilder(512);
-        StringBuilder l = new StringBuilder(512);
-        int sections = 0;
-        if (app != null) {
-            h.append(appHeader);
-            h.append(',');
-            l.append(app);
-            l.append(',');
-            sections++;
+    public LogBuilder warmUpRequests(long warmUpRequests) {
+        if (warmUpRequests <= 0) {
+            throw new IllegalArgumentException("warmUpRequests must be a positive long, was: " + warmUpRequests);
         }
-        if (mode != null) {
-            h.append(modeHeader);
-            h.append(',');
-            l.append(mode);
-            l.append(',');
-            sections++;
+        this.warmUpRequests = warmUpRequests;
+        return this;
+    }
+
+    public LogBuilder warmUpDuration(double warmUpDuration) {
+        if (warmUpDuration <= 0) {
+            throw new IllegalArgumentException("warmUpDuration must be a positive double, was: " + warmUpDuration);
         }
-        if (buildTimeMs != -1L) {
-            h.append(buildTimeMsHeader);
-            h.append(',');
-            l.append(buildTimeMs);
-            l.append(',');
-            sections++;
+        this.warmUpDuration = warmUpDuration;
+        return this;
+    }
+
+    public LogBuilder offeredRate(int offeredRate) {
+        if (offeredRate <= 0) {
+            throw new IllegalArgumentException("offeredRate must be a positive int, was: " + offeredRate);
         }
-        if (timeToFirstOKRequestMs != -1L) {
-            h.append(timeToFirstOKRequestMsHeader);
-            h.append(',');
-            l.append(timeToFirstOKRequestMs);
-            l.append(',');
-            sections++;
+        this.offeredRate = offeredRate;
+        return this;
+    }
+
+    public LogBuilder errorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be a double between 0 and 1, was: " + errorRate);
         }
-        if (timeToReloadedOKRequest != -1L) {
-            h.append(timeToReloadedOKRequestHeader);
-            h.append(',');
-            l.append(timeToReloadedOKRequest);
-            l.append(',');
-            sections++;
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public LogBuilder maxSustainableThroughput(double maxSustainableThroughput) {
+        if (maxSustainableThroughput <= 0) {
+            throw new IllegalArgumentException("maxSustainableThroughput must be a positive double, was: " + maxSustainableThroughput);
         }
-        if (startedInMs != -1L) {
-            h.append(startedInMsHeader);
-            h.append(',');
-            l.append(startedInMs);
-            l.append(',');
-            sections++;
+        this.maxSustainableThroughput = maxSustainableThroughput;
+        return this;
+    }
+
+    public LogBuilder elapsed(double elapsed) {
+        if (elapsed < 0) {
+            throw new IllegalArgumentException("elapsed must not be negative, was: " + elapsed);
         }
-        if (stoppedInMs != -1L) {
-            h.append(stoppedInMsHeader);
-            h.append(',');
-            l.append(stoppedInMs);
-            l.append(',');
-            sections++;
+        this.elapsed = elapsed;
+        return this;
+    }
+
+    public LogBuilder threads(long threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be a positive long, was: " + threads);
         }
-        if (rssKb != -1L) {
-            h.append(rssKbHeader);
-            h.append(',');
-            l.append(rssKb);
-            l.append(',');
-            sections++;
+        this.threads = threads;
+        return this;
+    }
+
+    public LogBuilder rssKbSlope(double rssKbSlope) {
+        if (Double.isNaN(rssKbSlope) || Double.isInfinite(rssKbSlope)) {
+            throw new IllegalArgumentException("rssKbSlope must be a finite double, was: " + rssKbSlope);
         }
-        if (rssKbFinal != -1L) {
-            h.append(rssKbFinalHeader);
-            h.append(',');
-            l.append(rssKbFinal);
-            l.append(',');
-            sections++;
+        this.rssKbSlope = rssKbSlope;
+        return this;
+    }
+
+    public LogBuilder openedFilesSlope(double openedFilesSlope) {
+        if (Double.isNaN(openedFilesSlope) || Double.isInfinite(openedFilesSlope)) {
+            throw new IllegalArgumentException("openedFilesSlope must be a finite double, was: " + openedFilesSlope);
         }
-        if (avgResponseTime != -1L) {
-            h.append(avgResponseTimeHeader);
-            h.append(',');
-            l.append(avgResponseTime);
-            l.append(',');
-            sections++;
+        this.openedFilesSlope = openedFilesSlope;
+        return this;
+    }
+
+    public LogBuilder cpuTimeToFirstOKRequestMs(long cpuTimeToFirstOKRequestMs) {
+        if (cpuTimeToFirstOKRequestMs < 0) {
+            throw new IllegalArgumentException("cpuTimeToFirstOKRequestMs must not be negative, was: " + cpuTimeToFirstOKRequestMs);
         }
-        if (firstResponseTime != -1L) {
-            h.append(firstResponseTimeHeader);
-            h.append(',');
-            l.append(firstResponseTime);
-            l.append(',');
-            sections++;
+        this.cpuTimeToFirstOKRequestMs = cpuTimeToFirstOKRequestMs;
+        return this;
+    }
+
+    public LogBuilder warmUpCpuTime(long warmUpCpuTime) {
+        if (warmUpCpuTime < 0) {
+            throw new IllegalArgumentException("warmUpCpuTime must not be negative, was: " + warmUpCpuTime);
         }
-        if (totalDuration != -1L) {
-            h.append(totalDurationHeader);
-            h.append(',');
-            l.append(totalDuration);
+        this.warmUpCpuTime = warmUpCpuTime;
+        return this;
+    }
+
+    public LogBuilder loadCpuTime(long loadCpuTime) {
+        if (loadCpuTime < 0) {
+            throw new IllegalArgumentException("loadCpuTime must not be negative, was: " + loadCpuTime);
+        }
+        this.loadCpuTime = loadCpuTime;
+        return this;
+    }
+
+    public LogBuilder cpuTimePerRequest(double cpuTimePerRequest) {
+        if (cpuTimePerRequest < 0) {
+            throw new IllegalArgumentException("cpuTimePerRequest must not be negative, was: " + cpuTimePerRequest);
+        }
+        this.cpuTimePerRequest = cpuTimePerRequest;
+        return this;
+    }
+
+    public LogBuilder cyclesPerRequest(double cyclesPerRequest) {
+        if (cyclesPerRequest < 0) {
+            throw new IllegalArgumentException("cyclesPerRequest must not be negative, was: " + cyclesPerRequest);
+        }
+        this.cyclesPerRequest = cyclesPerRequest;
+        return this;
+    }
+
+    public LogBuilder instructionsPerRequest(double instructionsPerRequest) {
+        if (instructionsPerRequest < 0) {
+            throw new IllegalArgumentException("instructionsPerRequest must not be negative, was: " + instructionsPerRequest);
+        }
+        this.instructionsPerRequest = instructionsPerRequest;
+        return this;
+    }
+
+    public LogBuilder rssKbPeak(long rssKbPeak) {
+        if (rssKbPeak <= 0) {
+            throw new IllegalArgumentException("rssKbPeak must be a positive long, was: " + rssKbPeak);
+        }
+        this.rssKbPeak = rssKbPeak;
+        return this;
+    }
+
+    public LogBuilder pssKb(long pssKb) {
+        if (pssKb <= 0) {
+            throw new IllegalArgumentException("pssKb must be a positive long, was: " + pssKb);
+        }
+        this.pssKb = pssKb;
+        return this;
+    }
+
+    public LogBuilder ussKb(long ussKb) {
+        if (ussKb <= 0) {
+            throw new IllegalArgumentException("ussKb must be a positive long, was: " + ussKb);
+        }
+        this.ussKb = ussKb;
+        return this;
+    }
+
+    public LogBuilder anonymousKb(long anonymousKb) {
+        if (anonymousKb < 0) {
+            throw new IllegalArgumentException("anonymousKb must not be negative, was: " + anonymousKb);
+        }
+        this.anonymousKb = anonymousKb;
+        return this;
+    }
+
+    public LogBuilder fileBackedKb(long fileBackedKb) {
+        if (fileBackedKb < 0) {
+            throw new IllegalArgumentException("fileBackedKb must not be negative, was: " + fileBackedKb);
+        }
+        this.fileBackedKb = fileBackedKb;
+        return this;
+    }
+
+    public LogBuilder jarMappedKb(long jarMappedKb) {
+        if (jarMappedKb < 0) {
+            throw new IllegalArgumentException("jarMappedKb must not be negative, was: " + jarMappedKb);
+        }
+        this.jarMappedKb = jarMappedKb;
+        return this;
+    }
+
+    public LogBuilder sharedLibraryMappedKb(long sharedLibraryMappedKb) {
+        if (sharedLibraryMappedKb < 0) {
+            throw new IllegalArgumentException("sharedLibraryMappedKb must not be negative, was: " + sharedLibraryMappedKb);
+        }
+        this.sharedLibraryMappedKb = sharedLibraryMappedKb;
+        return this;
+    }
+
+    public LogBuilder socketFDs(long socketFDs) {
+        if (socketFDs < 0) {
+            throw new IllegalArgumentException("socketFDs must not be negative, was: " + socketFDs);
+        }
+        this.socketFDs = socketFDs;
+        return this;
+    }
+
+    public LogBuilder jarFDs(long jarFDs) {
+        if (jarFDs < 0) {
+            throw new IllegalArgumentException("jarFDs must not be negative, was: " + jarFDs);
+        }
+        this.jarFDs = jarFDs;
+        return this;
+    }
+
+    public LogBuilder sharedLibraryFDs(long sharedLibraryFDs) {
+        if (sharedLibraryFDs < 0) {
+            throw new IllegalArgumentException("sharedLibraryFDs must not be negative, was: " + sharedLibraryFDs);
+        }
+        this.sharedLibraryFDs = sharedLibraryFDs;
+        return this;
+    }
+
+    public LogBuilder regularFileFDs(long regularFileFDs) {
+        if (regularFileFDs < 0) {
+            throw new IllegalArgumentException("regularFileFDs must not be negative, was: " + regularFileFDs);
+        }
+        this.regularFileFDs = regularFileFDs;
+        return this;
+    }
+
+    public LogBuilder heapUsedKb(long heapUsedKb) {
+        if (heapUsedKb < 0) {
+            throw new IllegalArgumentException("heapUsedKb must not be negative, was: " + heapUsedKb);
+        }
+        this.heapUsedKb = heapUsedKb;
+        return this;
+    }
+
+    public LogBuilder heapUsedKbMax(long heapUsedKbMax) {
+        if (heapUsedKbMax < 0) {
+            throw new IllegalArgumentException("heapUsedKbMax must not be negative, was: " + heapUsedKbMax);
+        }
+        this.heapUsedKbMax = heapUsedKbMax;
+        return this;
+    }
+
+    public LogBuilder heapCommittedKb(long heapCommittedKb) {
+        if (heapCommittedKb < 0) {
+            throw new IllegalArgumentException("heapCommittedKb must not be negative, was: " + heapCommittedKb);
+        }
+        this.heapCommittedKb = heapCommittedKb;
+        return this;
+    }
+
+    public LogBuilder metaspaceUsedKb(long metaspaceUsedKb) {
+        if (metaspaceUsedKb < 0) {
+            throw new IllegalArgumentException("metaspaceUsedKb must not be negative, was: " + metaspaceUsedKb);
+        }
+        this.metaspaceUsedKb = metaspaceUsedKb;
+        return this;
+    }
+
+    public LogBuilder codeCacheUsedKb(long codeCacheUsedKb) {
+        if (codeCacheUsedKb < 0) {
+            throw new IllegalArgumentException("codeCacheUsedKb must not be negative, was: " + codeCacheUsedKb);
+        }
+        this.codeCacheUsedKb = codeCacheUsedKb;
+        return this;
+    }
+
+    public LogBuilder gcCount(long gcCount) {
+        if (gcCount < 0) {
+            throw new IllegalArgumentException("gcCount must not be negative, was: " + gcCount);
+        }
+        this.gcCount = gcCount;
+        return this;
+    }
+
+    public LogBuilder gcTimeMs(long gcTimeMs) {
+        if (gcTimeMs < 0) {
+            throw new IllegalArgumentException("gcTimeMs must not be negative, was: " + gcTimeMs);
+        }
+        this.gcTimeMs = gcTimeMs;
+        return this;
+    }
+
+    public LogBuilder jitTimeMs(long jitTimeMs) {
+        if (jitTimeMs < 0) {
+            throw new IllegalArgumentException("jitTimeMs must not be negative, was: " + jitTimeMs);
+        }
+        this.jitTimeMs = jitTimeMs;
+        return this;
+    }
+
+    public LogBuilder loadedClasses(long loadedClasses) {
+        if (loadedClasses < 0) {
+            throw new IllegalArgumentException("loadedClasses must not be negative, was: " + loadedClasses);
+        }
+        this.loadedClasses = loadedClasses;
+        return this;
+    }
+
+    public LogBuilder jvmThreads(long jvmThreads) {
+        if (jvmThreads < 0) {
+            throw new IllegalArgumentException("jvmThreads must not be negative, was: " + jvmThreads);
+        }
+        this.jvmThreads = jvmThreads;
+        return this;
+    }
+
+    public LogBuilder safepoints(long safepoints) {
+        if (safepoints < 0) {
+            throw new IllegalArgumentException("safepoints must not be negative, was: " + safepoints);
+        }
+        this.safepoints = safepoints;
+        return this;
+    }
+
+    public LogBuilder safepointTimeMs(long safepointTimeMs) {
+        if (safepointTimeMs < 0) {
+            throw new IllegalArgumentException("safepointTimeMs must not be negative, was: " + safepointTimeMs);
+        }
+        this.safepointTimeMs = safepointTimeMs;
+        return this;
+    }
+
+    public LogBuilder allocationRateMBps(double allocationRateMBps) {
+        if (allocationRateMBps < 0) {
+            throw new IllegalArgumentException("allocationRateMBps must not be negative, was: " + allocationRateMBps);
+        }
+        this.allocationRateMBps = allocationRateMBps;
+        return this;
+    }
+
+    public LogBuilder allocatedBytesPerRequest(double allocatedBytesPerRequest) {
+        if (allocatedBytesPerRequest < 0) {
+            throw new IllegalArgumentException("allocatedBytesPerRequest must not be negative, was: " + allocatedBytesPerRequest);
+        }
+        this.allocatedBytesPerRequest = allocatedBytesPerRequest;
+        return this;
+    }
+
+    public LogBuilder promotionRateMBps(double promotionRateMBps) {
+        if (promotionRateMBps < 0) {
+            throw new IllegalArgumentException("promotionRateMBps must not be negative, was: " + promotionRateMBps);
+        }
+        this.promotionRateMBps = promotionRateMBps;
+        return this;
+    }
+
+    public LogBuilder gcPauses(long gcPauses) {
+        if (gcPauses < 0) {
+            throw new IllegalArgumentException("gcPauses must not be negative, was: " + gcPauses);
+        }
+        this.gcPauses = gcPauses;
+        return this;
+    }
+
+    public LogBuilder gcPauseP50Ms(double gcPauseP50Ms) {
+        if (gcPauseP50Ms < 0) {
+            throw new IllegalArgumentException("gcPauseP50Ms must not be negative, was: " + gcPauseP50Ms);
+        }
+        this.gcPauseP50Ms = gcPauseP50Ms;
+        return this;
+    }
+
+    public LogBuilder gcPauseP99Ms(double gcPauseP99Ms) {
+        if (gcPauseP99Ms < 0) {
+            throw new IllegalArgumentException("gcPauseP99Ms must not be negative, was: " + gcPauseP99Ms);
+        }
+        this.gcPauseP99Ms = gcPauseP99Ms;
+        return this;
+    }
+
+    public LogBuilder gcPauseMaxMs(double gcPauseMaxMs) {
+        if (gcPauseMaxMs < 0) {
+            throw new IllegalArgumentException("gcPauseMaxMs must not be negative, was: " + gcPauseMaxMs);
+        }
+        this.gcPauseMaxMs = gcPauseMaxMs;
+        return this;
+    }
+
+    public LogBuilder threadsMax(long threadsMax) {
+        if (threadsMax <= 0) {
+            throw new IllegalArgumentException("threadsMax must be a positive long, was: " + threadsMax);
+        }
+        this.threadsMax = threadsMax;
+        return this;
+    }
+
+    public LogBuilder voluntaryCtxSwitchesPerRequest(double voluntaryCtxSwitchesPerRequest) {
+        if (voluntaryCtxSwitchesPerRequest < 0) {
+            throw new IllegalArgumentException("voluntaryCtxSwitchesPerRequest must not be negative, was: " + voluntaryCtxSwitchesPerRequest);
+        }
+        this.voluntaryCtxSwitchesPerRequest = voluntaryCtxSwitchesPerRequest;
+        return this;
+    }
+
+    public LogBuilder nonvoluntaryCtxSwitchesPerRequest(double nonvoluntaryCtxSwitchesPerRequest) {
+        if (nonvoluntaryCtxSwitchesPerRequest < 0) {
+            throw new IllegalArgumentException("nonvoluntaryCtxSwitchesPerRequest must not be negative, was: " + nonvoluntaryCtxSwitchesPerRequest);
+        }
+        this.nonvoluntaryCtxSwitchesPerRequest = nonvoluntaryCtxSwitchesPerRequest;
+        return this;
+    }
+
+    public LogBuilder voluntaryCtxSwitchesPerSecMax(double voluntaryCtxSwitchesPerSecMax) {
+        if (voluntaryCtxSwitchesPerSecMax < 0) {
+            throw new IllegalArgumentException("voluntaryCtxSwitchesPerSecMax must not be negative, was: " + voluntaryCtxSwitchesPerSecMax);
+        }
+        this.voluntaryCtxSwitchesPerSecMax = voluntaryCtxSwitchesPerSecMax;
+        return this;
+    }
+
+    public LogBuilder nonvoluntaryCtxSwitchesPerSecMax(double nonvoluntaryCtxSwitchesPerSecMax) {
+        if (nonvoluntaryCtxSwitchesPerSecMax < 0) {
+            throw new IllegalArgumentException("nonvoluntaryCtxSwitchesPerSecMax must not be negative, was: " + nonvoluntaryCtxSwitchesPerSecMax);
+        }
+        this.nonvoluntaryCtxSwitchesPerSecMax = nonvoluntaryCtxSwitchesPerSecMax;
+        return this;
+    }
+
+    public LogBuilder runQueueWaitPerRequestUs(double runQueueWaitPerRequestUs) {
+        if (runQueueWaitPerRequestUs < 0) {
+            throw new IllegalArgumentException("runQueueWaitPerRequestUs must not be negative, was: " + runQueueWaitPerRequestUs);
+        }
+        this.runQueueWaitPerRequestUs = runQueueWaitPerRequestUs;
+        return this;
+    }
+
+    public LogBuilder nmtCommittedKb(long nmtCommittedKb) {
+        if (nmtCommittedKb < 0) {
+            throw new IllegalArgumentException("nmtCommittedKb must not be negative, was: " + nmtCommittedKb);
+        }
+        this.nmtCommittedKb = nmtCommittedKb;
+        return this;
+    }
+
+    public LogBuilder nmtJavaHeapKb(long nmtJavaHeapKb) {
+        if (nmtJavaHeapKb < 0) {
+            throw new IllegalArgumentException("nmtJavaHeapKb must not be negative, was: " + nmtJavaHeapKb);
+        }
+        this.nmtJavaHeapKb = nmtJavaHeapKb;
+        return this;
+    }
+
+    public LogBuilder nmtClassKb(long nmtClassKb) {
+        if (nmtClassKb < 0) {
+            throw new IllegalArgumentException("nmtClassKb must not be negative, was: " + nmtClassKb);
+        }
+        this.nmtClassKb = nmtClassKb;
+        return this;
+    }
+
+    public LogBuilder nmtThreadKb(long nmtThreadKb) {
+        if (nmtThreadKb < 0) {
+            throw new IllegalArgumentException("nmtThreadKb must not be negative, was: " + nmtThreadKb);
+        }
+        this.nmtThreadKb = nmtThreadKb;
+        return this;
+    }
+
+    public LogBuilder nmtCodeKb(long nmtCodeKb) {
+        if (nmtCodeKb < 0) {
+            throw new IllegalArgumentException("nmtCodeKb must not be negative, was: " + nmtCodeKb);
+        }
+        this.nmtCodeKb = nmtCodeKb;
+        return this;
+    }
+
+    public LogBuilder nmtGcKb(long nmtGcKb) {
+        if (nmtGcKb < 0) {
+            throw new IllegalArgumentException("nmtGcKb must not be negative, was: " + nmtGcKb);
+        }
+        this.nmtGcKb = nmtGcKb;
+        return this;
+    }
+
+    public LogBuilder nmtInternalKb(long nmtInternalKb) {
+        if (nmtInternalKb < 0) {
+            throw new IllegalArgumentException("nmtInternalKb must not be negative, was: " + nmtInternalKb);
+        }
+        this.nmtInternalKb = nmtInternalKb;
+        return this;
+    }
+
+    public LogBuilder nmtSymbolKb(long nmtSymbolKb) {
+        if (nmtSymbolKb < 0) {
+            throw new IllegalArgumentException("nmtSymbolKb must not be negative, was: " + nmtSymbolKb);
+        }
+        this.nmtSymbolKb = nmtSymbolKb;
+        return this;
+    }
+
+    public LogBuilder timeToPortOpenUs(long timeToPortOpenUs) {
+        if (timeToPortOpenUs <= 0) {
+            throw new IllegalArgumentException("timeToPortOpenUs must be a positive long, was: " + timeToPortOpenUs);
+        }
+        this.timeToPortOpenUs = timeToPortOpenUs;
+        return this;
+    }
+
+    public LogBuilder timeToFirstOKRequestUs(long timeToFirstOKRequestUs) {
+        if (timeToFirstOKRequestUs <= 0) {
+            throw new IllegalArgumentException("timeToFirstOKRequestUs must be a positive long, was: " + timeToFirstOKRequestUs);
+        }
+        this.timeToFirstOKRequestUs = timeToFirstOKRequestUs;
+        return this;
+    }
+
+    public LogBuilder jvmInitUs(long jvmInitUs) {
+        if (jvmInitUs < 0) {
+            throw new IllegalArgumentException("jvmInitUs must not be negative, was: " + jvmInitUs);
+        }
+        this.jvmInitUs = jvmInitUs;
+        return this;
+    }
+
+    public LogBuilder firstOKAfterPortOpenUs(long firstOKAfterPortOpenUs) {
+        if (firstOKAfterPortOpenUs < 0) {
+            throw new IllegalArgumentException("firstOKAfterPortOpenUs must not be negative, was: " + firstOKAfterPortOpenUs);
+        }
+        this.firstOKAfterPortOpenUs = firstOKAfterPortOpenUs;
+        return this;
+    }
+
+    public LogBuilder allURLsAfterFirstOKUs(long allURLsAfterFirstOKUs) {
+        if (allURLsAfterFirstOKUs < 0) {
+            throw new IllegalArgumentException("allURLsAfterFirstOKUs must not be negative, was: " + allURLsAfterFirstOKUs);
+        }
+        this.allURLsAfterFirstOKUs = allURLsAfterFirstOKUs;
+        return this;
+    }
+
+    public LogBuilder timeToFirstOKRequestMsWithoutCDS(long timeToFirstOKRequestMsWithoutCDS) {
+        if (timeToFirstOKRequestMsWithoutCDS <= 0) {
+            throw new IllegalArgumentException("timeToFirstOKRequestMsWithoutCDS must be a positive long, was: " + timeToFirstOKRequestMsWithoutCDS);
+        }
+        this.timeToFirstOKRequestMsWithoutCDS = timeToFirstOKRequestMsWithoutCDS;
+        return this;
+    }
+
+    public LogBuilder rssKbWithoutCDS(long rssKbWithoutCDS) {
+        if (rssKbWithoutCDS <= 0) {
+            throw new IllegalArgumentException("rssKbWithoutCDS must be a positive long, was: " + rssKbWithoutCDS);
+        }
+        this.rssKbWithoutCDS = rssKbWithoutCDS;
+        return this;
+    }
+
+    public LogBuilder startStopIterations(int startStopIterations) {
+        if (startStopIterations <= 0) {
+            throw new IllegalArgumentException("startStopIterations must be a positive int, was: " + startStopIterations);
+        }
+        this.startStopIterations = startStopIterations;
+        return this;
+    }
+
+    public LogBuilder openedFiles(long openedFiles) {
+        if (openedFiles <= 0) {
+            throw new IllegalArgumentException("openedFiles must be a positive long, was: " + openedFiles);
+        }
+        this.openedFiles = openedFiles;
+        return this;
+    }
+
+    public LogBuilder app(App app) {
+        Objects.requireNonNull(app, "Valid app flavour must be provided");
+        this.app = app;
+        return this;
+    }
+
+    public LogBuilder mode(MvnCmds mode) {
+        Objects.requireNonNull(mode, "Valid app flavour must be provided");
+        this.mode = mode;
+        return this;
+    }
+
+    public LogBuilder request(String request) {
+        Objects.requireNonNull(request, "Valid request name must be provided");
+        this.request = request;
+        return this;
+    }
+
+    public LogBuilder phase(String phase) {
+        Objects.requireNonNull(phase, "Valid phase name must be provided");
+        this.phase = phase;
+        return this;
+    }
+
+    public Log build() {
+        StringBuilder h = new StringBuilder(512);
+        StringBuilder l = new StringBuilder(512);
+        int sections = 0;
+        if (app != null) {
+            h.append(appHeader);
+            h.append(',');
+            l.append(app);
+            l.append(',');
+            sections++;
+        }
+        if (mode != null) {
+            h.append(modeHeader);
+            h.append(',');
+            l.append(mode);
+            l.append(',');
+            sections++;
+        }
+        if (request != null) {
+            h.append(requestHeader);
+            h.append(',');
+            l.append(request);
+            l.append(',');
+            sections++;
+        }
+        if (phase != null) {
+            h.append(phaseHeader);
+            h.append(',');
+            l.append(phase);
+            l.append(',');
+            sections++;
+        }
+        if (buildTimeMs != -1L) {
+            h.append(buildTimeMsHeader);
+            h.append(',');
+            l.append(buildTimeMs);
+            l.append(',');
+            sections++;
+        }
+        if (timeToFirstOKRequestMs != -1L) {
+            h.append(timeToFirstOKRequestMsHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMs);
+            l.append(',');
+            sections++;
+        }
+        if (timeToReloadedOKRequest != -1L) {
+            h.append(timeToReloadedOKRequestHeader);
+            h.append(',');
+            l.append(timeToReloadedOKRequest);
+            l.append(',');
+            sections++;
+        }
+        if (startedInMs != -1L) {
+            h.append(startedInMsHeader);
+            h.append(',');
+            l.append(startedInMs);
+            l.append(',');
+            sections++;
+        }
+        if (stoppedInMs != -1L) {
+            h.append(stoppedInMsHeader);
+            h.append(',');
+            l.append(stoppedInMs);
+            l.append(',');
+            sections++;
+        }
+        if (rssKb != -1L) {
+            h.append(rssKbHeader);
+            h.append(',');
+            l.append(rssKb);
+            l.append(',');
+            sections++;
+        }
+        if (rssKbFinal != -1L) {
+            h.append(rssKbFinalHeader);
+            h.append(',');
+            l.append(rssKbFinal);
+            l.append(',');
+            sections++;
+        }
+        if (avgResponseTime != -1L) {
+            h.append(avgResponseTimeHeader);
+            h.append(',');
+            l.append(avgResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (firstResponseTime != -1L) {
+            h.append(firstResponseTimeHeader);
+            h.append(',');
+            l.append(firstResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (totalDuration != -1L) {
+            h.append(totalDurationHeader);
+            h.append(',');
+            l.append(totalDuration);
+            l.append(',');
+            sections++;
+        }
+        if (p50ResponseTime != -1L) {
+            h.append(p50ResponseTimeHeader);
+            h.append(',');
+            l.append(p50ResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (p90ResponseTime != -1L) {
+            h.append(p90ResponseTimeHeader);
+            h.append(',');
+            l.append(p90ResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (p99ResponseTime != -1L) {
+            h.append(p99ResponseTimeHeader);
+            h.append(',');
+            l.append(p99ResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (p999ResponseTime != -1L) {
+            h.append(p999ResponseTimeHeader);
+            h.append(',');
+            l.append(p999ResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (p9999ResponseTime != -1L) {
+            h.append(p9999ResponseTimeHeader);
+            h.append(',');
+            l.append(p9999ResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (maxResponseTime != -1L) {
+            h.append(maxResponseTimeHeader);
+            h.append(',');
+            l.append(maxResponseTime);
+            l.append(',');
+            sections++;
+        }
+        if (concurrency != -1L) {
+            h.append(concurrencyHeader);
+            h.append(',');
+            l.append(concurrency);
+            l.append(',');
+            sections++;
+        }
+        if (throughput != -1L) {
+            h.append(throughputHeader);
+            h.append(',');
+            l.append(throughput);
+            l.append(',');
+            sections++;
+        }
+        if (warmUpRequests != -1L) {
+            h.append(warmUpRequestsHeader);
+            h.append(',');
+            l.append(warmUpRequests);
+            l.append(',');
+            sections++;
+        }
+        if (warmUpDuration != -1L) {
+            h.append(warmUpDurationHeader);
+            h.append(',');
+            l.append(warmUpDuration);
+            l.append(',');
+            sections++;
+        }
+        if (offeredRate != -1L) {
+            h.append(offeredRateHeader);
+            h.append(',');
+            l.append(offeredRate);
+            l.append(',');
+            sections++;
+        }
+        if (errorRate != -1L) {
+            h.append(errorRateHeader);
+            h.append(',');
+            l.append(errorRate);
+            l.append(',');
+            sections++;
+        }
+        if (maxSustainableThroughput != -1L) {
+            h.append(maxSustainableThroughputHeader);
+            h.append(',');
+            l.append(maxSustainableThroughput);
+            l.append(',');
+            sections++;
+        }
+        if (elapsed != -1.0) {
+            h.append(elapsedHeader);
+            h.append(',');
+            l.append(elapsed);
+            l.append(',');
+            sections++;
+        }
+        if (threads != -1L) {
+            h.append(threadsHeader);
+            h.append(',');
+            l.append(threads);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbSlope)) {
+            h.append(rssKbSlopeHeader);
+            h.append(',');
+            l.append(rssKbSlope);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(openedFilesSlope)) {
+            h.append(openedFilesSlopeHeader);
+            h.append(',');
+            l.append(openedFilesSlope);
+            l.append(',');
+            sections++;
+        }
+        if (cpuTimeToFirstOKRequestMs != -1L) {
+            h.append(cpuTimeToFirstOKRequestMsHeader);
+            h.append(',');
+            l.append(cpuTimeToFirstOKRequestMs);
+            l.append(',');
+            sections++;
+        }
+        if (warmUpCpuTime != -1L) {
+            h.append(warmUpCpuTimeHeader);
+            h.append(',');
+            l.append(warmUpCpuTime);
+            l.append(',');
+            sections++;
+        }
+        if (loadCpuTime != -1L) {
+            h.append(loadCpuTimeHeader);
+            h.append(',');
+            l.append(loadCpuTime);
+            l.append(',');
+            sections++;
+        }
+        if (cpuTimePerRequest != -1.0) {
+            h.append(cpuTimePerRequestHeader);
+            h.append(',');
+            l.append(cpuTimePerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (cyclesPerRequest != -1.0) {
+            h.append(cyclesPerRequestHeader);
+            h.append(',');
+            l.append(cyclesPerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (instructionsPerRequest != -1.0) {
+            h.append(instructionsPerRequestHeader);
+            h.append(',');
+            l.append(instructionsPerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (rssKbPeak != -1L) {
+            h.append(rssKbPeakHeader);
+            h.append(',');
+            l.append(rssKbPeak);
+            l.append(',');
+            sections++;
+        }
+        if (pssKb != -1L) {
+            h.append(pssKbHeader);
+            h.append(',');
+            l.append(pssKb);
+            l.append(',');
+            sections++;
+        }
+        if (ussKb != -1L) {
+            h.append(ussKbHeader);
+            h.append(',');
+            l.append(ussKb);
+            l.append(',');
+            sections++;
+        }
+        if (anonymousKb != -1L) {
+            h.append(anonymousKbHeader);
+            h.append(',');
+            l.append(anonymousKb);
+            l.append(',');
+            sections++;
+        }
+        if (fileBackedKb != -1L) {
+            h.append(fileBackedKbHeader);
+            h.append(',');
+            l.append(fileBackedKb);
+            l.append(',');
+            sections++;
+        }
+        if (jarMappedKb != -1L) {
+            h.append(jarMappedKbHeader);
+            h.append(',');
+            l.append(jarMappedKb);
+            l.append(',');
+            sections++;
+        }
+        if (sharedLibraryMappedKb != -1L) {
+            h.append(sharedLibraryMappedKbHeader);
+            h.append(',');
+            l.append(sharedLibraryMappedKb);
+            l.append(',');
+            sections++;
+        }
+        if (socketFDs != -1L) {
+            h.append(socketFDsHeader);
+            h.append(',');
+            l.append(socketFDs);
+            l.append(',');
+            sections++;
+        }
+        if (jarFDs != -1L) {
+            h.append(jarFDsHeader);
+            h.append(',');
+            l.append(jarFDs);
+            l.append(',');
+            sections++;
+        }
+        if (sharedLibraryFDs != -1L) {
+            h.append(sharedLibraryFDsHeader);
+            h.append(',');
+            l.append(sharedLibraryFDs);
+            l.append(',');
+            sections++;
+        }
+        if (regularFileFDs != -1L) {
+            h.append(regularFileFDsHeader);
+            h.append(',');
+            l.append(regularFileFDs);
+            l.append(',');
+            sections++;
+        }
+        if (heapUsedKb != -1L) {
+            h.append(heapUsedKbHeader);
+            h.append(',');
+            l.append(heapUsedKb);
+            l.append(',');
+            sections++;
+        }
+        if (heapUsedKbMax != -1L) {
+            h.append(heapUsedKbMaxHeader);
+            h.append(',');
+            l.append(heapUsedKbMax);
+            l.append(',');
+            sections++;
+        }
+        if (heapCommittedKb != -1L) {
+            h.append(heapCommittedKbHeader);
+            h.append(',');
+            l.append(heapCommittedKb);
+            l.append(',');
+            sections++;
+        }
+        if (metaspaceUsedKb != -1L) {
+            h.append(metaspaceUsedKbHeader);
+            h.append(',');
+            l.append(metaspaceUsedKb);
+            l.append(',');
+            sections++;
+        }
+        if (codeCacheUsedKb != -1L) {
+            h.append(codeCacheUsedKbHeader);
+            h.append(',');
+            l.append(codeCacheUsedKb);
+            l.append(',');
+            sections++;
+        }
+        if (gcCount != -1L) {
+            h.append(gcCountHeader);
+            h.append(',');
+            l.append(gcCount);
+            l.append(',');
+            sections++;
+        }
+        if (gcTimeMs != -1L) {
+            h.append(gcTimeMsHeader);
+            h.append(',');
+            l.append(gcTimeMs);
+            l.append(',');
+            sections++;
+        }
+        if (jitTimeMs != -1L) {
+            h.append(jitTimeMsHeader);
+            h.append(',');
+            l.append(jitTimeMs);
+            l.append(',');
+            sections++;
+        }
+        if (loadedClasses != -1L) {
+            h.append(loadedClassesHeader);
+            h.append(',');
+            l.append(loadedClasses);
+            l.append(',');
+            sections++;
+        }
+        if (jvmThreads != -1L) {
+            h.append(jvmThreadsHeader);
+            h.append(',');
+            l.append(jvmThreads);
+            l.append(',');
+            sections++;
+        }
+        if (safepoints != -1L) {
+            h.append(safepointsHeader);
+            h.append(',');
+            l.append(safepoints);
+            l.append(',');
+            sections++;
+        }
+        if (safepointTimeMs != -1L) {
+            h.append(safepointTimeMsHeader);
+            h.append(',');
+            l.append(safepointTimeMs);
+            l.append(',');
+            sections++;
+        }
+        if (allocationRateMBps != -1.0) {
+            h.append(allocationRateMBpsHeader);
+            h.append(',');
+            l.append(allocationRateMBps);
+            l.append(',');
+            sections++;
+        }
+        if (allocatedBytesPerRequest != -1.0) {
+            h.append(allocatedBytesPerRequestHeader);
+            h.append(',');
+            l.append(allocatedBytesPerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (promotionRateMBps != -1.0) {
+            h.append(promotionRateMBpsHeader);
+            h.append(',');
+            l.append(promotionRateMBps);
+            l.append(',');
+            sections++;
+        }
+        if (gcPauses != -1L) {
+            h.append(gcPausesHeader);
+            h.append(',');
+            l.append(gcPauses);
+            l.append(',');
+            sections++;
+        }
+        if (gcPauseP50Ms != -1.0) {
+            h.append(gcPauseP50MsHeader);
+            h.append(',');
+            l.append(gcPauseP50Ms);
+            l.append(',');
+            sections++;
+        }
+        if (gcPauseP99Ms != -1.0) {
+            h.append(gcPauseP99MsHeader);
+            h.append(',');
+            l.append(gcPauseP99Ms);
+            l.append(',');
+            sections++;
+        }
+        if (gcPauseMaxMs != -1.0) {
+            h.append(gcPauseMaxMsHeader);
+            h.append(',');
+            l.append(gcPauseMaxMs);
+            l.append(',');
+            sections++;
+        }
+        if (threadsMax != -1L) {
+            h.append(threadsMaxHeader);
+            h.append(',');
+            l.append(threadsMax);
+            l.append(',');
+            sections++;
+        }
+        if (voluntaryCtxSwitchesPerRequest != -1.0) {
+            h.append(voluntaryCtxSwitchesPerRequestHeader);
+            h.append(',');
+            l.append(voluntaryCtxSwitchesPerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (nonvoluntaryCtxSwitchesPerRequest != -1.0) {
+            h.append(nonvoluntaryCtxSwitchesPerRequestHeader);
+            h.append(',');
+            l.append(nonvoluntaryCtxSwitchesPerRequest);
+            l.append(',');
+            sections++;
+        }
+        if (voluntaryCtxSwitchesPerSecMax != -1.0) {
+            h.append(voluntaryCtxSwitchesPerSecMaxHeader);
+            h.append(',');
+            l.append(voluntaryCtxSwitchesPerSecMax);
+            l.append(',');
+            sections++;
+        }
+        if (nonvoluntaryCtxSwitchesPerSecMax != -1.0) {
+            h.append(nonvoluntaryCtxSwitchesPerSecMaxHeader);
+            h.append(',');
+            l.append(nonvoluntaryCtxSwitchesPerSecMax);
+            l.append(',');
+            sections++;
+        }
+        if (runQueueWaitPerRequestUs != -1.0) {
+            h.append(runQueueWaitPerRequestUsHeader);
+            h.append(',');
+            l.append(runQueueWaitPerRequestUs);
+            l.append(',');
+            sections++;
+        }
+        if (nmtCommittedKb != -1L) {
+            h.append(nmtCommittedKbHeader);
+            h.append(',');
+            l.append(nmtCommittedKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtJavaHeapKb != -1L) {
+            h.append(nmtJavaHeapKbHeader);
+            h.append(',');
+            l.append(nmtJavaHeapKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtClassKb != -1L) {
+            h.append(nmtClassKbHeader);
+            h.append(',');
+            l.append(nmtClassKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtThreadKb != -1L) {
+            h.append(nmtThreadKbHeader);
+            h.append(',');
+            l.append(nmtThreadKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtCodeKb != -1L) {
+            h.append(nmtCodeKbHeader);
+            h.append(',');
+            l.append(nmtCodeKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtGcKb != -1L) {
+            h.append(nmtGcKbHeader);
+            h.append(',');
+            l.append(nmtGcKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtInternalKb != -1L) {
+            h.append(nmtInternalKbHeader);
+            h.append(',');
+            l.append(nmtInternalKb);
+            l.append(',');
+            sections++;
+        }
+        if (nmtSymbolKb != -1L) {
+            h.append(nmtSymbolKbHeader);
+            h.append(',');
+            l.append(nmtSymbolKb);
+            l.append(',');
+            sections++;
+        }
+        if (timeToPortOpenUs != -1L) {
+            h.append(timeToPortOpenUsHeader);
+            h.append(',');
+            l.append(timeToPortOpenUs);
+            l.append(',');
+            sections++;
+        }
+        if (timeToFirstOKRequestUs != -1L) {
+            h.append(timeToFirstOKRequestUsHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestUs);
+            l.append(',');
+            sections++;
+        }
+        if (jvmInitUs != -1L) {
+            h.append(jvmInitUsHeader);
+            h.append(',');
+            l.append(jvmInitUs);
+            l.append(',');
+            sections++;
+        }
+        if (firstOKAfterPortOpenUs != -1L) {
+            h.append(firstOKAfterPortOpenUsHeader);
+            h.append(',');
+            l.append(firstOKAfterPortOpenUs);
+            l.append(',');
+            sections++;
+        }
+        if (allURLsAfterFirstOKUs != -1L) {
+            h.append(allURLsAfterFirstOKUsHeader);
+            h.append(',');
+            l.append(allURLsAfterFirstOKUs);
+            l.append(',');
+            sections++;
+        }
+        if (timeToFirstOKRequestMsWithoutCDS != -1L) {
+            h.append(timeToFirstOKRequestMsWithoutCDSHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsWithoutCDS);
+            l.append(',');
+            sections++;
+        }
+        if (rssKbWithoutCDS != -1L) {
+            h.append(rssKbWithoutCDSHeader);
+            h.append(',');
+            l.append(rssKbWithoutCDS);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(timeToFirstOKRequestMsMedian)) {
+            h.append(timeToFirstOKRequestMsMedianHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsMedian);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(timeToFirstOKRequestMsMad)) {
+            h.append(timeToFirstOKRequestMsMadHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsMad);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(timeToFirstOKRequestMsMean)) {
+            h.append(timeToFirstOKRequestMsMeanHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsMean);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(timeToFirstOKRequestMsCiLow)) {
+            h.append(timeToFirstOKRequestMsCiLowHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsCiLow);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(timeToFirstOKRequestMsCiHigh)) {
+            h.append(timeToFirstOKRequestMsCiHighHeader);
+            h.append(',');
+            l.append(timeToFirstOKRequestMsCiHigh);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbMedian)) {
+            h.append(rssKbMedianHeader);
+            h.append(',');
+            l.append(rssKbMedian);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbMad)) {
+            h.append(rssKbMadHeader);
+            h.append(',');
+            l.append(rssKbMad);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbMean)) {
+            h.append(rssKbMeanHeader);
+            h.append(',');
+            l.append(rssKbMean);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbCiLow)) {
+            h.append(rssKbCiLowHeader);
+            h.append(',');
+            l.append(rssKbCiLow);
+            l.append(',');
+            sections++;
+        }
+        if (!Double.isNaN(rssKbCiHigh)) {
+            h.append(rssKbCiHighHeader);
+            h.append(',');
+            l.append(rssKbCiHigh);
+            l.append(',');
+            sections++;
+        }
+        if (startStopIterations != -1) {
+            h.append(startStopIterationsHeader);
+            h.append(',');
+            l.append(startStopIterations);
             l.append(',');
             sections++;
         }
@@ -131,7 +131,7 @@ public class Logs {
         String propPrefix = isThisWindows ? "windows" : "linux";
         if (cmd.isJVM()) {
             propPrefix += ".jvm";
-        } else if (cmd == MvnCmds.NATIVE) {
+        } else if (cmd.isNative()) {
             propPrefix += ".native";
         } else if (cmd == MvnCmds.DEV) {
             propPrefix += ".dev";
@@ -184,7 +184,7 @@ public class Logs {
         }
     }
 
-    public static void writeReport(String testClass, String testMethod, String text) throws IOException {
+    public static synchronized void writeReport(String testClass, String testMethod, String text) throws IOException {
         Path destDir = getLogsDir(testClass, testMethod);
         Files.createDirectories(destDir);
         Files.write(destDir.resolve("report.md"), text.getBytes(UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
@@ -234,7 +234,11 @@ public class Logs {
         logger.info("\n" + log.headerCSV + "\n" + log.lineCSV);
     }
 
-    public static void logMeasurementsSummary(LogBuilder.Log log, Path path) throws IOException {
+    /**
+     * Appends the measurements to the line of the same app and mode if it doesn't have all the columns yet, e.g. load test
+     * measurements after the start stop ones, or adds a new line. Apps running in parallel write their lines interleaved.
+     */
+    public static synchronized void logMeasurementsSummary(LogBuilder.Log log, Path path) throws IOException {
         if (Files.notExists(path)) {
             Files.write(path, (log.headerCSV + "\n").getBytes(UTF_8), StandardOpenOption.CREATE);
             Files.write(path, (log.lineCSV + "\n").getBytes(UTF_8), StandardOpenOption.APPEND);
@@ -249,13 +253,18 @@ public class Logs {
             currentHeader = lines.get(0);
         }
 
-        String lastLine = lines.get(lines.size() - 1);
+        String appAndMode = log.lineCSV.substring(0, log.lineCSV.length() - stripAppAndModeColumns(log.lineCSV).length());
+        int lastLineIndex = lines.size() - 1;
+        while (lastLineIndex > 0 && !lines.get(lastLineIndex).startsWith(appAndMode)) {
+            lastLineIndex--;
+        }
+        String lastLine = lines.get(lastLineIndex);
 
         long headerLength = currentHeader.chars().filter(value -> value == ',').count();
         long lastLineLength = lastLine.chars().filter(value -> value == ',').count();
-        if (lastLineLength < headerLength) {
+        if (lastLineIndex > 0 && lastLineLength < headerLength) {
             String newDataWithoutAppAndMode = stripAppAndModeColumns(log.lineCSV);
-            lines.set(lines.size() - 1, lastLine + "," + newDataWithoutAppAndMode);
+            lines.set(lastLineIndex, lastLine + "," + newDataWithoutAppAndMode);
         } else {
             lines.add(log.lineCSV);
         }
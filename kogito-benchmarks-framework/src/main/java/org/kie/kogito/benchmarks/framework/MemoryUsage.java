@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Memory of a process tree broken down from /proc/&lt;pid&gt;/status, smaps_rollup and smaps, in kB.
+ * <p>
+ * RSS counts shared pages in full for every process mapping them, which makes it a poor base for container sizing.
+ * PSS splits shared pages among the processes mapping them and USS counts only the private ones, i.e. the memory
+ * freed if the app exits. The peak is the sum of the peak RSS (VmHWM) of the processes, which may have peaked at different times.
+ * Reading smaps walks all mappings, it is meant for a few samples per test, not for continuous sampling.
+ */
+public class MemoryUsage {
+
+    private static final Path PROC = Path.of("/proc");
+    private static final Pattern MAPPING_HEADER = Pattern.compile("^[0-9a-f]+-[0-9a-f]+ .*");
+    private static final Pattern SHARED_LIBRARY = Pattern.compile(".*\\.so(\\.[0-9.]+)?$");
+    // Class archives: JARs, the jimage of the JDK modules and CDS archives
+    private static final Pattern JAVA_ARCHIVE = Pattern.compile(".*(\\.jar|/lib/modules|\\.jsa)$");
+
+    private long peakRssKb;
+    private long rssKb;
+    private long pssKb;
+    private long ussKb;
+    private long anonymousKb;
+    private long jarMappedKb;
+    private long sharedLibraryMappedKb;
+
+    private MemoryUsage() {
+    }
+
+    /**
+     * Processes which exit while being read are left out.
+     */
+    static MemoryUsage read(List<Long> processIds) throws IOException {
+        MemoryUsage usage = new MemoryUsage();
+        for (long processId : processIds) {
+            try {
+                usage.readProcess(processId);
+            } catch (NoSuchFileException e) {
+                // Exited in the meantime
+            }
+        }
+        return usage;
+    }
+
+    private void readProcess(long processId) throws IOException {
+        for (String line : Files.readAllLines(PROC.resolve(processId + "/status"))) {
+            if (line.startsWith("VmHWM:")) {
+                peakRssKb += parseKb(line);
+            }
+        }
+        long privateKb = 0;
+        for (String line : Files.readAllLines(PROC.resolve(processId + "/smaps_rollup"))) {
+            if (line.startsWith("Rss:")) {
+                rssKb += parseKb(line);
+            } else if (line.startsWith("Pss:")) {
+                pssKb += parseKb(line);
+            } else if (line.startsWith("Private_Clean:") || line.startsWith("Private_Dirty:")) {
+                privateKb += parseKb(line);
+            } else if (line.startsWith("Anonymous:")) {
+                anonymousKb += parseKb(line);
+            }
+        }
+        ussKb += privateKb;
+
+        try (BufferedReader reader = Files.newBufferedReader(PROC.resolve(processId + "/smaps"))) {
+            String mapping = "";
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (MAPPING_HEADER.matcher(line).matches()) {
+                    // address perms offset dev inode [pathname]
+                    String[] fields = line.split("\\s+", 6);
+                    mapping = fields.length == 6 ? fields[5].trim() : "";
+                } else if (line.startsWith("Rss:")) {
+                    if (JAVA_ARCHIVE.matcher(mapping).matches()) {
+                        jarMappedKb += parseKb(line);
+                    } else if (SHARED_LIBRARY.matcher(mapping).matches()) {
+                        sharedLibraryMappedKb += parseKb(line);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long parseKb(String line) {
+        return Long.parseLong(line.substring(line.indexOf(':') + 1).trim().split("\\s+")[0]);
+    }
+
+    /**
+     * @return sum of VmHWM, at least the RSS as smaps_rollup is read after status
+     */
+    public long getPeakRssKb() {
+        return Math.max(peakRssKb, rssKb);
+    }
+
+    public long getRssKb() {
+        return rssKb;
+    }
+
+    public long getPssKb() {
+        return pssKb;
+    }
+
+    public long getUssKb() {
+        return ussKb;
+    }
+
+    public long getAnonymousKb() {
+        return anonymousKb;
+    }
+
+    /**
+     * @return resident pages mapped from files, i.e. not anonymous
+     */
+    public long getFileBackedKb() {
+        return rssKb - anonymousKb;
+    }
+
+    /**
+     * @return resident pages mapped from JARs, the JDK modules image and CDS archives
+     */
+    public long getJarMappedKb() {
+        return jarMappedKb;
+    }
+
+    public long getSharedLibraryMappedKb() {
+        return sharedLibraryMappedKb;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Key results of the same app built in different modes, e.g. native vs JVM. The tests record their results one by one
+ * to a CSV, so the comparison doesn't depend on the order they run in. Every record rewrites the markdown comparison
+ * next to the CSV from the latest result of every app, mode and metric.
+ */
+public class ModeComparison {
+
+    public static final String TIME_TO_FIRST_OK_REQUEST_MS = "timeToFirstOKRequestMs";
+    public static final String RSS_KB = "RSSKb";
+    public static final String THROUGHPUT_AFTER_WARM_UP = "throughputAfterWarmUpRps";
+    public static final String RSS_KB_FINAL = "RSSKbFinal";
+    public static final String MAX_SUSTAINABLE_THROUGHPUT = "maxSustainableThroughputRps";
+
+    private static final String HEADER = "AppDir,Mode,Metric,Value";
+
+    private ModeComparison() {
+    }
+
+    public static synchronized void record(Path csv, App app, Map<String, Double> metrics) throws IOException {
+        if (Files.notExists(csv)) {
+            Files.write(csv, (HEADER + "\n").getBytes(UTF_8), StandardOpenOption.CREATE);
+        }
+        StringBuilder lines = new StringBuilder();
+        metrics.forEach((metric, value) -> lines.append(app.dir).append(',').append(app.mavenCommands).append(',')
+                .append(metric).append(',').append(value).append('\n'));
+        Files.write(csv, lines.toString().getBytes(UTF_8), StandardOpenOption.APPEND);
+        Files.write(csv.resolveSibling(csv.getFileName().toString().replace(".csv", ".md")), toMarkdown(csv).getBytes(UTF_8));
+    }
+
+    /**
+     * One table per app with a column per mode. When there are both, the last column is the ratio of the native mode
+     * to the plain JVM mode, below 1 means the native one needs less time or memory or has lower throughput.
+     */
+    public static String toMarkdown(Path csv) throws IOException {
+        // app dir -> metric -> mode -> latest value
+        Map<String, Map<String, Map<MvnCmds, Double>>> results = new TreeMap<>();
+        List<String> lines = Files.readAllLines(csv, UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            results.computeIfAbsent(columns[0], k -> new LinkedHashMap<>())
+                    .computeIfAbsent(columns[2], k -> new TreeMap<>())
+                    .put(MvnCmds.valueOf(columns[1]), Double.parseDouble(columns[3]));
+        }
+
+        StringBuilder markdown = new StringBuilder("# Mode Comparison\n");
+        results.forEach((appDir, metrics) -> {
+            List<MvnCmds> modes = metrics.values().stream().flatMap(values -> values.keySet().stream())
+                    .distinct().sorted(Comparator.naturalOrder()).collect(Collectors.toList());
+            MvnCmds jvm = modes.stream().filter(mode -> mode.isJVM() && !mode.isAppCDS()).findFirst().orElse(null);
+            MvnCmds nativeMode = modes.stream().filter(MvnCmds::isNative).findFirst().orElse(null);
+            boolean ratio = jvm != null && nativeMode != null;
+
+            List<String> header = new ArrayList<>();
+            header.add(appDir);
+            modes.forEach(mode -> header.add(mode.name()));
+            if (ratio) {
+                header.add(nativeMode + " / " + jvm);
+            }
+            markdown.append("\n| ").append(String.join(" | ", header)).append(" |\n|")
+                    .append(" --- |".repeat(header.size())).append('\n');
+            metrics.forEach((metric, values) -> {
+                markdown.append("| ").append(metric);
+                modes.forEach(mode -> markdown.append(" | ").append(values.containsKey(mode) ? String.format("%.1f", values.get(mode)) : ""));
+                if (ratio) {
+                    markdown.append(" | ").append(values.containsKey(jvm) && values.containsKey(nativeMode)
+                            ? String.format("%.2f", values.get(nativeMode) / values.get(jvm))
+                            : "");
+                }
+                markdown.append(" |\n");
+            });
+        });
+        return markdown.toString();
+    }
+}
@@ -29,15 +29,44 @@ public enum MvnCmds {
             new String[] { "mvn", "clean", "package" }, // The JAR name is unified by setting finalName in the kie-assets-library repo
             new String[] { "java", Placeholders.JVM_ARGS, "-jar", "target/runner.jar" }
     }),
+    // Same builds as above followed by a training run dumping the loaded classes to a dynamic CDS archive, see Commands.trainAppCDS
+    QUARKUS_JVM_CDS(new String[][] {
+            new String[] { "mvn", "clean", "package", "-Dquarkus.package.output-name=quarkus" },
+            new String[] { "java", Placeholders.JVM_ARGS, AppCDS.USE_ARCHIVE, "-jar", "target/quarkus-app/quarkus-run.jar" },
+            new String[] { "java", Placeholders.JVM_ARGS, AppCDS.CREATE_ARCHIVE, "-jar", "target/quarkus-app/quarkus-run.jar" }
+    }),
+    SPRING_BOOT_JVM_CDS(new String[][] {
+            new String[] { "mvn", "clean", "package" },
+            new String[] { "java", Placeholders.JVM_ARGS, AppCDS.USE_ARCHIVE, "-jar", "target/runner.jar" },
+            new String[] { "java", Placeholders.JVM_ARGS, AppCDS.CREATE_ARCHIVE, "-jar", "target/runner.jar" }
+    }),
 
-    // These are not used now but may be useful in the future
-    DEV(new String[][] {
-            new String[] { "mvn", "clean", "quarkus:dev", "-Dmaven.repo.local=" + getLocalMavenRepoDir() }
+    // Spring AOT processed build started with the generated initializers, the native profile of the Spring Boot 3 parent runs process-aot.
+    // Apps without it are skipped, see Commands.buildApp
+    SPRING_BOOT_JVM_AOT(new String[][] {
+            new String[] { "mvn", "clean", "package", "-Pnative" },
+            new String[] { "java", Placeholders.JVM_ARGS, "-Dspring.aot.enabled=true", "-jar", "target/runner.jar" }
     }),
+    // Started from the fat jar extracted after the build, see ExplodedJar
+    SPRING_BOOT_JVM_EXPLODED(new String[][] {
+            new String[] { "mvn", "clean", "package" },
+            new String[] { "java", Placeholders.JVM_ARGS, "@" + ExplodedJar.ARG_FILE }
+    }),
+    SPRING_BOOT_JVM_LAZY_INIT(new String[][] {
+            new String[] { "mvn", "clean", "package" },
+            new String[] { "java", Placeholders.JVM_ARGS, "-Dspring.main.lazy-initialization=true", "-jar", "target/runner.jar" }
+    }),
+
+    // Built by a locally installed GraalVM or Mandrel, see getQuarkusNativeProperties, e.g. -Dquarkus.native.graalvm-home=...
     NATIVE(new String[][] {
-            Stream.concat(Stream.of("mvn", "clean", "compile", "package", "-Pnative"),
+            Stream.concat(Stream.of("mvn", "clean", "compile", "package", "-Pnative", "-Dquarkus.package.output-name=quarkus"),
                     getQuarkusNativeProperties().stream()).toArray(String[]::new),
-            new String[] { Commands.isThisWindows ? "target\\quarkus-runner" : "./target/quarkus-runner" }
+            new String[] { Commands.isThisWindows ? "target\\quarkus-runner" : "./target/quarkus-runner", Placeholders.JVM_ARGS }
+    }),
+
+    // These are not used now but may be useful in the future
+    DEV(new String[][] {
+            new String[] { "mvn", "clean", "quarkus:dev", "-Dmaven.repo.local=" + getLocalMavenRepoDir() }
     }),
     MVNW_DEV(new String[][] {
             new String[] { Commands.MVNW, "quarkus:dev" }
@@ -49,7 +78,7 @@ public enum MvnCmds {
     MVNW_NATIVE(new String[][] {
             Stream.concat(Stream.of(Commands.MVNW, "clean", "compile", "package", "-Pnative", "-Dquarkus.package.output-name=quarkus"),
                     getQuarkusNativeProperties().stream()).toArray(String[]::new),
-            new String[] { Commands.isThisWindows ? "target\\quarkus-runner" : "./target/quarkus-runner" }
+            new String[] { Commands.isThisWindows ? "target\\quarkus-runner" : "./target/quarkus-runner", Placeholders.JVM_ARGS }
     });
 
     public final String[][] mvnCmds;
@@ -62,6 +91,30 @@ public enum MvnCmds {
         return this.name().contains("JVM");
     }
 
+    public boolean isNative() {
+        return this.name().contains("NATIVE");
+    }
+
+    /**
+     * @return true if the app is started with a CDS archive created by a training run after the build
+     */
+    public boolean isAppCDS() {
+        return this.name().endsWith("_CDS");
+    }
+
+    /**
+     * @return the mode running the same build without the CDS archive, this mode if it doesn't use one
+     */
+    public MvnCmds withoutAppCDS() {
+        return isAppCDS() ? valueOf(this.name().substring(0, this.name().length() - "_CDS".length())) : this;
+    }
+
+    public static class AppCDS {
+        public static final String ARCHIVE = "target/app-cds.jsa";
+        public static final String CREATE_ARCHIVE = "-XX:ArchiveClassesAtExit=" + ARCHIVE;
+        public static final String USE_ARCHIVE = "-XX:SharedArchiveFile=" + ARCHIVE;
+    }
+
     public static class Placeholders {
         public static final String JVM_ARGS = "$JVM_ARGS";
     }
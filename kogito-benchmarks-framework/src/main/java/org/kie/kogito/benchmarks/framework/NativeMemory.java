@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Committed memory of the app JVM per Native Memory Tracking category, in kB, read with jcmd VM.native_memory summary.
+ * The app has to run with -XX:NativeMemoryTracking=summary, see {@link Commands#NATIVE_MEMORY_TRACKING}.
+ * <p>
+ * NMT covers the memory the JVM allocates itself, not the libraries it loads, so the difference to the RSS is
+ * the code and data of shared libraries, malloc of native code outside the JVM and committed but untouched pages.
+ */
+public class NativeMemory {
+
+    public static final String JVM_OPTION = "-XX:NativeMemoryTracking=summary";
+
+    // Total: reserved=2940230KB, committed=119858KB
+    private static final Pattern TOTAL = Pattern.compile("^Total: reserved=(\\d+)KB, committed=(\\d+)KB");
+    // -                 Java Heap (reserved=1540096KB, committed=96256KB)
+    private static final Pattern CATEGORY = Pattern.compile("^-\\s+(.+?) \\(reserved=(\\d+)KB, committed=(\\d+)KB\\)");
+
+    private final long committedKb;
+    private final Map<String, Long> categories;
+
+    private NativeMemory(long committedKb, Map<String, Long> categories) {
+        this.committedKb = committedKb;
+        this.categories = categories;
+    }
+
+    /**
+     * @throws IOException if NMT is not enabled in the JVM
+     */
+    public static NativeMemory read(long jvmPid) throws IOException, InterruptedException {
+        List<String> summary = Jcmd.execute(jvmPid, "VM.native_memory", "summary", "scale=KB");
+        NativeMemory nativeMemory = parse(summary);
+        if (nativeMemory.committedKb < 0) {
+            // e.g. "Native memory tracking is not enabled", jcmd exits with 0 anyway
+            throw new IOException(String.join("\n", summary));
+        }
+        return nativeMemory;
+    }
+
+    static NativeMemory parse(List<String> summary) {
+        long committedKb = -1L;
+        Map<String, Long> categories = new LinkedHashMap<>();
+        for (String line : summary) {
+            Matcher m;
+            if ((m = TOTAL.matcher(line)).find()) {
+                committedKb = Long.parseLong(m.group(2));
+            } else if ((m = CATEGORY.matcher(line)).find()) {
+                categories.put(m.group(1), Long.parseLong(m.group(3)));
+            }
+        }
+        return new NativeMemory(committedKb, categories);
+    }
+
+    public long getCommittedKb() {
+        return committedKb;
+    }
+
+    /**
+     * @param category e.g. "Java Heap", "Class", "Thread", "Code", "GC", "Internal" or "Symbol"
+     * @return 0 if the category is below the 1 kB reporting limit
+     */
+    public long getCommittedKb(String category) {
+        return categories.getOrDefault(category, 0L);
+    }
+
+    /**
+     * @return committed kB of all the categories reported, in the order of the summary
+     */
+    public Map<String, Long> getCategories() {
+        return Collections.unmodifiableMap(categories);
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Minimal HTTP/1.1 client on top of a blocking {@link SocketChannel}.
+ * <p>
+ * The whole request (one per payload of the corpus) is encoded into a byte buffer once and every {@link PreparedRequest} keeps its own
+ * persistent connection, so sending a request is a single write and parsing the response doesn't allocate
+ * anything but the header block. Supports Content-Length and chunked responses and skips interim 1xx responses;
+ * no TLS, no redirects.
+ * <p>
+ * A request that fails on a reused connection is sent once more on a new one only if the server can't have received it
+ * or if it is safe to repeat (GET, HEAD, OPTIONS), so that e.g. a POST creating a process instance is never sent twice.
+ */
+public class NioLoadClient implements LoadClient {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CRLF = "\r\n".getBytes(ISO_8859_1);
+    private static final byte[] HEADER_END = "\r\n\r\n".getBytes(ISO_8859_1);
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    // A connection idle for longer is checked for having been closed by the server before it's reused
+    private static final long STALE_CHECK_AFTER_NS = TimeUnit.SECONDS.toNanos(1);
+
+    @Override
+    public PreparedRequest prepare(HTTPRequestInfo requestInfo) throws IOException {
+        // Braces of the placeholders percent-encoded, so that a templated URI can be parsed
+        URI uri = URI.create(requestInfo.getURI().replace("{", "%7B").replace("}", "%7D"));
+        if (!"http".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Only plain http is supported, was: " + requestInfo.getURI());
+        }
+        int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+        if (requestInfo.isURITemplate()) {
+            // Filled in on every send
+            path = path.replace("%7B", "{").replace("%7D", "}");
+        }
+        StringBuilder head = new StringBuilder(256);
+        head.append(requestInfo.getMethod()).append(' ').append(path).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(uri.getHost()).append(':').append(port).append("\r\n");
+        for (Map.Entry<String, String> header : requestInfo.getHeaders().entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+
+        InetSocketAddress address = new InetSocketAddress(uri.getHost(), port);
+        String method = requestInfo.getMethod().toUpperCase(Locale.ROOT);
+        boolean safe = SAFE_METHODS.contains(method);
+        // The response to a HEAD request has no body, whatever its Content-Length says
+        boolean bodiless = "HEAD".equals(method);
+        NioRequest preparedRequest;
+        if (requestInfo.isURITemplate()) {
+            // Encoded on every send, once the values of the placeholders are known
+            preparedRequest = new NioRequest(address, safe, bodiless, head.toString(), requestInfo.getPayloads());
+        } else {
+            // The encoded corpus is shared by all prepared requests of the same request info, only the positions differ
+            preparedRequest = new NioRequest(address, safe, bodiless,
+                    encodedRequests.computeIfAbsent(requestInfo, info -> encode(head.toString(), info.getPayloads())));
+        }
+        preparedRequests.add(preparedRequest);
+        return preparedRequest;
+    }
+
+    private static ByteBuffer[] encode(String head, byte[][] payloads) {
+        if (payloads.length == 0) {
+            return new ByteBuffer[] { encode(head, null, true) };
+        }
+        ByteBuffer[] requests = new ByteBuffer[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            requests[i] = encode(head, payloads[i], true);
+        }
+        return requests;
+    }
+
+    private static ByteBuffer encode(String head, byte[] payload, boolean direct) {
+        byte[] requestHead = (payload == null ? head + "\r\n" : head + "Content-Length: " + payload.length + "\r\n\r\n").getBytes(ISO_8859_1);
+        int length = requestHead.length + (payload == null ? 0 : payload.length);
+        ByteBuffer request = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        request.put(requestHead);
+        if (payload != null) {
+            request.put(payload);
+        }
+        return request.flip();
+    }
+
+    private final Map<HTTPRequestInfo, ByteBuffer[]> encodedRequests = new ConcurrentHashMap<>();
+    private final List<NioRequest> preparedRequests = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void close() {
+        preparedRequests.forEach(NioRequest::closeChannel);
+        preparedRequests.clear();
+        encodedRequests.clear();
+    }
+
+    private static class NioRequest implements PreparedRequest {
+        private final InetSocketAddress address;
+        private final boolean safe;
+        private final boolean bodiless;
+        private final ByteBuffer[] requests;
+        private final String headTemplate;
+        private final byte[][] payloads;
+        private final int corpusSize;
+        private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        private SocketChannel channel;
+        private boolean keepAlive;
+        private boolean requestWritten;
+        private long lastExchangeNs;
+        private int next;
+
+        NioRequest(InetSocketAddress address, boolean safe, boolean bodiless, ByteBuffer[] requests) {
+            this(address, safe, bodiless, requests, null, null, requests.length);
+        }
+
+        NioRequest(InetSocketAddress address, boolean safe, boolean bodiless, String headTemplate, byte[][] payloads) {
+            this(address, safe, bodiless, null, headTemplate, payloads, Math.max(1, payloads.length));
+        }
+
+        private NioRequest(InetSocketAddress address, boolean safe, boolean bodiless, ByteBuffer[] requests, String headTemplate, byte[][] payloads,
+                int corpusSize) {
+            this.address = address;
+            this.safe = safe;
+            this.bodiless = bodiless;
+            this.requests = requests;
+            this.headTemplate = headTemplate;
+            this.payloads = payloads;
+            this.corpusSize = corpusSize;
+            this.next = ThreadLocalRandom.current().nextInt(corpusSize);
+        }
+
+        @Override
+        public int send() throws IOException {
+            return send(null, null);
+        }
+
+        @Override
+        public int send(Map<String, String> values, ByteArrayOutputStream responseBody) throws IOException {
+            ByteBuffer request;
+            if (headTemplate == null) {
+                request = requests[next];
+            } else {
+                request = encode(HTTPRequestInfo.fill(headTemplate, values), payloads.length == 0 ? null : payloads[next], false);
+            }
+            next = (next + 1) % corpusSize;
+            if (channel != null && System.nanoTime() - lastExchangeNs > STALE_CHECK_AFTER_NS && isClosedByServer()) {
+                closeChannel();
+            }
+            boolean reused = channel != null;
+            try {
+                return exchange(request, responseBody);
+            } catch (IOException e) {
+                closeChannel();
+                if (!reused || (requestWritten && !safe)) {
+                    // The server may have processed the request already
+                    throw e;
+                }
+                // The server may have closed an idle persistent connection, try once more on a new one
+                return exchange(request, responseBody);
+            }
+        }
+
+        private int exchange(ByteBuffer request, ByteArrayOutputStream responseBody) throws IOException {
+            requestWritten = false;
+            if (channel == null) {
+                channel = SocketChannel.open();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.connect(address);
+            }
+            ByteBuffer toWrite = request.duplicate();
+            while (toWrite.hasRemaining()) {
+                if (channel.write(toWrite) > 0) {
+                    requestWritten = true;
+                }
+            }
+            in.clear().flip();
+            if (responseBody != null) {
+                responseBody.reset();
+            }
+            int statusCode = readResponse(responseBody);
+            if (!keepAlive) {
+                closeChannel();
+            }
+            lastExchangeNs = System.nanoTime();
+            return statusCode;
+        }
+
+        /**
+         * @return true if the server closed the idle connection or sent something unasked, either way it can't be reused
+         */
+        private boolean isClosedByServer() {
+            try {
+                channel.configureBlocking(false);
+                try {
+                    in.clear();
+                    return channel.read(in) != 0;
+                } finally {
+                    channel.configureBlocking(true);
+                }
+            } catch (IOException e) {
+                return true;
+            }
+        }
+
+        /**
+         * @param responseBody receives the body if not null
+         */
+        private int readResponse(ByteArrayOutputStream responseBody) throws IOException {
+            String[] lines;
+            String[] statusLine;
+            int statusCode;
+            do {
+                // Interim responses like 100 Continue or 103 Early Hints have no body and precede the final one
+                int headerEnd;
+                while ((headerEnd = indexOf(HEADER_END)) < 0) {
+                    readMore();
+                }
+                String head = new String(in.array(), in.position(), headerEnd - in.position(), ISO_8859_1);
+                in.position(headerEnd + HEADER_END.length);
+
+                lines = head.split("\r\n");
+                statusLine = lines[0].split(" ", 3);
+                if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/")) {
+                    throw new IOException("Malformed status line: " + lines[0]);
+                }
+                statusCode = Integer.parseInt(statusLine[1]);
+            } while (statusCode >= 100 && statusCode < 200 && statusCode != 101);
+            long contentLength = -1L;
+            boolean chunked = false;
+            keepAlive = !"HTTP/1.0".equals(statusLine[0]);
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = lines[i].substring(colon + 1).trim();
+                if ("content-length".equals(name)) {
+                    contentLength = Long.parseLong(value);
+                } else if ("transfer-encoding".equals(name)) {
+                    chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+                } else if ("connection".equals(name)) {
+                    keepAlive = !"close".equalsIgnoreCase(value);
+                }
+            }
+
+            if (bodiless || statusCode == 204 || statusCode == 304 || statusCode == 101) {
+                return statusCode;
+            }
+            if (chunked) {
+                long chunkSize;
+                while ((chunkSize = Long.parseLong(readLine().split(";", 2)[0].trim(), 16)) > 0) {
+                    skip(chunkSize, responseBody);
+                    skip(CRLF.length, null);
+                }
+                // Trailers end with an empty line
+                while (!readLine().isEmpty()) {
+                    // Skip trailer
+                }
+            } else if (contentLength >= 0) {
+                skip(contentLength, responseBody);
+            } else {
+                // Body delimited by the end of the connection
+                keepAlive = false;
+                try {
+                    while (true) {
+                        skip(in.remaining(), responseBody);
+                        readMore();
+                    }
+                } catch (EOFException e) {
+                    // Whole body read
+                }
+            }
+            return statusCode;
+        }
+
+        private String readLine() throws IOException {
+            int lineEnd;
+            while ((lineEnd = indexOf(CRLF)) < 0) {
+                readMore();
+            }
+            String line = new String(in.array(), in.position(), lineEnd - in.position(), ISO_8859_1);
+            in.position(lineEnd + CRLF.length);
+            return line;
+        }
+
+        /**
+         * @param target receives the skipped bytes if not null
+         */
+        private void skip(long count, ByteArrayOutputStream target) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                if (!in.hasRemaining()) {
+                    readMore();
+                }
+                int step = (int) Math.min(remaining, in.remaining());
+                if (target != null) {
+                    target.write(in.array(), in.position(), step);
+                }
+                in.position(in.position() + step);
+                remaining -= step;
+            }
+        }
+
+        /**
+         * @return absolute index of the first occurrence of the pattern in the unread part of the buffer, or -1
+         */
+        private int indexOf(byte[] pattern) {
+            byte[] array = in.array();
+            for (int i = in.position(); i <= in.limit() - pattern.length; i++) {
+                int j = 0;
+                while (j < pattern.length && array[i + j] == pattern[j]) {
+                    j++;
+                }
+                if (j == pattern.length) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void readMore() throws IOException {
+            if (in.position() == 0 && in.limit() == in.capacity()) {
+                throw new IOException("Response line or header block is larger than " + BUFFER_SIZE + " bytes");
+            }
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) {
+                throw new EOFException("Connection closed by " + address + " in the middle of a response");
+            }
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Nothing to do, the connection is thrown away anyway
+                }
+                channel = null;
+            }
+        }
+    }
+}
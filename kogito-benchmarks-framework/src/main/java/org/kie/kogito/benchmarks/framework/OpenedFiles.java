@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File descriptors of a process tree classified by the targets of the links in /proc/&lt;pid&gt;/fd.
+ */
+public class OpenedFiles {
+
+    private static final Path PROC = Path.of("/proc");
+    private static final Pattern SHARED_LIBRARY = Pattern.compile(".*\\.so(\\.[0-9.]+)?$");
+
+    private long total;
+    private long sockets;
+    private long jars;
+    private long sharedLibraries;
+    private long regularFiles;
+
+    private OpenedFiles() {
+    }
+
+    /**
+     * Processes which exit while being read are left out, so are descriptors closed in the meantime.
+     */
+    static OpenedFiles read(List<Long> processIds) throws IOException {
+        OpenedFiles openedFiles = new OpenedFiles();
+        for (long processId : processIds) {
+            List<Path> fds;
+            try (Stream<Path> fdStream = Files.list(PROC.resolve(processId + "/fd"))) {
+                fds = fdStream.collect(Collectors.toList());
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            for (Path fd : fds) {
+                String target;
+                try {
+                    target = Files.readSymbolicLink(fd).toString();
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                openedFiles.classify(target);
+            }
+        }
+        return openedFiles;
+    }
+
+    private void classify(String target) {
+        total++;
+        if (target.startsWith("socket:")) {
+            sockets++;
+        } else if (target.endsWith(".jar")) {
+            jars++;
+        } else if (SHARED_LIBRARY.matcher(target).matches()) {
+            sharedLibraries++;
+        } else if (target.startsWith("/") && !target.startsWith("/dev/") && !target.startsWith("/proc/")) {
+            regularFiles++;
+        }
+        // Pipes, anonymous inodes (epoll, eventfd), devices and /proc entries are only in the total
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getSockets() {
+        return sockets;
+    }
+
+    public long getJars() {
+        return jars;
+    }
+
+    public long getSharedLibraries() {
+        return sharedLibraries;
+    }
+
+    /**
+     * @return regular files other than JARs and shared libraries
+     */
+    public long getRegularFiles() {
+        return regularFiles;
+    }
+}
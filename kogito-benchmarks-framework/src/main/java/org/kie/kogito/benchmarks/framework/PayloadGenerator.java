@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates request bodies from a template in which every <code>${field}</code> placeholder is replaced
+ * by a value sampled from the distribution declared for that field.
+ * <p>
+ * The bodies are generated up front into a corpus of byte arrays (see {@link #generate(int, long)}),
+ * so that the generation cost stays out of the measured requests.
+ */
+public class PayloadGenerator {
+
+    private static final Pattern placeholderPattern = Pattern.compile("\\$\\{([^}]+)}");
+
+    private final String template;
+    private final Map<String, Distribution> fields = new LinkedHashMap<>();
+
+    public PayloadGenerator(String template) {
+        this.template = template;
+    }
+
+    public PayloadGenerator field(String name, Distribution distribution) {
+        fields.put(name, distribution);
+        return this;
+    }
+
+    /**
+     * @param size number of bodies in the corpus
+     * @param seed the same seed generates the same corpus, so that runs stay comparable
+     */
+    public byte[][] generate(int size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be a positive int, was: " + size);
+        }
+        List<Object> segments = parseTemplate();
+        Random random = new Random(seed);
+        byte[][] corpus = new byte[size][];
+        StringBuilder body = new StringBuilder(template.length() * 2);
+        for (int i = 0; i < size; i++) {
+            body.setLength(0);
+            for (Object segment : segments) {
+                if (segment instanceof Distribution) {
+                    ((Distribution) segment).sample(random, body);
+                } else {
+                    body.append((String) segment);
+                }
+            }
+            corpus[i] = body.toString().getBytes(UTF_8);
+        }
+        return corpus;
+    }
+
+    private List<Object> parseTemplate() {
+        List<Object> segments = new ArrayList<>();
+        Matcher m = placeholderPattern.matcher(template);
+        int last = 0;
+        while (m.find()) {
+            Distribution distribution = fields.get(m.group(1));
+            if (distribution == null) {
+                throw new IllegalArgumentException("No distribution declared for field " + m.group(1));
+            }
+            segments.add(template.substring(last, m.start()));
+            segments.add(distribution);
+            last = m.end();
+        }
+        segments.add(template.substring(last));
+        return segments;
+    }
+
+    /**
+     * Distribution of the values of a single field, which writes a sampled value as a JSON literal.
+     */
+    @FunctionalInterface
+    public interface Distribution {
+
+        void sample(Random random, StringBuilder out);
+
+        /**
+         * Uniformly distributed decimal number in [min, max).
+         */
+        static Distribution uniform(double min, double max, int decimals) {
+            return (random, out) -> out.append(format(min + random.nextDouble() * (max - min), decimals));
+        }
+
+        /**
+         * Uniformly distributed integer in [min, max].
+         */
+        static Distribution integer(int min, int max) {
+            return (random, out) -> out.append(min + random.nextInt(max - min + 1));
+        }
+
+        /**
+         * Normally distributed decimal number, clamped to [min, max].
+         */
+        static Distribution normal(double mean, double standardDeviation, double min, double max, int decimals) {
+            return (random, out) -> out.append(format(Math.min(max, Math.max(min, mean + random.nextGaussian() * standardDeviation)), decimals));
+        }
+
+        /**
+         * One of the given strings with the same probability.
+         */
+        static Distribution oneOf(String... values) {
+            return (random, out) -> out.append('"').append(values[random.nextInt(values.length)]).append('"');
+        }
+
+        /**
+         * JSON array of the given length with elements sampled independently.
+         */
+        static Distribution arrayOf(int length, Distribution element) {
+            return (random, out) -> {
+                out.append('[');
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        out.append(", ");
+                    }
+                    element.sample(random, out);
+                }
+                out.append(']');
+            };
+        }
+
+        private static String format(double value, int decimals) {
+            double scale = Math.pow(10, decimals);
+            // Adding 0.0 turns a rounded -0.0 into 0.0, which some JSON mappers don't expect
+            return String.format(Locale.ROOT, "%." + decimals + "f", Math.round(value * scale) / scale + 0.0);
+        }
+    }
+}
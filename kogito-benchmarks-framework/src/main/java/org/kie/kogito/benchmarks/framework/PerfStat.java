@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hardware counters of a running process collected by attaching {@code perf stat} to it for a phase of a test.
+ * <p>
+ * Only available on Linux with perf installed and permitted by kernel.perf_event_paranoid; callers are expected
+ * to check {@link #AVAILABLE} and carry on without the counters otherwise.
+ */
+public class PerfStat {
+    private static final Logger logger = LoggerFactory.getLogger(PerfStat.class);
+
+    public static final String EVENTS = "task-clock,cycles,instructions";
+    public static final boolean AVAILABLE = isPerfAvailable();
+
+    private final Process perf;
+    private final Path output;
+
+    private PerfStat(Process perf, Path output) {
+        this.perf = perf;
+        this.output = output;
+    }
+
+    /**
+     * Starts counting the events of the process and its threads.
+     *
+     * @param output CSV file perf writes the counters to when stopped
+     */
+    public static PerfStat attach(long pid, Path output) throws IOException {
+        Process perf = new ProcessBuilder("perf", "stat", "-x", ",", "-e", EVENTS, "-p", Long.toString(pid), "-o", output.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        return new PerfStat(perf, output);
+    }
+
+    /**
+     * Stops counting; perf writes the counters on SIGINT.
+     *
+     * @return counter values by event name without modifiers, e.g. "cycles"; events which couldn't be counted are left out
+     */
+    public Map<String, Double> stop() throws IOException, InterruptedException {
+        Runtime.getRuntime().exec(new String[] { "kill", "-INT", Long.toString(perf.pid()) }).waitFor();
+        if (!perf.waitFor(10, TimeUnit.SECONDS)) {
+            perf.destroyForcibly();
+            logger.warn("perf stat didn't stop, no counters collected");
+            return Collections.emptyMap();
+        }
+        if (Files.notExists(output)) {
+            return Collections.emptyMap();
+        }
+        return parse(Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the output of perf stat -x, where each counter is a line like {@code 4274799448,,cycles:u,1688910052,100.00,,}.
+     * On hybrid CPUs an event is counted per core type, e.g. {@code cpu_core/cycles/u} and {@code cpu_atom/cycles/u}, and summed.
+     */
+    static Map<String, Double> parse(List<String> lines) {
+        Map<String, Double> counters = new LinkedHashMap<>();
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            if (line.startsWith("#") || fields.length < 3 || fields[0].startsWith("<")) {
+                // Comments, empty lines and "<not supported>" or "<not counted>" events
+                continue;
+            }
+            try {
+                counters.merge(eventName(fields[2]), Double.parseDouble(fields[0]), Double::sum);
+            } catch (NumberFormatException e) {
+                logger.debug("Skipping perf stat line: " + line);
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * @return event without the PMU and the modifiers, e.g. "cycles" for "cycles:u" or "cpu_core/cycles/u"
+     */
+    private static String eventName(String event) {
+        String name = event;
+        if (name.indexOf('/') >= 0) {
+            String[] parts = name.split("/");
+            name = parts.length > 1 ? parts[1] : parts[0];
+        }
+        return name.contains(":") ? name.substring(0, name.indexOf(':')) : name;
+    }
+
+    private static boolean isPerfAvailable() {
+        if (Commands.isThisWindows) {
+            return false;
+        }
+        try {
+            Process p = new ProcessBuilder("perf", "--version").redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return p.waitFor(10, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Lifecycle of a process instance sent as a chain of requests by {@link LoadGenerator}.
+ * <p>
+ * The first step creates the instance; the id of the instance is taken from the "id" field of its JSON response
+ * and replaces the {@link HTTPRequestInfo#ID_PLACEHOLDER} in the URIs of the following steps, e.g. to get, advance
+ * or delete the instance. Any step can capture more values from its response the same way, e.g. the id of a work item
+ * to complete in a later step. Fields are taken from the top-level object of the response, or from the first element if
+ * the response is an array, never from nested objects like the variables of the instance. The steps of one instance are
+ * sent one after another, an instance ends with its first failed step.
+ */
+public class ProcessLifecycle {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<HTTPRequestInfo> requestInfos = new ArrayList<>();
+    // Per step, the captured JSON fields by the names of their placeholders
+    private final List<Map<String, String>> captures = new ArrayList<>();
+
+    private ProcessLifecycle() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Lifecycle of a single request capturing nothing, a plain request of a {@link Workload}.
+     */
+    static ProcessLifecycle of(String name, HTTPRequestInfo requestInfo) {
+        ProcessLifecycle lifecycle = new ProcessLifecycle();
+        lifecycle.names.add(name);
+        lifecycle.requestInfos.add(requestInfo);
+        lifecycle.captures.add(Collections.emptyMap());
+        return lifecycle;
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    public List<HTTPRequestInfo> getRequestInfos() {
+        return Collections.unmodifiableList(requestInfos);
+    }
+
+    public int size() {
+        return requestInfos.size();
+    }
+
+    /**
+     * @return lifecycle with the same steps, but with the requests replaced by the function
+     */
+    public ProcessLifecycle map(UnaryOperator<HTTPRequestInfo> function) {
+        ProcessLifecycle lifecycle = new ProcessLifecycle();
+        lifecycle.names.addAll(names);
+        requestInfos.forEach(requestInfo -> lifecycle.requestInfos.add(function.apply(requestInfo)));
+        lifecycle.captures.addAll(captures);
+        return lifecycle;
+    }
+
+    /**
+     * @return true if the step captures values from its response, which has to be kept then
+     */
+    public boolean captures(int step) {
+        return !captures.get(step).isEmpty();
+    }
+
+    /**
+     * Puts the values the step captures from its response into the values by the names of their placeholders.
+     *
+     * @return failure if the response lacks one of them, null otherwise
+     */
+    public String capture(int step, String response, Map<String, String> values) {
+        for (Map.Entry<String, String> capture : captures.get(step).entrySet()) {
+            String value = topLevelField(response, capture.getValue());
+            if (value == null) {
+                return "No " + capture.getKey() + " in response " + response;
+            }
+            values.put(capture.getKey(), value);
+        }
+        return null;
+    }
+
+    /**
+     * @return string value of the field of the top-level JSON object, or of the first element of a top-level array;
+     *         null if there is no such field or its value is not a string
+     */
+    static String topLevelField(String json, String field) {
+        int i = skipWhitespace(json, 0);
+        if (i < json.length() && json.charAt(i) == '[') {
+            i = skipWhitespace(json, i + 1);
+        }
+        if (i >= json.length() || json.charAt(i) != '{') {
+            return null;
+        }
+        int depth = 0;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                int end = stringEnd(json, i);
+                if (end < 0) {
+                    return null;
+                }
+                int colon = skipWhitespace(json, end + 1);
+                if (depth == 1 && colon < json.length() && json.charAt(colon) == ':' && json.substring(i + 1, end).equals(field)) {
+                    int value = skipWhitespace(json, colon + 1);
+                    int valueEnd = value < json.length() && json.charAt(value) == '"' ? stringEnd(json, value) : -1;
+                    return valueEnd < 0 ? null : json.substring(value + 1, valueEnd);
+                }
+                i = end + 1;
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                // End of the object, or of the first element
+                return null;
+            }
+            i++;
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(String json, int from) {
+        int i = from;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return index of the quote closing the string starting at the given quote, -1 if it is not closed
+     */
+    private static int stringEnd(String json, int quote) {
+        for (int i = quote + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" -> ", names);
+    }
+
+    public static final class Builder {
+        private final ProcessLifecycle instance = new ProcessLifecycle();
+
+        private Builder() {
+        }
+
+        /**
+         * Request creating the process instance, the first step. Captures the id of the instance.
+         */
+        public Builder create(String name, HTTPRequestInfo requestInfo) {
+            if (!instance.names.isEmpty()) {
+                throw new IllegalStateException("The create step must be the first one");
+            }
+            if (requestInfo.isURITemplate()) {
+                throw new IllegalArgumentException("The create step can't depend on an id, was: " + requestInfo.getURI());
+            }
+            return add(name, requestInfo).capture("id", "id");
+        }
+
+        /**
+         * Request on the created process instance.
+         */
+        public Builder step(String name, HTTPRequestInfo requestInfo) {
+            if (instance.names.isEmpty()) {
+                throw new IllegalStateException("The create step must be the first one");
+            }
+            return add(name, requestInfo);
+        }
+
+        /**
+         * Captures the string value of the top-level JSON field from the response of the last added step, which then replaces
+         * the placeholder of the given name in the URIs of the following steps.
+         */
+        public Builder capture(String placeholderName, String jsonField) {
+            if (instance.names.isEmpty()) {
+                throw new IllegalStateException("The create step must be the first one");
+            }
+            instance.captures.get(instance.captures.size() - 1).put(placeholderName, jsonField);
+            return this;
+        }
+
+        private Builder add(String name, HTTPRequestInfo requestInfo) {
+            if (instance.names.contains(name)) {
+                throw new IllegalArgumentException("Step named " + name + " is already part of the lifecycle");
+            }
+            instance.names.add(name);
+            instance.requestInfos.add(requestInfo);
+            instance.captures.add(new LinkedHashMap<>());
+            return this;
+        }
+
+        public ProcessLifecycle build() {
+            if (instance.requestInfos.isEmpty()) {
+                throw new IllegalStateException("Lifecycle must contain at least the create step");
+            }
+            Set<String> captured = new HashSet<>();
+            for (int step = 0; step < instance.size(); step++) {
+                for (String placeholder : HTTPRequestInfo.placeholders(instance.requestInfos.get(step).getURI())) {
+                    if (!captured.contains(placeholder)) {
+                        throw new IllegalStateException("No step before " + instance.names.get(step) + " captures " + HTTPRequestInfo.placeholder(placeholder));
+                    }
+                }
+                captured.addAll(instance.captures.get(step).keySet());
+            }
+            return instance;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+/**
+ * Resource usage of a process tree at a point in time, see {@link ProcessSampler}.
+ */
+public class ProcessSample {
+
+    private final long timeNs;
+    private final int processes;
+    private final long rssKb;
+    private final long threads;
+    private final long openedFiles;
+    private final long cpuTimeNs;
+
+    public ProcessSample(long timeNs, int processes, long rssKb, long threads, long openedFiles, long cpuTimeNs) {
+        this.timeNs = timeNs;
+        this.processes = processes;
+        this.rssKb = rssKb;
+        this.threads = threads;
+        this.openedFiles = openedFiles;
+        this.cpuTimeNs = cpuTimeNs;
+    }
+
+    /**
+     * @return nanoseconds since the process was spawned
+     */
+    public long getTimeNs() {
+        return timeNs;
+    }
+
+    /**
+     * @return number of live processes in the tree
+     */
+    public int getProcesses() {
+        return processes;
+    }
+
+    public long getRssKb() {
+        return rssKb;
+    }
+
+    /**
+     * @return number of threads in the tree, -1 if not available without /proc
+     */
+    public long getThreads() {
+        return threads;
+    }
+
+    public long getOpenedFiles() {
+        return openedFiles;
+    }
+
+    /**
+     * @return user and system CPU time consumed by the tree so far, including reaped children; -1 if not available
+     */
+    public long getCpuTimeNs() {
+        return cpuTimeNs;
+    }
+}
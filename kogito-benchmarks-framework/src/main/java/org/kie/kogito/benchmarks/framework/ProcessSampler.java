@@ -0,0 +1,301 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples the resource usage of a process and all its descendants in the background, from spawn to exit.
+ * <p>
+ * On Linux the values are read directly from /proc/&lt;pid&gt;/status, /proc/&lt;pid&gt;/stat and /proc/&lt;pid&gt;/fd,
+ * which is cheap enough to sample every few milliseconds without disturbing the app. Elsewhere there is no background
+ * sampling and {@link #sample()} falls back to {@link Commands#getRSSkB(long)} and friends for the root process.
+ */
+public class ProcessSampler implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessSampler.class);
+
+    private static final Path PROC = Path.of("/proc");
+    public static final boolean PROC_AVAILABLE = Files.isDirectory(PROC.resolve("self"));
+    private static final long NANOS_PER_CLOCK_TICK = TimeUnit.SECONDS.toNanos(1) / getClockTicksPerSecond();
+
+    private final long pid;
+    private final long startTime;
+    private final List<ProcessSample> samples = new ArrayList<>();
+    private final List<ThreadUsage> threadSamples = new ArrayList<>();
+    private volatile long threadSamplingIntervalNs = -1L;
+    private volatile long lastThreadSampleNs;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private ProcessSampler(long pid, long startTime, long intervalMs) {
+        this.pid = pid;
+        this.startTime = startTime;
+        if (PROC_AVAILABLE && intervalMs > 0) {
+            this.thread = new Thread(() -> run(intervalMs), "process-sampler-" + pid);
+            this.thread.setDaemon(true);
+        } else {
+            this.thread = null;
+        }
+    }
+
+    /**
+     * Starts sampling the process, times of the samples are relative to its spawn.
+     *
+     * @param spawnNs {@link System#nanoTime()} taken right before the process was started
+     * @param intervalMs sampling interval; zero or negative for sampling only on demand
+     */
+    public static ProcessSampler start(long pid, long spawnNs, long intervalMs) {
+        ProcessSampler sampler = new ProcessSampler(pid, spawnNs, intervalMs);
+        if (sampler.thread != null) {
+            sampler.thread.start();
+        }
+        return sampler;
+    }
+
+    private void run(long intervalMs) {
+        try {
+            while (!closed && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) {
+                sample();
+                if (threadSamplingIntervalNs > 0 && System.nanoTime() - lastThreadSampleNs >= threadSamplingIntervalNs) {
+                    sampleThreads();
+                }
+                Thread.sleep(intervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Sampling of process " + pid + " stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Takes a sample right now and adds it to the time series.
+     */
+    public ProcessSample sample() throws IOException {
+        ProcessSample sample;
+        if (PROC_AVAILABLE) {
+            sample = sampleProc();
+        } else {
+            try {
+                sample = new ProcessSample(System.nanoTime() - startTime, 1, Commands.getRSSkB(pid), -1L, Commands.getOpenedFDs(pid), -1L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sampling process " + pid, e);
+            }
+        }
+        synchronized (samples) {
+            samples.add(sample);
+        }
+        return sample;
+    }
+
+    private ProcessSample sampleProc() {
+        long timeNs = System.nanoTime() - startTime;
+        int processes = 0;
+        long rssKb = 0;
+        long threads = 0;
+        long openedFiles = 0;
+        long cpuTicks = 0;
+        for (long processId : processTree()) {
+            // Processes may exit at any time, such a process is just left out
+            try {
+                long processRssKb = -1L;
+                for (String line : Files.readAllLines(PROC.resolve(processId + "/status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        processRssKb = parseKb(line);
+                        break;
+                    }
+                }
+                String[] stat = readStat(processId);
+                long processOpenedFiles;
+                try (Stream<Path> fds = Files.list(PROC.resolve(processId + "/fd"))) {
+                    processOpenedFiles = fds.count();
+                }
+                // Kernel threads and zombies have no VmRSS
+                rssKb += Math.max(processRssKb, 0);
+                // Fields 14-17 of stat: utime, stime, cutime and cstime; reaped children are accounted in cutime and cstime
+                cpuTicks += Long.parseLong(stat[11]) + Long.parseLong(stat[12]) + Long.parseLong(stat[13]) + Long.parseLong(stat[14]);
+                // Field 20 of stat: num_threads
+                threads += Long.parseLong(stat[17]);
+                openedFiles += processOpenedFiles;
+                processes++;
+            } catch (IOException e) {
+                logger.debug("Process " + processId + " exited while being sampled");
+            }
+        }
+        return new ProcessSample(timeNs, processes, rssKb, threads, openedFiles, cpuTicks * NANOS_PER_CLOCK_TICK);
+    }
+
+    private List<Long> processTree() {
+        Optional<ProcessHandle> root = ProcessHandle.of(pid);
+        if (root.isEmpty()) {
+            return List.of();
+        }
+        return Stream.concat(Stream.of(root.get()), root.get().descendants())
+                .map(ProcessHandle::pid)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return fields of /proc/&lt;pid&gt;/stat following the command name, i.e. starting with field 3 (state)
+     */
+    private static String[] readStat(long processId) throws IOException {
+        String stat = Files.readString(PROC.resolve(processId + "/stat"));
+        // The command name may contain spaces and parentheses, it ends with the last ')'
+        return stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+    }
+
+    private static long parseKb(String statusLine) {
+        String value = statusLine.substring(statusLine.indexOf(':') + 1).trim();
+        return Long.parseLong(value.split("\\s+")[0]);
+    }
+
+    /**
+     * Reads the memory breakdown of the process tree right now; not part of the time series as it is much more expensive.
+     *
+     * @return null if /proc is not available
+     */
+    public MemoryUsage memoryUsage() throws IOException {
+        return PROC_AVAILABLE ? MemoryUsage.read(processTree()) : null;
+    }
+
+    /**
+     * Classifies the file descriptors of the process tree right now.
+     *
+     * @return null if /proc is not available
+     */
+    public OpenedFiles openedFiles() throws IOException {
+        return PROC_AVAILABLE ? OpenedFiles.read(processTree()) : null;
+    }
+
+    /**
+     * Starts taking snapshots of the CPU time and context switches of every thread, e.g. for the measured phase.
+     * Reading all threads is too expensive for the process sampling interval, so it has its own coarser interval.
+     *
+     * @param intervalMs interval of the snapshots between the first and the last one
+     */
+    public void startThreadSampling(long intervalMs) throws IOException {
+        synchronized (threadSamples) {
+            threadSamples.clear();
+        }
+        if (PROC_AVAILABLE) {
+            sampleThreads();
+            threadSamplingIntervalNs = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        }
+    }
+
+    /**
+     * Takes the last snapshot and stops taking them.
+     *
+     * @return snapshots since {@link #startThreadSampling(long)}, empty if /proc is not available
+     */
+    public List<ThreadUsage> stopThreadSampling() throws IOException {
+        if (threadSamplingIntervalNs > 0) {
+            threadSamplingIntervalNs = -1L;
+            sampleThreads();
+        }
+        synchronized (threadSamples) {
+            // The background thread may have been taking a snapshot concurrently
+            threadSamples.sort(Comparator.comparingLong(ThreadUsage::getTimeNs));
+            return new ArrayList<>(threadSamples);
+        }
+    }
+
+    private void sampleThreads() throws IOException {
+        lastThreadSampleNs = System.nanoTime();
+        ThreadUsage threadUsage = ThreadUsage.read(lastThreadSampleNs - startTime, processTree(), NANOS_PER_CLOCK_TICK);
+        synchronized (threadSamples) {
+            threadSamples.add(threadUsage);
+        }
+    }
+
+    /**
+     * @return copy of the time series taken so far
+     */
+    public List<ProcessSample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    /**
+     * Writes the time series as CSV.
+     */
+    public void writeTimeSeries(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("timeMs,processes,RSSKb,threads,FDs,cpuTimeMs\n");
+            for (ProcessSample sample : getSamples()) {
+                writer.write(TimeUnit.NANOSECONDS.toMillis(sample.getTimeNs()) + "," + sample.getProcesses() + "," + sample.getRssKb() + ","
+                        + sample.getThreads() + "," + sample.getOpenedFiles() + ","
+                        + (sample.getCpuTimeNs() < 0 ? -1L : TimeUnit.NANOSECONDS.toMillis(sample.getCpuTimeNs())) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Stops the background sampling, the samples taken so far stay available.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static long getClockTicksPerSecond() {
+        if (PROC_AVAILABLE) {
+            try {
+                Process p = new ProcessBuilder("getconf", "CLK_TCK").redirectErrorStream(true).start();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line = reader.readLine();
+                    p.waitFor();
+                    if (line != null && line.trim().matches("[0-9]+")) {
+                        return Long.parseLong(line.trim());
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("getconf CLK_TCK failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // USER_HZ is 100 on all common Linux architectures
+        return 100L;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Waits for a freshly spawned app to open its port and to serve a page, timing both from the spawn.
+ * <p>
+ * Unlike {@link WebpageTester}, the probe doesn't open a URLConnection per attempt: a non-blocking connect is
+ * retried until the port accepts it, then a plain HTTP/1.1 GET is sent on that very connection, so the first OK request
+ * doesn't pay for connection setup. While the app isn't ready, the GET is retried on the same persistent connection,
+ * a new one is opened only if the app closes it. The expected string is looked for in the body only, de-chunked if need be.
+ * <p>
+ * A refused connect or a not yet OK response can't be waited for on the channel, so the attempts back off from
+ * {@link #MIN_RETRY_INTERVAL_NS} to {@link #MAX_RETRY_INTERVAL_NS}. The probe then makes at most about a thousand
+ * attempts a second, which a starting app sharing the CPUs with it barely notices, and both times are up to
+ * {@link #MAX_RETRY_INTERVAL_NS} late.
+ */
+public class ReadinessProbe {
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessProbe.class);
+
+    static final long MIN_RETRY_INTERVAL_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    static final long MAX_RETRY_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long READ_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5);
+    private static final Pattern STATUS_LINE = Pattern.compile("HTTP/1\\.([01]) (\\d{3})(?: .*)?");
+
+    private ReadinessProbe() {
+    }
+
+    public static class Result {
+        private final long timeToPortOpenNs;
+        private final long timeToFirstOKRequestNs;
+
+        Result(long timeToPortOpenNs, long timeToFirstOKRequestNs) {
+            this.timeToPortOpenNs = timeToPortOpenNs;
+            this.timeToFirstOKRequestNs = timeToFirstOKRequestNs;
+        }
+
+        /**
+         * @return time from the spawn until the port accepted a connection
+         */
+        public long getTimeToPortOpenNs() {
+            return timeToPortOpenNs;
+        }
+
+        /**
+         * @return time from the spawn until the whole response containing the expected string was read
+         */
+        public long getTimeToFirstOKRequestNs() {
+            return timeToFirstOKRequestNs;
+        }
+    }
+
+    /**
+     * @param spawnNs {@link System#nanoTime()} taken right before the process was started
+     * @param url http URL of the page
+     * @param timeoutS since the spawn
+     * @param stringToLookFor string which must be present in the body of the page
+     */
+    public static Result await(long spawnNs, String url, long timeoutS, String stringToLookFor) throws IOException {
+        if (StringUtils.isBlank(url)) {
+            throw new IllegalArgumentException("url must not be empty");
+        }
+        if (StringUtils.isBlank(stringToLookFor)) {
+            throw new IllegalArgumentException("stringToLookFor must contain a non-empty string");
+        }
+        URI uri = URI.create(url);
+        InetSocketAddress address = new InetSocketAddress(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort());
+        byte[] request = ("GET " + (StringUtils.isEmpty(uri.getRawPath()) ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "") + " HTTP/1.1\r\n"
+                + "Host: " + uri.getHost() + ":" + address.getPort() + "\r\n"
+                + "Accept: */*\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        long deadlineNs = spawnNs + TimeUnit.SECONDS.toNanos(timeoutS);
+        long timeToPortOpenNs = -1L;
+        Response response = null;
+        SocketChannel channel = null;
+        long retryIntervalNs = MIN_RETRY_INTERVAL_NS;
+        try (Selector selector = Selector.open()) {
+            while (System.nanoTime() < deadlineNs) {
+                try {
+                    if (channel == null) {
+                        channel = connect(selector, address);
+                        if (channel != null && timeToPortOpenNs < 0) {
+                            timeToPortOpenNs = System.nanoTime() - spawnNs;
+                            // The app may be ready soon after its port opens
+                            retryIntervalNs = MIN_RETRY_INTERVAL_NS;
+                        }
+                    }
+                    if (channel != null) {
+                        response = get(selector, channel, request);
+                        if (response.isSuccess() && response.body.contains(stringToLookFor)) {
+                            return new Result(timeToPortOpenNs, System.nanoTime() - spawnNs);
+                        }
+                        if (!response.keepAlive) {
+                            channel = close(channel);
+                        }
+                    }
+                } catch (IOException e) {
+                    // The app may close connections while starting
+                    channel = close(channel);
+                    logger.debug("Waiting `" + stringToLookFor + "' to appear on " + url + ": " + e.getMessage());
+                }
+                LockSupport.parkNanos(retryIntervalNs);
+                retryIntervalNs = Math.min(2 * retryIntervalNs, MAX_RETRY_INTERVAL_NS);
+            }
+        } finally {
+            close(channel);
+        }
+        String failureMessage = "Timeout " + timeoutS + "s was reached. " + (timeToPortOpenNs < 0 ? "Port " + address.getPort() + " was not opened."
+                : (response != null ? response + " must contain string: " : "Empty webpage does not contain string: ")
+                        + "`" + stringToLookFor + "'");
+        logger.warn(failureMessage);
+        return fail(failureMessage);
+    }
+
+    /**
+     * @return connected channel, null if the connection was refused
+     */
+    private static SocketChannel connect(Selector selector, InetSocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            // Loopback connections are usually established or refused right away
+            if (!channel.connect(address)) {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+                selector.select(READ_TIMEOUT_MS);
+                key.cancel();
+                selector.selectNow();
+                if (!channel.finishConnect()) {
+                    channel.close();
+                    return null;
+                }
+            }
+            return channel;
+        } catch (IOException e) {
+            // ConnectException while the port is not open yet
+            channel.close();
+            return null;
+        }
+    }
+
+    /**
+     * @return always null, for the channel variable
+     */
+    private static SocketChannel close(SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing to do, the connection is thrown away anyway
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends the request and reads the whole response.
+     */
+    private static Response get(Selector selector, SocketChannel channel, byte[] request) throws IOException {
+        ByteBuffer requestBuffer = ByteBuffer.wrap(request);
+        while (requestBuffer.hasRemaining()) {
+            channel.write(requestBuffer);
+        }
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        try {
+            return new ResponseReader(selector, channel).read();
+        } finally {
+            key.cancel();
+            selector.selectNow();
+        }
+    }
+
+    static class Response {
+        final int statusCode;
+        final String body;
+        final boolean keepAlive;
+
+        Response(int statusCode, String body, boolean keepAlive) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.keepAlive = keepAlive;
+        }
+
+        boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        @Override
+        public String toString() {
+            return "HTTP " + statusCode + " " + body;
+        }
+    }
+
+    /**
+     * Reads an HTTP/1.x response with a Content-Length, a chunked or a connection delimited body from a non-blocking channel
+     * registered for reading with the selector.
+     */
+    static class ResponseReader {
+        private final Selector selector;
+        private final SocketChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        private byte[] data = new byte[8192];
+        private int position;
+        private int limit;
+
+        ResponseReader(Selector selector, SocketChannel channel) {
+            this.selector = selector;
+            this.channel = channel;
+        }
+
+        Response read() throws IOException {
+            String statusLine = readLine();
+            Matcher status = STATUS_LINE.matcher(statusLine);
+            if (!status.matches()) {
+                throw new IOException("Malformed status line: " + statusLine);
+            }
+            int statusCode = Integer.parseInt(status.group(2));
+            boolean keepAlive = "1".equals(status.group(1));
+            long contentLength = -1L;
+            boolean chunked = false;
+            String line;
+            while (!(line = readLine()).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                if ("content-length".equals(name)) {
+                    contentLength = Long.parseLong(value);
+                } else if ("transfer-encoding".equals(name)) {
+                    chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+                } else if ("connection".equals(name)) {
+                    keepAlive = !"close".equalsIgnoreCase(value);
+                }
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (statusCode == 204 || statusCode == 304 || (statusCode >= 100 && statusCode < 200)) {
+                // No body
+            } else if (chunked) {
+                long chunkSize;
+                while ((chunkSize = Long.parseLong(readLine().split(";", 2)[0].trim(), 16)) > 0) {
+                    readBytes(chunkSize, body);
+                    readLine();
+                }
+                // Trailers end with an empty line
+                while (!readLine().isEmpty()) {
+                    // Skip trailer
+                }
+            } else if (contentLength >= 0) {
+                readBytes(contentLength, body);
+            } else {
+                // Body delimited by the end of the connection
+                keepAlive = false;
+                do {
+                    body.write(data, position, limit - position);
+                    position = limit;
+                } while (fill());
+            }
+            return new Response(statusCode, body.toString(StandardCharsets.UTF_8), keepAlive);
+        }
+
+        private String readLine() throws IOException {
+            int lineEnd;
+            while ((lineEnd = indexOfCrlf()) < 0) {
+                if (!fill()) {
+                    throw new EOFException("Connection closed in the middle of a response");
+                }
+            }
+            String line = new String(data, position, lineEnd - position, StandardCharsets.ISO_8859_1);
+            position = lineEnd + 2;
+            return line;
+        }
+
+        private void readBytes(long count, ByteArrayOutputStream target) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                if (position == limit && !fill()) {
+                    throw new EOFException("Connection closed in the middle of a response");
+                }
+                int step = (int) Math.min(remaining, limit - position);
+                target.write(data, position, step);
+                position += step;
+                remaining -= step;
+            }
+        }
+
+        private int indexOfCrlf() {
+            for (int i = position; i < limit - 1; i++) {
+                if (data[i] == '\r' && data[i + 1] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return false if the connection was closed
+         */
+        private boolean fill() throws IOException {
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    return false;
+                }
+                if (read > 0) {
+                    if (position > 0) {
+                        // Drop what has been read already
+                        System.arraycopy(data, position, data, 0, limit - position);
+                        limit -= position;
+                        position = 0;
+                    }
+                    if (limit + read > data.length) {
+                        data = Arrays.copyOf(data, Math.max(data.length * 2, limit + read));
+                    }
+                    System.arraycopy(buffer.array(), 0, data, limit, read);
+                    limit += read;
+                    return true;
+                }
+                if (selector.select(READ_TIMEOUT_MS) == 0) {
+                    throw new IOException("No response in " + READ_TIMEOUT_MS + " ms");
+                }
+                selector.selectedKeys().clear();
+            }
+        }
+    }
+}
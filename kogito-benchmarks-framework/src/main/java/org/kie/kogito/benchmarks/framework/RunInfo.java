@@ -16,6 +16,8 @@
 package org.kie.kogito.benchmarks.framework;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class which holds information about a started application.
@@ -24,12 +26,25 @@ public class RunInfo {
 
     private final Process process;
     private final File runLog;
-    private final long timeToFirstOKRequest;
+    private final int port;
+    private final ReadinessProbe.Result readiness;
+    private final long timeToAllURLsOKNs;
+    private final long cpuTimeToFirstOKRequestNs;
+    private final ProcessSampler sampler;
+    private final JvmSampler jvmSampler;
+    private final NativeMemory nativeMemoryAtAllURLsOK;
 
-    public RunInfo(Process process, File runLog, long timeToFirstOKRequest) {
+    public RunInfo(Process process, File runLog, int port, ReadinessProbe.Result readiness, long timeToAllURLsOKNs, long cpuTimeToFirstOKRequestNs,
+            ProcessSampler sampler, JvmSampler jvmSampler, NativeMemory nativeMemoryAtAllURLsOK) {
         this.process = process;
         this.runLog = runLog;
-        this.timeToFirstOKRequest = timeToFirstOKRequest;
+        this.port = port;
+        this.readiness = readiness;
+        this.timeToAllURLsOKNs = timeToAllURLsOKNs;
+        this.cpuTimeToFirstOKRequestNs = cpuTimeToFirstOKRequestNs;
+        this.sampler = sampler;
+        this.jvmSampler = jvmSampler;
+        this.nativeMemoryAtAllURLsOK = nativeMemoryAtAllURLsOK;
     }
 
     public Process getProcess() {
@@ -40,7 +55,96 @@ public class RunInfo {
         return runLog;
     }
 
+    /**
+     * @return HTTP port the app listens on
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return ms from the spawn of the app until its first OK response
+     */
     public long getTimeToFirstOKRequest() {
-        return timeToFirstOKRequest;
+        return TimeUnit.NANOSECONDS.toMillis(readiness.getTimeToFirstOKRequestNs());
+    }
+
+    /**
+     * @return microseconds from the spawn of the app until its port accepted a connection
+     */
+    public long getTimeToPortOpenUs() {
+        return TimeUnit.NANOSECONDS.toMicros(readiness.getTimeToPortOpenNs());
+    }
+
+    /**
+     * @return microseconds from the spawn of the app until its first OK response
+     */
+    public long getTimeToFirstOKRequestUs() {
+        return TimeUnit.NANOSECONDS.toMicros(readiness.getTimeToFirstOKRequestNs());
+    }
+
+    /**
+     * @return microseconds from the spawn of the app until the content of all its URLs was checked
+     */
+    public long getTimeToAllURLsOKUs() {
+        return TimeUnit.NANOSECONDS.toMicros(timeToAllURLsOKNs);
+    }
+
+    /**
+     * @return CPU time the app process tree consumed from spawn to the first OK request, -1 if not available
+     */
+    public long getCpuTimeToFirstOKRequestNs() {
+        return cpuTimeToFirstOKRequestNs;
+    }
+
+    /**
+     * @return sampler of the resource usage of the app process tree, started right after the app was spawned
+     */
+    public ProcessSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @return sampler of the JVM telemetry of the app, null if disabled or the app is not a JVM
+     */
+    public JvmSampler getJvmSampler() {
+        return jvmSampler;
+    }
+
+    /**
+     * @return NMT summary read right after all the URLs were OK, null if native memory tracking is disabled
+     */
+    public NativeMemory getNativeMemoryAtAllURLsOK() {
+        return nativeMemoryAtAllURLsOK;
+    }
+
+    /**
+     * @return -Xlog:startuptime log of the app, null if not written, e.g. for native executables
+     */
+    public File getStartupLog() {
+        File startupLog = Commands.getStartupLog(runLog);
+        return startupLog.exists() ? startupLog : null;
+    }
+
+    /**
+     * @return GC log of the app, null if not written, e.g. for native executables
+     */
+    public File getGcLog() {
+        File gcLog = Commands.getGcLog(runLog);
+        return gcLog.exists() ? gcLog : null;
+    }
+
+    /**
+     * Stops the sampling and writes the time series next to the run log. The JVM sampler should be closed before
+     * the app is stopped to get its final sample and safepoint statistics.
+     */
+    public void stopSampling() throws IOException {
+        String mode = runLog.getName().replace("-run.log", "");
+        sampler.close();
+        sampler.writeTimeSeries(runLog.toPath().resolveSibling(mode + "-samples.csv"));
+        if (jvmSampler != null) {
+            jvmSampler.close();
+            jvmSampler.writeTimeSeries(runLog.toPath().resolveSibling(mode + "-jvm-samples.csv"));
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Location and spread of a small sample of repeated measurements, e.g. the startup times of several starts.
+ * <p>
+ * The 95% confidence interval of the mean uses the Student's t distribution, as the samples are small and their
+ * standard deviation is estimated from them. Median and MAD (median absolute deviation) are not thrown off by outliers.
+ */
+public class SampleStatistics {
+
+    // Two-sided 95% quantiles of the Student's t distribution for 1 to 30 degrees of freedom
+    private static final double[] T_95 = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+    private static final double Z_975 = 1.959964;
+
+    private final int size;
+    private final double mean;
+    private final double median;
+    private final double mad;
+    private final double ciHalfWidth;
+
+    private SampleStatistics(int size, double mean, double median, double mad, double ciHalfWidth) {
+        this.size = size;
+        this.mean = mean;
+        this.median = median;
+        this.mad = mad;
+        this.ciHalfWidth = ciHalfWidth;
+    }
+
+    public static SampleStatistics of(List<? extends Number> values) {
+        if (values.size() < 2) {
+            throw new IllegalArgumentException("At least 2 values are needed for a confidence interval, was: " + values.size());
+        }
+        double[] sorted = values.stream().mapToDouble(Number::doubleValue).sorted().toArray();
+        int n = sorted.length;
+        double mean = Arrays.stream(sorted).average().orElse(0.0);
+        double sumOfSquares = 0.0;
+        for (double value : sorted) {
+            sumOfSquares += (value - mean) * (value - mean);
+        }
+        double standardError = Math.sqrt(sumOfSquares / (n - 1) / n);
+        double median = median(sorted);
+        double mad = median(Arrays.stream(sorted).map(value -> Math.abs(value - median)).sorted().toArray());
+        return new SampleStatistics(n, mean, median, mad, t95(n - 1) * standardError);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    /**
+     * @return median absolute deviation from the median, not scaled to the standard deviation
+     */
+    public double getMad() {
+        return mad;
+    }
+
+    public double getCiLow() {
+        return mean - ciHalfWidth;
+    }
+
+    public double getCiHigh() {
+        return mean + ciHalfWidth;
+    }
+
+    /**
+     * @return width of the 95% confidence interval relative to the mean, e.g. 0.1 for mean 100 and interval 95 - 105
+     */
+    public double getRelativeCiWidth() {
+        return mean == 0.0 ? (ciHalfWidth == 0.0 ? 0.0 : Double.POSITIVE_INFINITY) : 2 * ciHalfWidth / Math.abs(mean);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("median %.1f, MAD %.1f, mean %.1f, 95%% CI [%.1f, %.1f] (%.1f %% of the mean)",
+                median, mad, mean, getCiLow(), getCiHigh(), 100 * getRelativeCiWidth());
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Beyond the table the quantile is approximated by its Cornish-Fisher expansion around the normal one.
+     */
+    static double t95(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_95.length) {
+            return T_95[degreesOfFreedom - 1];
+        }
+        double z = Z_975;
+        double df = degreesOfFreedom;
+        return z + (Math.pow(z, 3) + z) / (4 * df) + (5 * Math.pow(z, 5) + 16 * Math.pow(z, 3) + 3 * z) / (96 * df * df);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Isolated place to run one app in: its own HTTP port, CPUs for the app and CPUs for the load generator.
+ * <p>
+ * There are as many slots as apps allowed to run in parallel and the CPUs of different slots don't overlap,
+ * so that apps measured at the same time don't compete for CPUs. A test holds a slot from the build to the stop of its app.
+ * With a single slot the app listens on the base port 8080 and gets the first {@code cpuAffinity} CPUs, as before
+ * there were slots.
+ */
+public class Slot implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Slot.class);
+
+    public static final int PARALLEL_APPS = Integer.parseInt(System.getProperty("parallelApps", "1"));
+    public static final int APP_CPUS = Integer.parseInt(System.getProperty("cpuAffinity", "0"));
+    public static final int LOAD_GENERATOR_CPUS = Integer.parseInt(System.getProperty("loadGeneratorCpus", "0"));
+    public static final int BASE_PORT = Integer.parseInt(System.getProperty("basePort", "8080"));
+
+    private static final BlockingQueue<Slot> SLOTS = createSlots();
+
+    private final int index;
+    private final int port;
+    private final String appCpus;
+    private final String loadGeneratorCpus;
+
+    private String pinnedThread;
+    private String pinnedThreadCpus;
+
+    private Slot(int index, int port, String appCpus, String loadGeneratorCpus) {
+        this.index = index;
+        this.port = port;
+        this.appCpus = appCpus;
+        this.loadGeneratorCpus = loadGeneratorCpus;
+    }
+
+    /**
+     * Waits for a free slot.
+     */
+    public static Slot acquire() throws InterruptedException {
+        Slot slot = SLOTS.take();
+        logger.info("Acquired " + slot);
+        return slot;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return CPU list of the app in the taskset format, null if the app is not pinned
+     */
+    public String getAppCpus() {
+        return appCpus;
+    }
+
+    /**
+     * @return CPU list of the load generator in the taskset format, null if the load generator is not pinned
+     */
+    public String getLoadGeneratorCpus() {
+        return loadGeneratorCpus;
+    }
+
+    /**
+     * Pins the calling thread to the CPUs of the load generator until the slot is closed. The threads of the load clients
+     * inherit the affinity when the pinned thread creates them, as do the processes it starts.
+     */
+    public void pinLoadGenerator() throws IOException, InterruptedException {
+        if (loadGeneratorCpus == null || pinnedThread != null) {
+            return;
+        }
+        // e.g. 1234/task/1240
+        pinnedThread = Files.readSymbolicLink(Path.of("/proc/thread-self")).getFileName().toString();
+        pinnedThreadCpus = readCpusAllowedList(Path.of("/proc/thread-self/status"));
+        taskset(loadGeneratorCpus, pinnedThread);
+        logger.info("Load generator pinned to CPUs " + loadGeneratorCpus);
+    }
+
+    /**
+     * Restores the affinity of the pinned thread and returns the slot, even if the affinity can't be restored.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pinnedThread != null) {
+                taskset(pinnedThreadCpus, pinnedThread);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while restoring the CPU affinity of " + pinnedThread, e);
+        } finally {
+            pinnedThread = null;
+            pinnedThreadCpus = null;
+            SLOTS.add(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "slot " + index + " (port " + port + ", app CPUs " + appCpus + ", load generator CPUs " + loadGeneratorCpus + ")";
+    }
+
+    private static BlockingQueue<Slot> createSlots() {
+        if (PARALLEL_APPS < 1) {
+            throw new IllegalArgumentException("parallelApps must be positive, was: " + PARALLEL_APPS);
+        }
+        if (PARALLEL_APPS > 1 && Commands.isThisWindows) {
+            throw new IllegalArgumentException("Apps can run in parallel only on Linux, their CPUs are isolated by taskset");
+        }
+        if (PARALLEL_APPS > 1 && APP_CPUS <= 0) {
+            logger.warn("Apps run in parallel without being pinned to CPUs, set cpuAffinity to isolate them");
+        }
+        List<Integer> cpus = allowedCpus();
+        int cpusPerSlot = Math.max(APP_CPUS, 0) + Math.max(LOAD_GENERATOR_CPUS, 0);
+        if (cpusPerSlot * PARALLEL_APPS > cpus.size()) {
+            throw new IllegalArgumentException(PARALLEL_APPS + " parallel apps need " + cpusPerSlot * PARALLEL_APPS
+                    + " CPUs (cpuAffinity + loadGeneratorCpus each), only " + cpus.size() + " available: " + cpus);
+        }
+        BlockingQueue<Slot> slots = new LinkedBlockingQueue<>();
+        for (int i = 0; i < PARALLEL_APPS; i++) {
+            int first = i * cpusPerSlot;
+            slots.add(new Slot(i, BASE_PORT + i,
+                    APP_CPUS > 0 ? toCpuList(cpus.subList(first, first + APP_CPUS)) : null,
+                    LOAD_GENERATOR_CPUS > 0 ? toCpuList(cpus.subList(first + Math.max(APP_CPUS, 0), first + cpusPerSlot)) : null));
+        }
+        return slots;
+    }
+
+    private static List<Integer> allowedCpus() {
+        Path status = Path.of("/proc/self/status");
+        if (Files.exists(status)) {
+            try {
+                return parseCpuList(readCpusAllowedList(status));
+            } catch (IOException e) {
+                logger.warn("Unable to read the allowed CPUs, assuming all of them: " + e.getMessage());
+            }
+        }
+        return IntStream.range(0, Runtime.getRuntime().availableProcessors()).boxed().collect(Collectors.toList());
+    }
+
+    private static String readCpusAllowedList(Path status) throws IOException {
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("Cpus_allowed_list:"))
+                .map(line -> line.substring("Cpus_allowed_list:".length()).trim())
+                .findFirst()
+                .orElseThrow(() -> new IOException("No Cpus_allowed_list in " + status));
+    }
+
+    /**
+     * @param cpuList e.g. 0-3,8,10-11
+     */
+    static List<Integer> parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<>();
+        for (String range : cpuList.split(",")) {
+            String[] bounds = range.trim().split("-");
+            int from = Integer.parseInt(bounds[0]);
+            int to = bounds.length > 1 ? Integer.parseInt(bounds[1]) : from;
+            for (int cpu = from; cpu <= to; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        Collections.sort(cpus);
+        return cpus;
+    }
+
+    /**
+     * @return CPU list formatted as taskset prints it, ranges of more than two CPUs are shortened, e.g. 0-3,8,10,11
+     */
+    static String toCpuList(List<Integer> cpus) {
+        StringBuilder cpuList = new StringBuilder();
+        int i = 0;
+        while (i < cpus.size()) {
+            int j = i;
+            while (j + 1 < cpus.size() && cpus.get(j + 1) == cpus.get(j) + 1) {
+                j++;
+            }
+            if (cpuList.length() > 0) {
+                cpuList.append(',');
+            }
+            if (j - i >= 2) {
+                cpuList.append(cpus.get(i)).append('-').append(cpus.get(j));
+            } else {
+                cpuList.append(cpus.get(i));
+                if (j > i) {
+                    cpuList.append(',').append(cpus.get(j));
+                }
+            }
+            i = j + 1;
+        }
+        return cpuList.toString();
+    }
+
+    private static void taskset(String cpuList, String pid) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder("taskset", "-pc", cpuList, pid).redirectErrorStream(true).start();
+        String output = new String(p.getInputStream().readAllBytes());
+        if (p.waitFor() != 0) {
+            throw new IOException("Unable to set the CPU affinity of " + pid + " to " + cpuList + ": " + output);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Milestones of a start of the app, in ns since the spawn: JVM initialized, framework started, port open, first OK
+ * response and all the URLs of the app OK.
+ * <p>
+ * The JVM is initialized when "Create VM" of -Xlog:startuptime ends, relative to the JVM start, which follows the spawn
+ * closely. The framework start is only estimated: the "started in" time reported by Quarkus and Spring Boot is measured
+ * from their bootstrap, which isn't logged, so the milestone is placed that long after the JVM initialization, or after
+ * the spawn for native executables. The time between the JVM initialization and the bootstrap, e.g. class loading of
+ * the main class, is missing from it, which is why the table marks it as estimated.
+ */
+public class StartupTimeline {
+
+    public static final String JVM_INITIALIZED = "JVM initialized";
+    public static final String FRAMEWORK_STARTED = "Framework started";
+    public static final String PORT_OPEN = "Port open";
+    public static final String FIRST_OK_REQUEST = "First OK request";
+    public static final String ALL_URLS_OK = "All URLs OK";
+
+    private static final int WATERFALL_WIDTH = 40;
+    // [54339502ns][startuptime] Create VM, 0.0535660 secs
+    private static final Pattern CREATE_VM = Pattern.compile("^\\[(\\d+)ns\\].* Create VM, ");
+
+    private final Map<String, Long> milestones = new LinkedHashMap<>();
+    private final Set<String> estimated = new HashSet<>();
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * @param startedInMs "started in" time parsed from the run log
+     */
+    public static StartupTimeline of(RunInfo runInfo, long startedInMs) throws IOException {
+        StartupTimeline timeline = new StartupTimeline();
+        long jvmInitializedNs = runInfo.getStartupLog() != null ? parseJvmInitializedNs(runInfo.getStartupLog()) : -1L;
+        if (jvmInitializedNs >= 0) {
+            timeline.milestones.put(JVM_INITIALIZED, jvmInitializedNs);
+        }
+        timeline.milestones.put(FRAMEWORK_STARTED, Math.max(jvmInitializedNs, 0) + TimeUnit.MILLISECONDS.toNanos(startedInMs));
+        timeline.estimated.add(FRAMEWORK_STARTED);
+        timeline.milestones.put(PORT_OPEN, TimeUnit.MICROSECONDS.toNanos(runInfo.getTimeToPortOpenUs()));
+        timeline.milestones.put(FIRST_OK_REQUEST, TimeUnit.MICROSECONDS.toNanos(runInfo.getTimeToFirstOKRequestUs()));
+        timeline.milestones.put(ALL_URLS_OK, TimeUnit.MICROSECONDS.toNanos(runInfo.getTimeToAllURLsOKUs()));
+        return timeline;
+    }
+
+    /**
+     * @return uptime at the end of the JVM creation, -1 if not logged
+     */
+    static long parseJvmInitializedNs(File startupLog) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(startupLog.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher m = CREATE_VM.matcher(line);
+                if (m.find()) {
+                    return Long.parseLong(m.group(1));
+                }
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * @return microseconds since the spawn, -1 if the milestone is not known, e.g. JVM initialized for native executables
+     */
+    public long getMilestoneUs(String milestone) {
+        Long ns = milestones.get(milestone);
+        return ns == null ? -1L : TimeUnit.NANOSECONDS.toMicros(ns);
+    }
+
+    /**
+     * @return microseconds from the first milestone to the second one, -1 if either is not known
+     */
+    public long getPhaseUs(String from, String to) {
+        if (!milestones.containsKey(from) || !milestones.containsKey(to)) {
+            return -1L;
+        }
+        return TimeUnit.NANOSECONDS.toMicros(milestones.get(to) - milestones.get(from));
+    }
+
+    /**
+     * @return table of the phases between the milestones in the order they were reached, with a text waterfall;
+     *         estimated milestones are marked as such
+     */
+    public String toMarkdown() {
+        List<Map.Entry<String, Long>> ordered = new ArrayList<>(milestones.entrySet());
+        ordered.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        long endNs = ordered.get(ordered.size() - 1).getValue();
+        StringBuilder markdown = new StringBuilder("| Phase | Start ms | Duration ms | Waterfall |\n| --- | --- | --- | --- |\n");
+        String previous = "Spawn";
+        long previousNs = 0;
+        for (Map.Entry<String, Long> milestone : ordered) {
+            int start = endNs > 0 ? (int) (WATERFALL_WIDTH * previousNs / endNs) : 0;
+            int end = endNs > 0 ? (int) (WATERFALL_WIDTH * milestone.getValue() / endNs) : 0;
+            String name = estimated.contains(milestone.getKey()) ? milestone.getKey() + " (estimated)" : milestone.getKey();
+            markdown.append("| ").append(previous).append(" -> ").append(name)
+                    .append(" | ").append(String.format("%.3f", previousNs / 1_000_000.0))
+                    .append(" | ").append(String.format("%.3f", (milestone.getValue() - previousNs) / 1_000_000.0))
+                    .append(" | `").append(" ".repeat(start)).append("#".repeat(Math.max(end - start, 1)))
+                    .append(" ".repeat(Math.max(WATERFALL_WIDTH - Math.max(end, start + 1), 0))).append("` |\n");
+            previous = name;
+            previousNs = milestone.getValue();
+        }
+        return markdown.toString();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * CPU time, context switches and run queue wait of all threads of a process tree, read from /proc/&lt;pid&gt;/task.
+ * <p>
+ * The counters are cumulative since each thread started, {@link #since(ThreadUsage)} turns two snapshots into the
+ * usage in between. Threads which exited in between are not accounted. Thread names are the first 15 characters
+ * of the Java thread name; threads are grouped into pools by replacing the numbers in their names.
+ */
+public class ThreadUsage {
+
+    private static final Path PROC = Path.of("/proc");
+
+    private final long timeNs;
+    private final Map<Long, Task> tasks;
+
+    private ThreadUsage(long timeNs, Map<Long, Task> tasks) {
+        this.timeNs = timeNs;
+        this.tasks = tasks;
+    }
+
+    public static class Task {
+        private final String name;
+        private final long cpuTimeNs;
+        private final long voluntaryContextSwitches;
+        private final long nonvoluntaryContextSwitches;
+        private final long runQueueWaitNs;
+
+        Task(String name, long cpuTimeNs, long voluntaryContextSwitches, long nonvoluntaryContextSwitches, long runQueueWaitNs) {
+            this.name = name;
+            this.cpuTimeNs = cpuTimeNs;
+            this.voluntaryContextSwitches = voluntaryContextSwitches;
+            this.nonvoluntaryContextSwitches = nonvoluntaryContextSwitches;
+            this.runQueueWaitNs = runQueueWaitNs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return name with numbers replaced by '#', e.g. executor-thread-#
+         */
+        public String getPool() {
+            return name.replaceAll("[0-9]+", "#");
+        }
+
+        public long getCpuTimeNs() {
+            return cpuTimeNs;
+        }
+
+        /**
+         * @return switches because the thread blocked, e.g. on I/O or a lock
+         */
+        public long getVoluntaryContextSwitches() {
+            return voluntaryContextSwitches;
+        }
+
+        /**
+         * @return switches because the thread was preempted, i.e. there were more runnable threads than CPUs
+         */
+        public long getNonvoluntaryContextSwitches() {
+            return nonvoluntaryContextSwitches;
+        }
+
+        /**
+         * @return time spent runnable waiting for a CPU, -1 if the kernel doesn't provide schedstat
+         */
+        public long getRunQueueWaitNs() {
+            return runQueueWaitNs;
+        }
+
+        private Task minus(Task before) {
+            return new Task(name, cpuTimeNs - before.cpuTimeNs, voluntaryContextSwitches - before.voluntaryContextSwitches,
+                    nonvoluntaryContextSwitches - before.nonvoluntaryContextSwitches,
+                    runQueueWaitNs < 0 || before.runQueueWaitNs < 0 ? -1L : runQueueWaitNs - before.runQueueWaitNs);
+        }
+
+        private Task plus(Task other) {
+            return new Task(getPool(), cpuTimeNs + other.cpuTimeNs, voluntaryContextSwitches + other.voluntaryContextSwitches,
+                    nonvoluntaryContextSwitches + other.nonvoluntaryContextSwitches,
+                    runQueueWaitNs < 0 || other.runQueueWaitNs < 0 ? -1L : runQueueWaitNs + other.runQueueWaitNs);
+        }
+    }
+
+    /**
+     * Processes and threads which exit while being read are left out.
+     */
+    static ThreadUsage read(long timeNs, List<Long> processIds, long nanosPerClockTick) throws IOException {
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        for (long processId : processIds) {
+            List<Path> taskDirs;
+            try (Stream<Path> taskStream = Files.list(PROC.resolve(processId + "/task"))) {
+                taskDirs = taskStream.collect(Collectors.toList());
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            for (Path taskDir : taskDirs) {
+                try {
+                    tasks.put(Long.parseLong(taskDir.getFileName().toString()), readTask(taskDir, nanosPerClockTick));
+                } catch (NoSuchFileException e) {
+                    // Exited in the meantime
+                }
+            }
+        }
+        return new ThreadUsage(timeNs, tasks);
+    }
+
+    private static Task readTask(Path taskDir, long nanosPerClockTick) throws IOException {
+        String name = Files.readString(taskDir.resolve("comm")).trim();
+        String stat = Files.readString(taskDir.resolve("stat"));
+        // Fields 14 and 15 of stat following the command name: utime and stime
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+        long cpuTimeNs = (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) * nanosPerClockTick;
+        long voluntary = 0;
+        long nonvoluntary = 0;
+        for (String line : Files.readAllLines(taskDir.resolve("status"))) {
+            if (line.startsWith("voluntary_ctxt_switches:")) {
+                voluntary = Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+            } else if (line.startsWith("nonvoluntary_ctxt_switches:")) {
+                nonvoluntary = Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        long runQueueWaitNs = -1L;
+        Path schedstat = taskDir.resolve("schedstat");
+        if (Files.exists(schedstat)) {
+            // time on CPU, time waiting on a run queue (both ns) and number of time slices
+            runQueueWaitNs = Long.parseLong(Files.readString(schedstat).trim().split(" ")[1]);
+        }
+        return new Task(name, cpuTimeNs, voluntary, nonvoluntary, runQueueWaitNs);
+    }
+
+    /**
+     * @return usage between the earlier snapshot and this one; threads started in between count from zero
+     */
+    public ThreadUsage since(ThreadUsage before) {
+        Map<Long, Task> delta = new LinkedHashMap<>();
+        tasks.forEach((tid, task) -> delta.put(tid, before.tasks.containsKey(tid) ? task.minus(before.tasks.get(tid)) : task));
+        return new ThreadUsage(timeNs - before.timeNs, delta);
+    }
+
+    /**
+     * @return time the snapshot was taken at, or the time between the snapshots for {@link #since(ThreadUsage)}
+     */
+    public long getTimeNs() {
+        return timeNs;
+    }
+
+    public int getThreads() {
+        return tasks.size();
+    }
+
+    public Collection<Task> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * @return usage summed per thread pool, ordered by CPU time descending
+     */
+    public List<Task> getPools() {
+        Map<String, Task> pools = new LinkedHashMap<>();
+        for (Task task : tasks.values()) {
+            pools.merge(task.getPool(), new Task(task.getPool(), task.cpuTimeNs, task.voluntaryContextSwitches,
+                    task.nonvoluntaryContextSwitches, task.runQueueWaitNs), Task::plus);
+        }
+        return pools.values().stream()
+                .sorted((a, b) -> Long.compare(b.cpuTimeNs, a.cpuTimeNs))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes {@link #getPools()} as CSV.
+     */
+    public void writePools(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("pool,threads,cpuTimeMs,voluntaryCtxSwitches,nonvoluntaryCtxSwitches,runQueueWaitMs\n");
+            Map<String, Long> threads = tasks.values().stream().collect(Collectors.groupingBy(Task::getPool, Collectors.counting()));
+            for (Task pool : getPools()) {
+                writer.write(pool.getName() + "," + threads.get(pool.getName()) + "," + TimeUnit.NANOSECONDS.toMillis(pool.getCpuTimeNs()) + ","
+                        + pool.getVoluntaryContextSwitches() + "," + pool.getNonvoluntaryContextSwitches() + ","
+                        + (pool.getRunQueueWaitNs() < 0 ? -1L : TimeUnit.NANOSECONDS.toMillis(pool.getRunQueueWaitNs())) + "\n");
+            }
+        }
+    }
+
+    public long getCpuTimeNs() {
+        return tasks.values().stream().mapToLong(Task::getCpuTimeNs).sum();
+    }
+
+    public long getVoluntaryContextSwitches() {
+        return tasks.values().stream().mapToLong(Task::getVoluntaryContextSwitches).sum();
+    }
+
+    public long getNonvoluntaryContextSwitches() {
+        return tasks.values().stream().mapToLong(Task::getNonvoluntaryContextSwitches).sum();
+    }
+
+    /**
+     * @return -1 if the kernel doesn't provide schedstat
+     */
+    public long getRunQueueWaitNs() {
+        if (tasks.values().stream().anyMatch(task -> task.runQueueWaitNs < 0)) {
+            return -1L;
+        }
+        return tasks.values().stream().mapToLong(Task::getRunQueueWaitNs).sum();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.List;
+
+/**
+ * Least squares line fitted through a time series, used to detect slow leaks.
+ */
+public class TrendLine {
+
+    private final double slope;
+    private final double intercept;
+
+    private TrendLine(double slope, double intercept) {
+        this.slope = slope;
+        this.intercept = intercept;
+    }
+
+    /**
+     * @param xs e.g. seconds since the start of the measurements
+     * @param ys values sampled at these points, same size as xs
+     */
+    public static TrendLine fit(List<Double> xs, List<Double> ys) {
+        if (xs.size() != ys.size()) {
+            throw new IllegalArgumentException("Sizes of xs and ys differ: " + xs.size() + " != " + ys.size());
+        }
+        if (xs.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points are needed to fit a line, was: " + xs.size());
+        }
+        int n = xs.size();
+        double meanX = xs.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        double meanY = ys.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        double covariance = 0.0;
+        double varianceX = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dx = xs.get(i) - meanX;
+            covariance += dx * (ys.get(i) - meanY);
+            varianceX += dx * dx;
+        }
+        double slope = varianceX == 0.0 ? 0.0 : covariance / varianceX;
+        return new TrendLine(slope, meanY - slope * meanX);
+    }
+
+    /**
+     * @return change of y per unit of x
+     */
+    public double getSlope() {
+        return slope;
+    }
+
+    public double getIntercept() {
+        return intercept;
+    }
+}
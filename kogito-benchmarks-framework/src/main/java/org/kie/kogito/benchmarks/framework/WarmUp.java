@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the app up until it reaches a steady state.
+ * <p>
+ * Requests are sent in windows of a fixed size. The app is considered warm once both the throughput and the median latency
+ * of the last few windows vary less than the given coefficient of variation (standard deviation / mean). The number of requests
+ * is capped, as some apps never settle completely. The warm up is stopped as soon as all requests of a window fail, as there
+ * is nothing to warm up then.
+ */
+public class WarmUp {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+
+    private final int windowRequests;
+    private final int windows;
+    private final double maxCoefficientOfVariation;
+    private final int maxRequests;
+
+    public WarmUp(int windowRequests, int windows, double maxCoefficientOfVariation, int maxRequests) {
+        if (windowRequests <= 0) {
+            throw new IllegalArgumentException("windowRequests must be a positive int, was: " + windowRequests);
+        }
+        if (windows < 2) {
+            throw new IllegalArgumentException("windows must be at least 2, was: " + windows);
+        }
+        if (maxCoefficientOfVariation <= 0) {
+            throw new IllegalArgumentException("maxCoefficientOfVariation must be a positive double, was: " + maxCoefficientOfVariation);
+        }
+        this.windowRequests = windowRequests;
+        this.windows = windows;
+        this.maxCoefficientOfVariation = maxCoefficientOfVariation;
+        this.maxRequests = maxRequests;
+    }
+
+    /**
+     * @param requestsPerSecond constant arrival rate; zero or negative for the closed model
+     */
+    public Result run(LoadGenerator loadGenerator, HTTPRequestInfo requestInfo, int requestsPerSecond) throws IOException, InterruptedException {
+        return run(loadGenerator, Workload.of(requestInfo), requestsPerSecond);
+    }
+
+    /**
+     * Warms up all requests of the workload together, so that the JIT sees the same mix as in the measurements.
+     *
+     * @param requestsPerSecond constant arrival rate; zero or negative for the closed model
+     */
+    public Result run(LoadGenerator loadGenerator, Workload workload, int requestsPerSecond) throws IOException, InterruptedException {
+        return run(count -> loadGenerator.run(workload, count, requestsPerSecond));
+    }
+
+    /**
+     * Warms up the process instance lifecycle, the window size is counted in process instances.
+     *
+     * @param instancesPerSecond constant arrival rate of new instances; zero or negative for the closed model
+     */
+    public Result run(LoadGenerator loadGenerator, ProcessLifecycle lifecycle, int instancesPerSecond) throws IOException, InterruptedException {
+        return run(count -> loadGenerator.run(lifecycle, count, instancesPerSecond));
+    }
+
+    private Result run(Window window) throws IOException, InterruptedException {
+        Deque<Double> throughputs = new ArrayDeque<>(windows + 1);
+        Deque<Double> medians = new ArrayDeque<>(windows + 1);
+        long requests = 0;
+        long durationNs = 0;
+        long errors = 0;
+        long firstResponseTimeNs = -1L;
+        boolean steady = false;
+        while (requests < maxRequests) {
+            LoadResult result = window.run(windowRequests);
+            if (firstResponseTimeNs == -1L) {
+                firstResponseTimeNs = result.getFirstResponseTimeNs();
+            }
+            requests += result.getRequests();
+            durationNs += result.getDurationNs();
+            errors += result.getErrors();
+            // Every request, or every process instance of a lifecycle, failed
+            if (result.getErrors() >= windowRequests) {
+                logger.warn("Warm up stopped after " + requests + " requests, all " + windowRequests + " requests of the last window failed");
+                return new Result(requests, durationNs, firstResponseTimeNs, errors, false);
+            }
+
+            throughputs.addLast(result.getThroughput());
+            medians.addLast((double) result.getLatencies().getValueAtPercentile(50.0));
+            if (throughputs.size() > windows) {
+                throughputs.removeFirst();
+                medians.removeFirst();
+            }
+            if (throughputs.size() == windows) {
+                double throughputCv = coefficientOfVariation(throughputs);
+                double medianCv = coefficientOfVariation(medians);
+                logger.debug("Warm up after " + requests + " requests: throughput CV " + throughputCv + ", median latency CV " + medianCv);
+                if (throughputCv <= maxCoefficientOfVariation && medianCv <= maxCoefficientOfVariation) {
+                    steady = true;
+                    break;
+                }
+            }
+        }
+        if (steady) {
+            logger.info("Steady state reached after " + requests + " warm up requests");
+        } else {
+            logger.warn("Steady state not reached within " + maxRequests + " warm up requests");
+        }
+        return new Result(requests, durationNs, firstResponseTimeNs, errors, steady);
+    }
+
+    private static double coefficientOfVariation(Deque<Double> values) {
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        if (mean == 0.0) {
+            return Double.MAX_VALUE;
+        }
+        double variance = values.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum() / (values.size() - 1);
+        return Math.sqrt(variance) / mean;
+    }
+
+    @FunctionalInterface
+    private interface Window {
+        LoadResult run(int count) throws IOException, InterruptedException;
+    }
+
+    public static class Result {
+        private final long requests;
+        private final long durationNs;
+        private final long firstResponseTimeNs;
+        private final long errors;
+        private final boolean steady;
+
+        public Result(long requests, long durationNs, long firstResponseTimeNs, long errors, boolean steady) {
+            this.requests = requests;
+            this.durationNs = durationNs;
+            this.firstResponseTimeNs = firstResponseTimeNs;
+            this.errors = errors;
+            this.steady = steady;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getDurationNs() {
+            return durationNs;
+        }
+
+        public long getFirstResponseTimeNs() {
+            return firstResponseTimeNs;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return false if the warm up was stopped by the cap on the number of requests
+         */
+        public boolean isSteady() {
+            return steady;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Weighted mix of requests sent interleaved in a single {@link LoadGenerator} run.
+ * <p>
+ * The requests are interleaved deterministically (smooth weighted round-robin), e.g. weights 80/15/5 repeat a cycle of 20
+ * requests where the heavy request is spread evenly instead of being sent in bursts. Every request has a name
+ * the results are reported under.
+ * <p>
+ * An entry of the mix can also be a {@link ProcessLifecycle}, which then counts as a single request of the mix but sends
+ * all its steps one after another, e.g. to query or delete the very instance it created. This keeps the number of live
+ * instances bounded by the concurrency, unlike a mix that only creates them. Its steps are reported as "entry/step".
+ */
+public class Workload {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<ProcessLifecycle> lifecycles = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();
+    // Names the steps of all the entries are reported under, in the order of the entries
+    private final List<String> stepNames = new ArrayList<>();
+    private int[] schedule;
+
+    private Workload() {
+    }
+
+    /**
+     * Workload of a single request, named after its URI.
+     */
+    public static Workload of(HTTPRequestInfo requestInfo) {
+        return builder().request(requestInfo.getURI(), requestInfo, 1).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return entries of the mix, a plain request is a lifecycle of a single step without captures
+     */
+    public List<ProcessLifecycle> getLifecycles() {
+        return Collections.unmodifiableList(lifecycles);
+    }
+
+    public List<String> getStepNames() {
+        return Collections.unmodifiableList(stepNames);
+    }
+
+    public int size() {
+        return lifecycles.size();
+    }
+
+    /**
+     * @return index of the request to be sent as the given request of a run
+     */
+    public int requestIndex(int sequence) {
+        return schedule[sequence % schedule.length];
+    }
+
+    /**
+     * @return workload with the same names and weights, but with the requests of all entries replaced by the function
+     */
+    public Workload map(UnaryOperator<HTTPRequestInfo> function) {
+        Workload workload = new Workload();
+        workload.names.addAll(names);
+        lifecycles.forEach(lifecycle -> workload.lifecycles.add(lifecycle.map(function)));
+        workload.weights.addAll(weights);
+        workload.stepNames.addAll(stepNames);
+        workload.schedule = schedule;
+        return workload;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(names.get(i));
+            // A plain request is reported under the name of its entry, a lifecycle under the names of its steps
+            if (!stepNames.contains(names.get(i))) {
+                sb.append(" [").append(lifecycles.get(i)).append(']');
+            }
+            sb.append(" (weight ").append(weights.get(i)).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static int[] schedule(List<Integer> weights) {
+        int divisor = weights.stream().reduce(0, Workload::greatestCommonDivisor);
+        int total = weights.stream().mapToInt(weight -> weight / divisor).sum();
+        int[] schedule = new int[total];
+        int[] current = new int[weights.size()];
+        for (int s = 0; s < total; s++) {
+            int selected = 0;
+            for (int i = 0; i < weights.size(); i++) {
+                current[i] += weights.get(i) / divisor;
+                if (current[i] > current[selected]) {
+                    selected = i;
+                }
+            }
+            current[selected] -= total;
+            schedule[s] = selected;
+        }
+        return schedule;
+    }
+
+    private static int greatestCommonDivisor(int a, int b) {
+        return b == 0 ? a : greatestCommonDivisor(b, a % b);
+    }
+
+    public static final class Builder {
+        private final Workload instance = new Workload();
+
+        private Builder() {
+        }
+
+        public Builder request(String name, HTTPRequestInfo requestInfo, int weight) {
+            add(name, ProcessLifecycle.of(name, requestInfo), weight);
+            instance.stepNames.add(name);
+            return this;
+        }
+
+        /**
+         * Lifecycle of a process instance sent as a single request of the mix, its steps are reported as "name/step".
+         */
+        public Builder lifecycle(String name, ProcessLifecycle lifecycle, int weight) {
+            add(name, lifecycle, weight);
+            lifecycle.getNames().forEach(step -> instance.stepNames.add(name + "/" + step));
+            return this;
+        }
+
+        private void add(String name, ProcessLifecycle lifecycle, int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight must be a positive int, was: " + weight);
+            }
+            if (instance.names.contains(name)) {
+                throw new IllegalArgumentException("Request named " + name + " is already part of the workload");
+            }
+            instance.names.add(name);
+            instance.lifecycles.add(lifecycle);
+            instance.weights.add(weight);
+        }
+
+        public Workload build() {
+            if (instance.lifecycles.isEmpty()) {
+                throw new IllegalStateException("Workload must contain at least one request");
+            }
+            instance.schedule = schedule(instance.weights);
+            return instance;
+        }
+    }
+}
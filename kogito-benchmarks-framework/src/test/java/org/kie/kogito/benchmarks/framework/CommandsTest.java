@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommandsTest {
+
+    @TempDir
+    Path target;
+
+    @Test
+    public void springAotInitializersOfBoot3Jar() throws Exception {
+        Path jar = jar("BOOT-INF/classes/org/kie/kogito/benchmarks/SmartHouseApplication.class",
+                "BOOT-INF/classes/org/kie/kogito/benchmarks/SmartHouseApplication__BeanFactoryRegistrations.class",
+                "BOOT-INF/classes/org/kie/kogito/benchmarks/SmartHouseApplication__ApplicationContextInitializer.class");
+
+        assertThat(Commands.hasSpringAotInitializers(jar)).isTrue();
+    }
+
+    @Test
+    public void noSpringAotInitializersInPlainJar() throws Exception {
+        // What a Spring Boot 2 build ignoring the native profile produces
+        Path jar = jar("BOOT-INF/classes/org/kie/kogito/benchmarks/SmartHouseApplication.class",
+                "BOOT-INF/lib/spring-core-5.3.4.jar");
+
+        assertThat(Commands.hasSpringAotInitializers(jar)).isFalse();
+        assertThat(Commands.hasSpringAotInitializers(target.resolve("missing.jar"))).isFalse();
+    }
+
+    private Path jar(String... entries) throws IOException {
+        Path jar = target.resolve("runner.jar");
+        try (OutputStream out = Files.newOutputStream(jar);
+                JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (String entry : entries) {
+                jarOut.putNextEntry(new JarEntry(entry));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
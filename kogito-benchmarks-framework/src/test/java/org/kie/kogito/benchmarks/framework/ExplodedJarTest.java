@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExplodedJarTest {
+
+    private static final String START_CLASS = "org.kie.kogito.benchmarks.SmartHouseApplication";
+
+    @TempDir
+    Path appDir;
+
+    @Test
+    public void classPathFollowsTheClasspathIndex() throws Exception {
+        Map<String, String> entries = bootInf();
+        // Spring Boot writes the index in the order of the dependencies, which is not the alphabetical one
+        entries.put("BOOT-INF/classpath.idx", "- \"BOOT-INF/lib/spring-core-5.3.4.jar\"\n" +
+                "- \"BOOT-INF/lib/kogito-api-1.5.0.jar\"\n" +
+                "- \"BOOT-INF/lib/jackson-databind-2.12.1.jar\"\n");
+        Path jar = jar(START_CLASS, entries);
+
+        ExplodedJar.explode(appDir, jar);
+
+        assertThat(appDir.resolve("target/exploded/BOOT-INF/classes/application.properties")).hasContent("server.port=8080");
+        assertThat(appDir.resolve("target/exploded/BOOT-INF/lib/kogito-api-1.5.0.jar")).exists();
+        assertThat(appDir.resolve(ExplodedJar.ARG_FILE)).hasContent(argFile("target/exploded/BOOT-INF/classes",
+                "target/exploded/BOOT-INF/lib/spring-core-5.3.4.jar",
+                "target/exploded/BOOT-INF/lib/kogito-api-1.5.0.jar",
+                "target/exploded/BOOT-INF/lib/jackson-databind-2.12.1.jar"));
+    }
+
+    @Test
+    public void libsAreSortedWithoutClasspathIndex() throws Exception {
+        Path jar = jar(START_CLASS, bootInf());
+
+        ExplodedJar.explode(appDir, jar);
+
+        assertThat(appDir.resolve(ExplodedJar.ARG_FILE)).hasContent(argFile("target/exploded/BOOT-INF/classes",
+                "target/exploded/BOOT-INF/lib/jackson-databind-2.12.1.jar",
+                "target/exploded/BOOT-INF/lib/kogito-api-1.5.0.jar",
+                "target/exploded/BOOT-INF/lib/spring-core-5.3.4.jar"));
+    }
+
+    @Test
+    public void previousExtractionIsCleaned() throws Exception {
+        ExplodedJar.explode(appDir, jar(START_CLASS, bootInf()));
+        Map<String, String> entries = bootInf();
+        entries.remove("BOOT-INF/lib/spring-core-5.3.4.jar");
+
+        ExplodedJar.explode(appDir, jar(START_CLASS, entries));
+
+        assertThat(appDir.resolve("target/exploded/BOOT-INF/lib/spring-core-5.3.4.jar")).doesNotExist();
+        assertThat(appDir.resolve(ExplodedJar.ARG_FILE)).hasContent(argFile("target/exploded/BOOT-INF/classes",
+                "target/exploded/BOOT-INF/lib/jackson-databind-2.12.1.jar",
+                "target/exploded/BOOT-INF/lib/kogito-api-1.5.0.jar"));
+    }
+
+    @Test
+    public void jarWithoutStartClassIsRejected() throws Exception {
+        Path jar = jar(null, bootInf());
+
+        assertThatThrownBy(() -> ExplodedJar.explode(appDir, jar))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Start-Class");
+    }
+
+    @Test
+    public void entryOutsideOfTheDirectoryIsRejected() throws Exception {
+        Map<String, String> entries = bootInf();
+        entries.put("../../../evil.sh", "rm -rf /");
+        Path jar = jar(START_CLASS, entries);
+
+        assertThatThrownBy(() -> ExplodedJar.explode(appDir, jar))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("../../../evil.sh");
+        assertThat(appDir.resolve("evil.sh")).doesNotExist();
+        assertThat(appDir.getParent().resolve("evil.sh")).doesNotExist();
+    }
+
+    private static Map<String, String> bootInf() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("BOOT-INF/classes/application.properties", "server.port=8080");
+        entries.put("BOOT-INF/classes/org/kie/kogito/benchmarks/SmartHouseApplication.class", "not really a class");
+        entries.put("BOOT-INF/lib/spring-core-5.3.4.jar", "not really a jar");
+        entries.put("BOOT-INF/lib/kogito-api-1.5.0.jar", "not really a jar");
+        entries.put("BOOT-INF/lib/jackson-databind-2.12.1.jar", "not really a jar");
+        return entries;
+    }
+
+    /**
+     * @return fat jar in the layout of the Spring Boot Maven plugin, in a directory next to the app
+     */
+    private Path jar(String startClass, Map<String, String> entries) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "org.springframework.boot.loader.JarLauncher");
+        if (startClass != null) {
+            manifest.getMainAttributes().putValue("Start-Class", startClass);
+        }
+        Path jar = Files.createTempFile(appDir, "app", ".jar");
+        try (OutputStream out = Files.newOutputStream(jar);
+                JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                jarOut.putNextEntry(new JarEntry(entry.getKey()));
+                jarOut.write(entry.getValue().getBytes(UTF_8));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static String argFile(String... classPath) {
+        return "-cp \"" + String.join(File.pathSeparator, classPath) + "\"\n" + START_CLASS;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The logs were written by JDK 17 with {@link GcLog#xlogOption(String)}, -Xmx64m and the respective collector.
+ */
+public class GcLogTest {
+
+    private static final long MB = 1024L * 1024L;
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void g1WholeRun() throws Exception {
+        GcLog gcLog = GcLog.parse(log("gc/g1.log"), 0L, Long.MAX_VALUE);
+
+        // 6M-1M, 23M-1M, 36M-3M, 36M-5M and 40M-7M, nothing is known about the allocation before the first pause
+        assertThat(gcLog.getAllocatedBytes()).isEqualTo(124 * MB);
+        // Old regions 0->3 and 3->5 of 1M
+        assertThat(gcLog.getPromotedBytes()).isEqualTo(5 * MB);
+        assertThat(gcLog.getPauses().getTotalCount()).isEqualTo(6);
+        assertThat(gcLog.getPauses().getMaxValue()).isBetween(4643 * MS / 1000 - 1, 4643 * MS / 1000);
+    }
+
+    @Test
+    public void g1Window() throws Exception {
+        // GC(3) and GC(4) ended at 1792286559146ms and 1792286559159ms
+        GcLog gcLog = GcLog.parse(log("gc/g1.log"), 1792286559141L, 1792286559161L);
+
+        // The occupancy after GC(2), which is out of the window, is still the base of GC(3)
+        assertThat(gcLog.getAllocatedBytes()).isEqualTo((36 - 3 + 36 - 5) * MB);
+        assertThat(gcLog.getPromotedBytes()).isEqualTo(3 * MB);
+        assertThat(gcLog.getPauses().getTotalCount()).isEqualTo(2);
+        assertThat(gcLog.getAllocationRateMBps()).isCloseTo(64 / 0.020, within(1e-9));
+        assertThat(gcLog.getPromotionRateMBps()).isCloseTo(3 / 0.020, within(1e-9));
+    }
+
+    @Test
+    public void parallelWholeRun() throws Exception {
+        GcLog gcLog = GcLog.parse(log("gc/parallel.log"), 0L, Long.MAX_VALUE);
+
+        // Five times 16M (e.g. 17M-1M) and five times 11M (e.g. 18M-7M)
+        assertThat(gcLog.getAllocatedBytes()).isEqualTo(135 * MB);
+        // ParOldGen grew from 0K to 19682K in the young pauses
+        assertThat(gcLog.getPromotedBytes()).isEqualTo(19682 * 1024L);
+        assertThat(gcLog.getPauses().getTotalCount()).isEqualTo(11);
+        assertThat(gcLog.getPauses().getMaxValue()).isBetween(8458 * MS / 1000 - 1, 8458 * MS / 1000);
+    }
+
+    @Test
+    public void parallelWindow() throws Exception {
+        // GC(8) to GC(10) ended at 1792286559359ms, 1792286559362ms and 1792286559371ms
+        GcLog gcLog = GcLog.parse(log("gc/parallel.log"), 1792286559355L, 1792286559411L);
+
+        assertThat(gcLog.getAllocatedBytes()).isEqualTo((20 - 9 + 21 - 10 + 24 - 13) * MB);
+        assertThat(gcLog.getPromotedBytes()).isEqualTo((19682 - 5788) * 1024L);
+        assertThat(gcLog.getPauses().getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void windowWithoutPauses() throws Exception {
+        GcLog gcLog = GcLog.parse(log("gc/parallel.log"), 1792286559372L, 1792286559411L);
+
+        assertThat(gcLog.getAllocatedBytes()).isZero();
+        assertThat(gcLog.getPromotedBytes()).isZero();
+        assertThat(gcLog.getPauses().getTotalCount()).isZero();
+        assertThat(gcLog.getAllocationRateMBps()).isZero();
+    }
+
+    @Test
+    public void xlogOption() {
+        assertThat(GcLog.xlogOption("/tmp/gc.log")).isEqualTo("-Xlog:gc*:file=/tmp/gc.log:timemillis,uptime,level,tags:filecount=0");
+    }
+
+    private Path log(String name) throws Exception {
+        return Paths.get(getClass().getClassLoader().getResource(name).toURI());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+    private static final long US = TimeUnit.MICROSECONDS.toNanos(1);
+
+    @Test
+    public void percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.recordValue(value * US);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(10_000);
+        // 3 significant digits, the reported value is the highest equivalent one
+        assertThat(histogram.getValueAtPercentile(50.0)).isBetween(5_000 * US, (long) (5_000 * US * 1.001));
+        assertThat(histogram.getValueAtPercentile(90.0)).isBetween(9_000 * US, (long) (9_000 * US * 1.001));
+        assertThat(histogram.getValueAtPercentile(99.0)).isBetween(9_900 * US, (long) (9_900 * US * 1.001));
+        assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(10_000 * US);
+        assertThat(histogram.getMinValue()).isEqualTo(US);
+        assertThat(histogram.getMaxValue()).isEqualTo(10_000 * US);
+        assertThat(histogram.getMean()).isCloseTo(5_000.5 * US, within(0.001));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 1000; value++) {
+            histogram.recordValue(value);
+        }
+
+        assertThat(histogram.getValueAtPercentile(0.0)).isEqualTo(0);
+        assertThat(histogram.getValueAtPercentile(50.0)).isEqualTo(499);
+        assertThat(histogram.getValueAtPercentile(99.9)).isEqualTo(998);
+    }
+
+    @Test
+    public void valuesAboveHighestTrackableValueKeepExactMaxAndMean() {
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.SECONDS.toNanos(1), 3);
+        histogram.recordValue(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.recordValue(TimeUnit.SECONDS.toNanos(5));
+
+        assertThat(histogram.getTotalCount()).isEqualTo(2);
+        assertThat(histogram.getMaxValue()).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+        assertThat(histogram.getMean()).isEqualTo((TimeUnit.MILLISECONDS.toNanos(1) + TimeUnit.SECONDS.toNanos(5)) / 2.0);
+        assertThat(histogram.getValueAtPercentile(100.0)).isBetween(TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void addMergesCountsAndExtremes() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            first.recordValue(value * US);
+            second.recordValue((value + 100) * US);
+        }
+
+        first.add(second);
+
+        assertThat(first.getTotalCount()).isEqualTo(200);
+        assertThat(first.getMinValue()).isEqualTo(US);
+        assertThat(first.getMaxValue()).isEqualTo(200 * US);
+        assertThat(first.getMean()).isCloseTo(100.5 * US, within(0.001));
+        assertThat(first.getValueAtPercentile(50.0)).isBetween(100 * US, (long) (100 * US * 1.001));
+    }
+
+    @Test
+    public void addRejectsDifferentParameters() {
+        assertThatThrownBy(() -> new LatencyHistogram().add(new LatencyHistogram(TimeUnit.SECONDS.toNanos(1), 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void emptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(99.0)).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getMinValue()).isZero();
+
+        histogram.recordValue(42 * US);
+        histogram.reset();
+
+        assertThat(histogram.getTotalCount()).isZero();
+        assertThat(histogram.getMaxValue()).isZero();
+        assertThat(histogram.getValueAtPercentile(50.0)).isZero();
+    }
+
+    @Test
+    public void negativeValueIsRejected() {
+        assertThatThrownBy(() -> new LatencyHistogram().recordValue(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LoadGeneratorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final HTTPRequestInfo SCORE = HTTPRequestInfo.builder()
+            .URI("http://localhost:8080/RegressionModel")
+            .method("POST")
+            .body(HTTPRequestInfo.Body.PMML_REGRESSION)
+            .expectedResponseStatusCode(200)
+            .build();
+    private static final HTTPRequestInfo LIST = HTTPRequestInfo.builder()
+            .URI("http://localhost:8080/smartHouse")
+            .method("GET")
+            .expectedResponseStatusCode(200)
+            .build();
+    private static final HTTPRequestInfo CREATE = HTTPRequestInfo.builder()
+            .URI("http://localhost:8080/smartHouse")
+            .method("POST")
+            .body(HTTPRequestInfo.Body.SMARTHOUSE_BPMN_DMN)
+            .expectedResponseStatusCode(201)
+            .build();
+    private static final HTTPRequestInfo DELETE = HTTPRequestInfo.builder()
+            .URI("http://localhost:8080/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER)
+            .method("DELETE")
+            .expectedResponseStatusCode(200)
+            .build();
+
+    @Test
+    public void failedRequestsAreCountedAsErrors() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        // Every 4th request gets an unexpected status, every 10th fails on the connection
+        LoadClient client = new StubLoadClient(requestInfo -> {
+            int i = sent.incrementAndGet();
+            if (i % 10 == 0) {
+                throw new IOException("Connection reset");
+            }
+            return i % 4 == 0 ? 500 : 200;
+        });
+
+        LoadResult result = new LoadGenerator(client, 4).run(SCORE, 100);
+
+        assertThat(result.getRequests()).isEqualTo(100);
+        // 25 multiples of 4 and 10 of 10, 5 of them both
+        assertThat(result.getErrors()).isEqualTo(30);
+        assertThat(result.getLatencies().getTotalCount()).isEqualTo(70);
+        assertThat(result.getErrorRate()).isCloseTo(0.3, within(1e-12));
+        assertThat(result.getThroughput()).isEqualTo(70 / (result.getDurationNs() / 1e9));
+    }
+
+    @Test
+    public void openModelKeepsTheArrivalRate() throws Exception {
+        LoadClient client = new StubLoadClient(requestInfo -> 200);
+
+        // 20 requests at 200 requests per second are scheduled 5 ms apart
+        LoadResult result = new LoadGenerator(client, 2).run(SCORE, 20, 200);
+
+        assertThat(result.getDurationNs()).isGreaterThanOrEqualTo(19 * 5 * MS);
+        assertThat(result.getThroughput()).isLessThanOrEqualTo(20 / 0.095);
+        assertThat(result.getErrors()).isZero();
+    }
+
+    @Test
+    public void openModelMeasuresFromTheIntendedStart() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        // The app stalls for 50 ms on the first request, while the next ones are due every 10 ms
+        LoadClient client = new StubLoadClient(requestInfo -> {
+            if (sent.getAndIncrement() == 0) {
+                sleep(50);
+            }
+            return 200;
+        });
+
+        LoadResult result = new LoadGenerator(client, 1).run(SCORE, 10, 100);
+
+        // The requests queued behind the stall carry their waiting time, 40, 30, 20 and 10 ms at least
+        assertThat(result.getLatencies().getValueAtPercentile(100.0)).isGreaterThanOrEqualTo(50 * MS);
+        assertThat(result.getLatencies().getValueAtPercentile(60.0)).isGreaterThanOrEqualTo(10 * MS);
+        assertThat(result.getFirstResponseTimeNs()).isGreaterThanOrEqualTo(50 * MS);
+    }
+
+    @Test
+    public void workloadResultsPerRequest() throws Exception {
+        LoadClient client = new StubLoadClient(requestInfo -> requestInfo == LIST ? 404 : 200);
+        Workload workload = Workload.builder()
+                .request("score", SCORE, 3)
+                .request("list", LIST, 1)
+                .build();
+
+        LoadResult result = new LoadGenerator(client, 3).run(workload, 40, 0);
+
+        Map<String, LoadResult> requestResults = result.getRequestResults();
+        assertThat(requestResults).containsOnlyKeys("score", "list");
+        assertThat(requestResults.get("score").getLatencies().getTotalCount()).isEqualTo(30);
+        assertThat(requestResults.get("score").getErrors()).isZero();
+        assertThat(requestResults.get("list").getErrors()).isEqualTo(10);
+        assertThat(requestResults.get("list").getErrorRate()).isEqualTo(1.0);
+        assertThat(result.getErrors()).isEqualTo(10);
+        assertThat(result.getErrorRate()).isCloseTo(0.25, within(1e-12));
+    }
+
+    @Test
+    public void workloadLifecyclesKeepLiveInstancesBounded() throws Exception {
+        AtomicInteger live = new AtomicInteger();
+        AtomicInteger maxLive = new AtomicInteger();
+        LoadClient client = new StubLoadClient(requestInfo -> {
+            if (requestInfo == CREATE) {
+                maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+                return 201;
+            }
+            if (requestInfo == DELETE) {
+                live.decrementAndGet();
+            }
+            return 200;
+        });
+        ProcessLifecycle lifecycle = ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .step("delete", DELETE)
+                .build();
+        Workload workload = Workload.builder()
+                .request("score", SCORE, 4)
+                .lifecycle("smartHouse", lifecycle, 1)
+                .build();
+
+        LoadResult result = new LoadGenerator(client, 3).run(workload, 50, 0);
+
+        Map<String, LoadResult> requestResults = result.getRequestResults();
+        assertThat(requestResults).containsOnlyKeys("score", "smartHouse/create", "smartHouse/delete");
+        assertThat(requestResults.get("score").getLatencies().getTotalCount()).isEqualTo(40);
+        assertThat(requestResults.get("smartHouse/create").getLatencies().getTotalCount()).isEqualTo(10);
+        assertThat(requestResults.get("smartHouse/delete").getLatencies().getTotalCount()).isEqualTo(10);
+        assertThat(result.getErrors()).isZero();
+        // Every instance is deleted by the worker which created it before it takes the next request
+        assertThat(live.get()).isZero();
+        assertThat(maxLive.get()).isLessThanOrEqualTo(3);
+    }
+
+    private static void sleep(long ms) throws IOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        int respond(HTTPRequestInfo requestInfo) throws IOException;
+    }
+
+    /**
+     * Answers without any network, so that only the bookkeeping of the load generator is measured.
+     */
+    private static class StubLoadClient implements LoadClient {
+        private final Responder responder;
+
+        StubLoadClient(Responder responder) {
+            this.responder = responder;
+        }
+
+        @Override
+        public PreparedRequest prepare(HTTPRequestInfo requestInfo) {
+            return new PreparedRequest() {
+                @Override
+                public int send() throws IOException {
+                    return responder.respond(requestInfo);
+                }
+
+                @Override
+                public int send(Map<String, String> values, ByteArrayOutputStream responseBody) throws IOException {
+                    if (responseBody != null) {
+                        responseBody.reset();
+                        responseBody.write("{\"id\": \"1\"}".getBytes(UTF_8));
+                    }
+                    return responder.respond(requestInfo);
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
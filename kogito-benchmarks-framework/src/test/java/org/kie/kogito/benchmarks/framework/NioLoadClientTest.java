@@ -0,0 +1,359 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NioLoadClientTest {
+
+    private static final String BODY = "{\"id\":\"4d2d7e6c-8e5a-4b1d-9d0a-3c1e2f8b7a60\",\"temperature\":21}";
+
+    private static final String CONTENT_LENGTH = "HTTP/1.1 200 OK\r\n" +
+            "content-type: application/json\r\n" +
+            "content-length: " + BODY.length() + "\r\n" +
+            "\r\n" +
+            BODY;
+
+    // Chunk extension, lower case hex size and a trailer, as allowed by RFC 7230
+    private static final String CHUNKED = "HTTP/1.1 201 Created\r\n" +
+            "Content-Type: application/json\r\n" +
+            "Transfer-Encoding: chunked\r\n" +
+            "\r\n" +
+            "1e;name=value\r\n" +
+            BODY.substring(0, 30) + "\r\n" +
+            Integer.toHexString(BODY.length() - 30) + "\r\n" +
+            BODY.substring(30) + "\r\n" +
+            "0\r\n" +
+            "Expires: Wed, 21 Oct 2015 07:28:00 GMT\r\n" +
+            "\r\n";
+
+    private static final String NO_CONTENT = "HTTP/1.1 204 No Content\r\n" +
+            "Date: Mon, 01 Mar 2021 10:00:00 GMT\r\n" +
+            "\r\n";
+
+    // Neither length nor chunked, the body ends with the connection
+    private static final String HTTP_1_0 = "HTTP/1.0 200 OK\r\n" +
+            "Content-Type: application/json\r\n" +
+            "\r\n" +
+            BODY;
+
+    private static final String CONNECTION_CLOSE = "HTTP/1.1 500 Internal Server Error\r\n" +
+            "Connection: close\r\n" +
+            "Content-Length: 5\r\n" +
+            "\r\n" +
+            "error";
+
+    // Interim responses ahead of the final one, all in a single reply
+    private static final String INTERIM = "HTTP/1.1 100 Continue\r\n" +
+            "\r\n" +
+            "HTTP/1.1 103 Early Hints\r\n" +
+            "Link: </style.css>; rel=preload\r\n" +
+            "\r\n" +
+            CONTENT_LENGTH;
+
+    // Length of the body a GET would get, but there is none
+    private static final String HEAD = "HTTP/1.1 200 OK\r\n" +
+            "Content-Type: application/json\r\n" +
+            "Content-Length: 42\r\n" +
+            "\r\n";
+
+    private FixtureServer server;
+    private NioLoadClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new FixtureServer();
+        client = new NioLoadClient();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void contentLengthResponseKeepsConnection() throws Exception {
+        server.reply(CONTENT_LENGTH, false, false);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void chunkedResponseWithExtensionAndTrailer() throws Exception {
+        server.reply(CHUNKED, false, false);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(201);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        // The trailer has been consumed, the next response on the same connection is read from its start
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        assertThat(server.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void responseSplitIntoSingleBytes() throws Exception {
+        server.reply(CHUNKED, true, false);
+        server.reply(CONTENT_LENGTH, true, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(201);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    public void noContentHasNoBody() throws Exception {
+        server.reply(NO_CONTENT, false, false);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(204);
+        assertThat(body.size()).isZero();
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void interimResponsesAreSkipped() throws Exception {
+        server.reply(INTERIM, true, false);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void headResponseHasNoBody() throws Exception {
+        server.reply(HEAD, false, false);
+        server.reply(HEAD, false, false);
+        LoadClient.PreparedRequest request = client.prepare(HTTPRequestInfo.builder()
+                .URI(server.uri())
+                .method("HEAD")
+                .build());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.size()).isZero();
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void bodyDelimitedByEndOfConnection() throws Exception {
+        server.reply(HTTP_1_0, false, true);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(200);
+        assertThat(body.toString(UTF_8)).isEqualTo(BODY);
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void connectionCloseOpensNewConnection() throws Exception {
+        server.reply(CONNECTION_CLOSE, false, true);
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        assertThat(request.send(null, body)).isEqualTo(500);
+        assertThat(body.toString(UTF_8)).isEqualTo("error");
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void safeRequestIsRetriedOnClosedPersistentConnection() throws Exception {
+        server.reply(CONTENT_LENGTH, false, false);
+        server.closeWithoutReply();
+        server.reply(CONTENT_LENGTH, false, false);
+        LoadClient.PreparedRequest request = client.prepare(get());
+
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(request.send()).isEqualTo(200);
+        assertThat(server.requests.get()).isEqualTo(3);
+        assertThat(server.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void unsafeRequestIsNotRetried() throws Exception {
+        server.reply(CONTENT_LENGTH, false, false);
+        server.closeWithoutReply();
+        LoadClient.PreparedRequest request = client.prepare(HTTPRequestInfo.builder()
+                .URI(server.uri())
+                .method("POST")
+                .body(BODY)
+                .header("Content-Type", "application/json")
+                .build());
+
+        assertThat(request.send()).isEqualTo(200);
+        assertThatThrownBy(request::send).isInstanceOf(IOException.class);
+        assertThat(server.requests.get()).isEqualTo(2);
+        assertThat(server.requestBodies).containsOnly(BODY);
+    }
+
+    private HTTPRequestInfo get() {
+        return HTTPRequestInfo.builder()
+                .URI(server.uri())
+                .method("GET")
+                .build();
+    }
+
+    /**
+     * Answers the requests of all connections, one at a time, with the queued fixture responses.
+     */
+    private static class FixtureServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        private final BlockingQueue<Reply> replies = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> requestBodies = new LinkedBlockingQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Thread thread = new Thread(this::serve, "fixture-server");
+
+        FixtureServer() throws IOException {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        String uri() {
+            return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/smartHouse";
+        }
+
+        /**
+         * @param byteByByte whether every byte is flushed on its own, so that the client sees the smallest possible reads
+         * @param close whether the connection is closed after the response
+         */
+        void reply(String response, boolean byteByByte, boolean close) {
+            replies.add(new Reply(response.getBytes(ISO_8859_1), byteByByte, close));
+        }
+
+        /**
+         * The next request is read and the connection is closed without a response, like an idle connection timing out.
+         */
+        void closeWithoutReply() {
+            replies.add(new Reply(null, false, true));
+        }
+
+        private void serve() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    InputStream in = socket.getInputStream();
+                    OutputStream out = socket.getOutputStream();
+                    while (readRequest(in)) {
+                        requests.incrementAndGet();
+                        Reply reply = replies.poll(10, TimeUnit.SECONDS);
+                        if (reply == null || reply.response == null) {
+                            break;
+                        }
+                        if (reply.byteByByte) {
+                            for (byte b : reply.response) {
+                                out.write(b);
+                                out.flush();
+                            }
+                        } else {
+                            out.write(reply.response);
+                            out.flush();
+                        }
+                        if (reply.close) {
+                            break;
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // Closed
+                }
+            }
+        }
+
+        /**
+         * @return false if the client closed the connection before sending another request
+         */
+        private boolean readRequest(InputStream in) throws IOException {
+            StringBuilder head = new StringBuilder();
+            while (head.length() < 4 || !head.substring(head.length() - 4).equals("\r\n\r\n")) {
+                int b = in.read();
+                if (b < 0) {
+                    return false;
+                }
+                head.append((char) b);
+            }
+            for (String line : head.toString().split("\r\n")) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                    byte[] body = in.readNBytes(Integer.parseInt(line.substring(line.indexOf(':') + 1).trim()));
+                    requestBodies.add(new String(body, UTF_8));
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    private static class Reply {
+        private final byte[] response;
+        private final boolean byteByByte;
+        private final boolean close;
+
+        Reply(byte[] response, boolean byteByByte, boolean close) {
+            this.response = response;
+            this.byteByByte = byteByByte;
+            this.close = close;
+        }
+    }
+}
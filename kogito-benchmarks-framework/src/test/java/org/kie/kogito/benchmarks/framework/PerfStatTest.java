@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * The fixtures are in the format of perf stat -x , with the events of {@link PerfStat#EVENTS}.
+ */
+public class PerfStatTest {
+
+    @Test
+    public void userSpaceCounters() throws Exception {
+        Map<String, Double> counters = PerfStat.parse(lines("perf/perf-stat.csv"));
+
+        assertThat(counters).containsExactly(
+                entry("task-clock", 10012.61),
+                entry("cycles", 27845123456.0),
+                entry("instructions", 31234567890.0));
+    }
+
+    @Test
+    public void hybridCoreTypesAreSummed() throws Exception {
+        Map<String, Double> counters = PerfStat.parse(lines("perf/perf-stat-hybrid.csv"));
+
+        assertThat(counters).containsExactly(
+                entry("task-clock", 10012.61),
+                entry("cycles", 4123456789.0 + 21345678901.0),
+                entry("instructions", 3012345678.0 + 26987654321.0));
+    }
+
+    @Test
+    public void eventsWithoutHardwareCountersAreLeftOut() throws Exception {
+        Map<String, Double> counters = PerfStat.parse(lines("perf/perf-stat-vm.csv"));
+
+        assertThat(counters).containsExactly(entry("task-clock", 10012.61));
+    }
+
+    private List<String> lines(String name) throws Exception {
+        return Files.readAllLines(Paths.get(getClass().getClassLoader().getResource(name).toURI()), StandardCharsets.UTF_8);
+    }
+}
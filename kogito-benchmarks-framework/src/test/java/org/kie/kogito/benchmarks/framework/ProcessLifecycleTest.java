@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProcessLifecycleTest {
+
+    private static final HTTPRequestInfo CREATE = request("POST", "http://localhost:8080/smartHouse");
+    private static final HTTPRequestInfo TASKS = request("GET", "http://localhost:8080/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER + "/tasks");
+    private static final HTTPRequestInfo COMPLETE = request("POST", "http://localhost:8080/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER + "/"
+            + HTTPRequestInfo.placeholder("taskName") + "/" + HTTPRequestInfo.placeholder("workItemId"));
+
+    @Test
+    public void idIsCapturedFromTopLevelObject() {
+        ProcessLifecycle lifecycle = ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .build();
+        Map<String, String> values = new HashMap<>();
+
+        // The variables of the instance come first and contain an id of their own
+        String failure = lifecycle.capture(0, "{\"house\": {\"id\": \"house-1\", \"rooms\": [{\"id\": \"room-1\"}]},"
+                + " \"note\": \"\\\"id\\\": \\\"quoted\\\"\", \"id\" : \"instance-1\"}", values);
+
+        assertThat(failure).isNull();
+        assertThat(values).containsEntry("id", "instance-1");
+    }
+
+    @Test
+    public void fieldsAreCapturedFromFirstArrayElement() {
+        ProcessLifecycle lifecycle = ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .step("tasks", TASKS)
+                .capture("workItemId", "id")
+                .capture("taskName", "name")
+                .step("complete", COMPLETE)
+                .build();
+        Map<String, String> values = new HashMap<>();
+
+        String failure = lifecycle.capture(1, "[ {\"parameters\": {\"id\": \"param\", \"name\": \"param\"}, \"id\": \"wi-1\", \"name\": \"approve\"},"
+                + " {\"id\": \"wi-2\", \"name\": \"review\"} ]", values);
+
+        assertThat(failure).isNull();
+        assertThat(values).containsEntry("workItemId", "wi-1").containsEntry("taskName", "approve");
+    }
+
+    @Test
+    public void missingTopLevelFieldFails() {
+        ProcessLifecycle lifecycle = ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .build();
+
+        assertThat(lifecycle.capture(0, "{\"house\": {\"id\": \"house-1\"}}", new HashMap<>())).startsWith("No id in response");
+        assertThat(lifecycle.capture(0, "[]", new HashMap<>())).startsWith("No id in response");
+        assertThat(lifecycle.capture(0, "[{\"name\": \"a\"}, {\"id\": \"b\"}]", new HashMap<>())).startsWith("No id in response");
+        assertThat(ProcessLifecycle.topLevelField("{\"id\": 42}", "id")).isNull();
+        assertThat(ProcessLifecycle.topLevelField("{\"id\": \"unclosed", "id")).isNull();
+    }
+
+    @Test
+    public void placeholdersMustBeCapturedByEarlierSteps() {
+        assertThatThrownBy(() -> ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .step("complete", COMPLETE)
+                .build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ProcessLifecycle.builder().create("tasks", TASKS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProcessLifecycle.builder().step("tasks", TASKS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static HTTPRequestInfo request(String method, String uri) {
+        return HTTPRequestInfo.builder()
+                .URI(uri)
+                .method(method)
+                .expectedResponseStatusCode(200)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadinessProbeTest {
+
+    private static final long STARTING_NS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    public void attemptsBackOffWhileTheAppStarts() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            long spawnNs = System.nanoTime();
+            Thread server = new Thread(() -> serve(serverSocket, spawnNs, requests), "starting-app");
+            server.setDaemon(true);
+            server.start();
+
+            ReadinessProbe.Result result = ReadinessProbe.await(spawnNs, "http://127.0.0.1:" + serverSocket.getLocalPort() + "/hello", 10,
+                    "Hello from a started app");
+
+            assertThat(result.getTimeToPortOpenNs()).isLessThan(STARTING_NS);
+            assertThat(result.getTimeToFirstOKRequestNs()).isBetween(STARTING_NS, STARTING_NS + TimeUnit.MILLISECONDS.toNanos(100));
+            // About one attempt per MAX_RETRY_INTERVAL_NS while the app is starting, not one per MIN_RETRY_INTERVAL_NS
+            assertThat(requests.get()).isLessThanOrEqualTo((int) (STARTING_NS / ReadinessProbe.MAX_RETRY_INTERVAL_NS) + 10);
+        }
+    }
+
+    /**
+     * Answers 503 until the app has started, then the page, all on one persistent connection.
+     */
+    private static void serve(ServerSocket serverSocket, long spawnNs, AtomicInteger requests) {
+        try (Socket socket = serverSocket.accept()) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            while (readRequest(in)) {
+                requests.incrementAndGet();
+                boolean started = System.nanoTime() - spawnNs >= STARTING_NS;
+                String body = started ? "Hello from a started app" : "Starting";
+                String status = started ? "200 OK" : "503 Service Unavailable";
+                out.write(("HTTP/1.1 " + status + "\r\nContent-Length: " + body.length() + "\r\n\r\n" + body).getBytes(ISO_8859_1));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Closed by the probe
+        }
+    }
+
+    private static boolean readRequest(InputStream in) throws IOException {
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                return false;
+            }
+            matched = (b == "\r\n\r\n".charAt(matched)) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class SampleStatisticsTest {
+
+    @Test
+    public void tQuantilesOfTheTable() {
+        assertThat(SampleStatistics.t95(1)).isEqualTo(12.706);
+        assertThat(SampleStatistics.t95(4)).isEqualTo(2.776);
+        assertThat(SampleStatistics.t95(30)).isEqualTo(2.042);
+    }
+
+    @Test
+    public void tQuantilesBeyondTheTable() {
+        // Quantiles of published tables
+        assertThat(SampleStatistics.t95(31)).isCloseTo(2.040, within(0.001));
+        assertThat(SampleStatistics.t95(40)).isCloseTo(2.021, within(0.001));
+        assertThat(SampleStatistics.t95(60)).isCloseTo(2.000, within(0.001));
+        assertThat(SampleStatistics.t95(120)).isCloseTo(1.980, within(0.001));
+        assertThat(SampleStatistics.t95(100_000)).isCloseTo(1.960, within(0.001));
+    }
+
+    @Test
+    public void startupTimesWithAnOutlier() {
+        SampleStatistics statistics = SampleStatistics.of(List.of(1020L, 1200L, 1010L, 1040L, 1030L));
+
+        assertThat(statistics.getSize()).isEqualTo(5);
+        assertThat(statistics.getMean()).isEqualTo(1060.0);
+        assertThat(statistics.getMedian()).isEqualTo(1030.0);
+        // Absolute deviations 0, 10, 10, 20 and 170
+        assertThat(statistics.getMad()).isEqualTo(10.0);
+        // Standard deviation sqrt(25000 / 4), standard error sqrt(6250 / 5), times t(4)
+        double halfWidth = 2.776 * Math.sqrt(1250.0);
+        assertThat(statistics.getCiLow()).isCloseTo(1060.0 - halfWidth, within(1e-9));
+        assertThat(statistics.getCiHigh()).isCloseTo(1060.0 + halfWidth, within(1e-9));
+        assertThat(statistics.getRelativeCiWidth()).isCloseTo(2 * halfWidth / 1060.0, within(1e-12));
+    }
+
+    @Test
+    public void medianOfAnEvenSize() {
+        SampleStatistics statistics = SampleStatistics.of(List.of(3.0, 1.0, 2.0, 4.0));
+
+        assertThat(statistics.getMedian()).isEqualTo(2.5);
+        assertThat(statistics.getMad()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void identicalValuesHaveNoSpread() {
+        SampleStatistics statistics = SampleStatistics.of(List.of(250, 250, 250));
+
+        assertThat(statistics.getMad()).isZero();
+        assertThat(statistics.getCiLow()).isEqualTo(250.0);
+        assertThat(statistics.getCiHigh()).isEqualTo(250.0);
+        assertThat(statistics.getRelativeCiWidth()).isZero();
+    }
+
+    @Test
+    public void relativeWidthAroundZeroMean() {
+        assertThat(SampleStatistics.of(List.of(-1.0, 1.0)).getRelativeCiWidth()).isEqualTo(Double.POSITIVE_INFINITY);
+        assertThat(SampleStatistics.of(List.of(0.0, 0.0)).getRelativeCiWidth()).isZero();
+    }
+
+    @Test
+    public void singleValueIsRejected() {
+        assertThatThrownBy(() -> SampleStatistics.of(List.of(1000L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.benchmarks.framework.StartupTimeline.ALL_URLS_OK;
+import static org.kie.kogito.benchmarks.framework.StartupTimeline.FIRST_OK_REQUEST;
+import static org.kie.kogito.benchmarks.framework.StartupTimeline.FRAMEWORK_STARTED;
+import static org.kie.kogito.benchmarks.framework.StartupTimeline.JVM_INITIALIZED;
+import static org.kie.kogito.benchmarks.framework.StartupTimeline.PORT_OPEN;
+
+/**
+ * The startup log was written by JDK 17 with the -Xlog:startuptime option of {@link Commands}.
+ */
+public class StartupTimelineTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @TempDir
+    Path logs;
+
+    @Test
+    public void jvmInitializedAtTheEndOfCreateVM() throws Exception {
+        assertThat(StartupTimeline.parseJvmInitializedNs(startupLog().toFile())).isEqualTo(64_805_405L);
+    }
+
+    @Test
+    public void jvmInitializedUnknownWithoutCreateVM() throws Exception {
+        Path truncated = logs.resolve("truncated-startup.log");
+        Files.write(truncated, Files.readAllLines(startupLog()).subList(0, 5));
+
+        assertThat(StartupTimeline.parseJvmInitializedNs(truncated.toFile())).isEqualTo(-1L);
+    }
+
+    @Test
+    public void jvmMilestonesAndPhases() throws Exception {
+        Files.copy(startupLog(), logs.resolve("smarthouse-startup.log"));
+        StartupTimeline timeline = StartupTimeline.of(runInfo(930 * MS, 1000 * MS, 1100 * MS), 850);
+
+        assertThat(timeline.getMilestoneUs(JVM_INITIALIZED)).isEqualTo(64_805L);
+        // "started in" is measured from the bootstrap of the framework, which follows the JVM initialization
+        assertThat(timeline.getMilestoneUs(FRAMEWORK_STARTED)).isEqualTo(914_805L);
+        assertThat(timeline.getMilestoneUs(PORT_OPEN)).isEqualTo(930_000L);
+        assertThat(timeline.getMilestoneUs(FIRST_OK_REQUEST)).isEqualTo(1_000_000L);
+        assertThat(timeline.getMilestoneUs(ALL_URLS_OK)).isEqualTo(1_100_000L);
+        assertThat(timeline.getPhaseUs(JVM_INITIALIZED, FRAMEWORK_STARTED)).isEqualTo(850_000L);
+        assertThat(timeline.getPhaseUs(PORT_OPEN, FIRST_OK_REQUEST)).isEqualTo(70_000L);
+
+        assertThat(timeline.toMarkdown()).isEqualTo("| Phase | Start ms | Duration ms | Waterfall |\n| --- | --- | --- | --- |\n" +
+                "| Spawn -> JVM initialized | " + ms(0.0) + " | " + ms(64.805) + " | " + waterfall(0, 2) + " |\n" +
+                "| JVM initialized -> Framework started (estimated) | " + ms(64.805) + " | " + ms(850.0) + " | " + waterfall(2, 31) + " |\n" +
+                "| Framework started (estimated) -> Port open | " + ms(914.805) + " | " + ms(15.195) + " | " + waterfall(33, 1) + " |\n" +
+                "| Port open -> First OK request | " + ms(930.0) + " | " + ms(70.0) + " | " + waterfall(33, 3) + " |\n" +
+                "| First OK request -> All URLs OK | " + ms(1000.0) + " | " + ms(100.0) + " | " + waterfall(36, 4) + " |\n");
+    }
+
+    @Test
+    public void nativeExecutableHasNoJvmMilestone() throws Exception {
+        StartupTimeline timeline = StartupTimeline.of(runInfo(20 * MS, 25 * MS, 30 * MS), 15);
+
+        assertThat(timeline.getMilestoneUs(JVM_INITIALIZED)).isEqualTo(-1L);
+        assertThat(timeline.getPhaseUs(JVM_INITIALIZED, FRAMEWORK_STARTED)).isEqualTo(-1L);
+        // Measured from the spawn instead
+        assertThat(timeline.getMilestoneUs(FRAMEWORK_STARTED)).isEqualTo(15_000L);
+        assertThat(timeline.getPhaseUs(FRAMEWORK_STARTED, ALL_URLS_OK)).isEqualTo(15_000L);
+        assertThat(timeline.toMarkdown()).startsWith("| Phase | Start ms | Duration ms | Waterfall |\n| --- | --- | --- | --- |\n" +
+                "| Spawn -> Framework started (estimated) | " + ms(0.0) + " | " + ms(15.0) + " | " + waterfall(0, 20) + " |\n");
+    }
+
+    private RunInfo runInfo(long portOpenNs, long firstOKRequestNs, long allURLsOKNs) {
+        File runLog = logs.resolve("smarthouse-run.log").toFile();
+        return new RunInfo(null, runLog, 8080, new ReadinessProbe.Result(portOpenNs, firstOKRequestNs), allURLsOKNs, -1L, null, null, null);
+    }
+
+    private Path startupLog() throws Exception {
+        return Paths.get(getClass().getClassLoader().getResource("startup/jvm-startup.log").toURI());
+    }
+
+    private static String ms(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private static String waterfall(int start, int length) {
+        return "`" + " ".repeat(start) + "#".repeat(length) + " ".repeat(40 - start - length) + "`";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class TrendLineTest {
+
+    @Test
+    public void linearSeriesIsFittedExactly() {
+        // RSS in kB growing by 2048 kB per hour from 300 MB
+        TrendLine trendLine = TrendLine.fit(List.of(0.0, 0.5, 1.0, 1.5, 2.0),
+                List.of(307_200.0, 308_224.0, 309_248.0, 310_272.0, 311_296.0));
+
+        assertThat(trendLine.getSlope()).isCloseTo(2048.0, within(1e-9));
+        assertThat(trendLine.getIntercept()).isCloseTo(307_200.0, within(1e-6));
+    }
+
+    @Test
+    public void noisySeriesIsFittedByLeastSquares() {
+        // Hand-computed: mean x 2, mean y 3.4, covariance sum 8, variance sum 10
+        TrendLine trendLine = TrendLine.fit(List.of(0.0, 1.0, 2.0, 3.0, 4.0), List.of(2.0, 2.0, 4.0, 4.0, 5.0));
+
+        assertThat(trendLine.getSlope()).isCloseTo(0.8, within(1e-12));
+        assertThat(trendLine.getIntercept()).isCloseTo(1.8, within(1e-12));
+    }
+
+    @Test
+    public void flatSeriesHasNoSlope() {
+        TrendLine trendLine = TrendLine.fit(List.of(0.0, 1.0, 2.0), List.of(42.0, 42.0, 42.0));
+
+        assertThat(trendLine.getSlope()).isZero();
+        assertThat(trendLine.getIntercept()).isEqualTo(42.0);
+    }
+
+    @Test
+    public void samplesAtTheSameTimeHaveNoSlope() {
+        TrendLine trendLine = TrendLine.fit(List.of(1.0, 1.0), List.of(10.0, 20.0));
+
+        assertThat(trendLine.getSlope()).isZero();
+        assertThat(trendLine.getIntercept()).isEqualTo(15.0);
+    }
+
+    @Test
+    public void invalidSeriesAreRejected() {
+        assertThatThrownBy(() -> TrendLine.fit(List.of(0.0, 1.0), List.of(1.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TrendLine.fit(List.of(0.0), List.of(1.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
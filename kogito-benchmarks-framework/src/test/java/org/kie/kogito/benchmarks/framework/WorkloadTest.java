@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WorkloadTest {
+
+    private static final HTTPRequestInfo CREATE = request("POST", "http://localhost:8080/smartHouse");
+    private static final HTTPRequestInfo LIST = request("GET", "http://localhost:8080/smartHouse");
+    private static final HTTPRequestInfo DELETE = request("DELETE", "http://localhost:8080/smartHouse/1");
+    private static final HTTPRequestInfo GET = request("GET", "http://localhost:8080/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER);
+
+    @Test
+    public void smoothWeightedRoundRobin() {
+        Workload workload = Workload.builder()
+                .request("a", CREATE, 5)
+                .request("b", LIST, 1)
+                .request("c", DELETE, 1)
+                .build();
+
+        // The well-known sequence of the smooth weighted round-robin, the heavy request is not sent in bursts
+        assertThat(schedule(workload, 14)).containsExactly(0, 0, 1, 0, 2, 0, 0, 0, 0, 1, 0, 2, 0, 0);
+    }
+
+    @Test
+    public void cycleContainsEachRequestByItsWeight() {
+        Workload workload = Workload.builder()
+                .request("create", CREATE, 80)
+                .request("list", LIST, 15)
+                .request("delete", DELETE, 5)
+                .build();
+
+        List<Integer> cycle = schedule(workload, 20);
+        assertThat(cycle).filteredOn(index -> index == 0).hasSize(16);
+        assertThat(cycle).filteredOn(index -> index == 1).hasSize(3);
+        assertThat(cycle).filteredOn(index -> index == 2).hasSize(1);
+        // Weights reduced by their greatest common divisor, the cycle repeats after 20 requests
+        assertThat(schedule(workload, 40).subList(20, 40)).isEqualTo(cycle);
+        for (int i = 1; i < cycle.size(); i++) {
+            if (cycle.get(i) != 0) {
+                assertThat(cycle.get(i - 1)).as("light requests are spread").isEqualTo(0);
+            }
+        }
+    }
+
+    @Test
+    public void singleRequestIsNamedAfterItsURI() {
+        Workload workload = Workload.of(LIST);
+
+        assertThat(workload.getNames()).containsExactly("http://localhost:8080/smartHouse");
+        assertThat(workload.size()).isEqualTo(1);
+        assertThat(schedule(workload, 3)).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    public void mapKeepsNamesAndWeights() {
+        Workload workload = Workload.builder()
+                .request("create", CREATE, 3)
+                .request("list", LIST, 1)
+                .build();
+
+        Workload mapped = workload.map(requestInfo -> requestInfo.toBuilder().URI(requestInfo.getURI() + "?limit=10").build());
+
+        assertThat(mapped.getNames()).containsExactly("create", "list");
+        assertThat(mapped.getLifecycles()).flatExtracting(ProcessLifecycle::getRequestInfos).extracting(HTTPRequestInfo::getURI)
+                .containsOnly("http://localhost:8080/smartHouse?limit=10");
+        assertThat(schedule(mapped, 8)).isEqualTo(schedule(workload, 8));
+        assertThat(mapped.toString()).isEqualTo("create (weight 3), list (weight 1)");
+    }
+
+    @Test
+    public void lifecycleStepsAreNamedAfterTheirEntry() {
+        ProcessLifecycle lifecycle = ProcessLifecycle.builder()
+                .create("create", CREATE)
+                .step("get", GET)
+                .step("delete", DELETE)
+                .build();
+        Workload workload = Workload.builder()
+                .request("list", LIST, 4)
+                .lifecycle("instance", lifecycle, 1)
+                .build();
+
+        assertThat(workload.getNames()).containsExactly("list", "instance");
+        assertThat(workload.getStepNames()).containsExactly("list", "instance/create", "instance/get", "instance/delete");
+        // The lifecycle counts as a single request of the mix
+        assertThat(schedule(workload, 5)).containsOnly(0, 1).filteredOn(index -> index == 1).hasSize(1);
+        assertThat(workload.toString()).isEqualTo("list (weight 4), instance [create -> get -> delete] (weight 1)");
+        Workload mapped = workload.map(requestInfo -> requestInfo.toBuilder().URI(requestInfo.getURI() + "?limit=10").build());
+        assertThat(mapped.getStepNames()).isEqualTo(workload.getStepNames());
+        assertThat(mapped.getLifecycles().get(1).getRequestInfos()).extracting(HTTPRequestInfo::getURI)
+                .allMatch(uri -> uri.endsWith("?limit=10"));
+    }
+
+    @Test
+    public void invalidWorkloadsAreRejected() {
+        assertThatThrownBy(() -> Workload.builder().request("create", CREATE, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Workload.builder().request("create", CREATE, 1).request("create", LIST, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Workload.builder().build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<Integer> schedule(Workload workload, int requests) {
+        List<Integer> schedule = new ArrayList<>();
+        for (int sequence = 0; sequence < requests; sequence++) {
+            schedule.add(workload.requestIndex(sequence));
+        }
+        return schedule;
+    }
+
+    private static HTTPRequestInfo request(String method, String uri) {
+        return HTTPRequestInfo.builder()
+                .URI(uri)
+                .method(method)
+                .expectedResponseStatusCode(200)
+                .build();
+    }
+}
@@ -20,36 +20,54 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.TestInfo;
 import org.kie.kogito.benchmarks.framework.App;
 import org.kie.kogito.benchmarks.framework.BuildResult;
+import org.kie.kogito.benchmarks.framework.GcLog;
 import org.kie.kogito.benchmarks.framework.HTTPRequestInfo;
+import org.kie.kogito.benchmarks.framework.JfrRecording;
+import org.kie.kogito.benchmarks.framework.JfrSummary;
+import org.kie.kogito.benchmarks.framework.JvmSample;
+import org.kie.kogito.benchmarks.framework.JvmSampler;
+import org.kie.kogito.benchmarks.framework.LatencyHistogram;
+import org.kie.kogito.benchmarks.framework.LoadClient;
+import org.kie.kogito.benchmarks.framework.LoadClientType;
+import org.kie.kogito.benchmarks.framework.LoadGenerator;
+import org.kie.kogito.benchmarks.framework.LoadResult;
 import org.kie.kogito.benchmarks.framework.LogBuilder;
 import org.kie.kogito.benchmarks.framework.Logs;
+import org.kie.kogito.benchmarks.framework.MemoryUsage;
+import org.kie.kogito.benchmarks.framework.ModeComparison;
 import org.kie.kogito.benchmarks.framework.MvnCmds;
+import org.kie.kogito.benchmarks.framework.NativeMemory;
+import org.kie.kogito.benchmarks.framework.OpenedFiles;
+import org.kie.kogito.benchmarks.framework.PerfStat;
+import org.kie.kogito.benchmarks.framework.ProcessLifecycle;
+import org.kie.kogito.benchmarks.framework.ProcessSample;
 import org.kie.kogito.benchmarks.framework.RunInfo;
+import org.kie.kogito.benchmarks.framework.SampleStatistics;
+import org.kie.kogito.benchmarks.framework.Slot;
+import org.kie.kogito.benchmarks.framework.StartupTimeline;
+import org.kie.kogito.benchmarks.framework.ThreadUsage;
+import org.kie.kogito.benchmarks.framework.TrendLine;
+import org.kie.kogito.benchmarks.framework.WarmUp;
+import org.kie.kogito.benchmarks.framework.Workload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.kie.kogito.benchmarks.framework.Commands.buildApp;
 import static org.kie.kogito.benchmarks.framework.Commands.cleanTarget;
-import static org.kie.kogito.benchmarks.framework.Commands.getOpenedFDs;
-import static org.kie.kogito.benchmarks.framework.Commands.getRSSkB;
-import static org.kie.kogito.benchmarks.framework.Commands.parsePort;
 import static org.kie.kogito.benchmarks.framework.Commands.processStopper;
+import static org.kie.kogito.benchmarks.framework.Commands.readNativeMemory;
 import static org.kie.kogito.benchmarks.framework.Commands.setCPUAffinity;
 import static org.kie.kogito.benchmarks.framework.Commands.startApp;
 import static org.kie.kogito.benchmarks.framework.Commands.waitForTcpClosed;
@@ -67,12 +85,46 @@ public abstract class AbstractTemplateTest {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractTemplateTest.class);
 
-    public static final int START_STOP_ITERATIONS = 3;
-    public static final int CPU_AFFINITY = Integer.parseInt(System.getProperty("cpuAffinity"));
+    // startStop repeats the start until the 95% confidence intervals of time to first OK request and RSS are narrow enough
+    public static final int START_STOP_MIN_ITERATIONS = Integer.parseInt(System.getProperty("startStopMinIterations", "5"));
+    public static final int START_STOP_MAX_ITERATIONS = Integer.parseInt(System.getProperty("startStopMaxIterations", "20"));
+    public static final double START_STOP_MAX_CI_WIDTH = Double.parseDouble(System.getProperty("startStopMaxCiWidth", "0.1"));
+    public static final int LOAD_RATE = Integer.parseInt(System.getProperty("loadRate", "0"));
+    public static final int LOAD_CONCURRENCY = Integer.parseInt(System.getProperty("loadConcurrency", "1"));
+    public static final LoadClientType LOAD_CLIENT = LoadClientType.valueOf(System.getProperty("loadClient", LoadClientType.APACHE_HTTP_CLIENT_4.name()));
+    // Requests are sent to the port of the slot the app runs in, see Slot
     public static final String LOCALHOST = "http://localhost:8080";
+    public static final int LIFECYCLE_INSTANCES = Integer.parseInt(System.getProperty("lifecycleInstances", "5000"));
+    public static final boolean USE_PERF = Boolean.parseBoolean(System.getProperty("usePerf", "true"));
+    public static final boolean JFR = Boolean.parseBoolean(System.getProperty("jfr", "false"));
+    public static final int JFR_TOP = 10;
+    public static final long THREAD_SAMPLING_INTERVAL_MS = Long.parseLong(System.getProperty("threadSamplingIntervalMs", "1000"));
+    public static final int PAYLOAD_CORPUS_SIZE = Integer.parseInt(System.getProperty("payloadCorpusSize", "0"));
+    public static final long PAYLOAD_SEED = Long.parseLong(System.getProperty("payloadSeed", "42"));
 
+    public static final int WARM_UP_WINDOW_REQUESTS = Integer.parseInt(System.getProperty("warmUpWindowRequests", "500"));
+    public static final int WARM_UP_WINDOWS = Integer.parseInt(System.getProperty("warmUpWindows", "5"));
+    public static final double WARM_UP_MAX_CV = Double.parseDouble(System.getProperty("warmUpMaxCv", "0.05"));
+    public static final int WARM_UP_MAX_REQUESTS = Integer.parseInt(System.getProperty("warmUpMaxRequests", "100000"));
+
+    public static final int SATURATION_CONCURRENCY = Integer.parseInt(System.getProperty("saturationConcurrency", "64"));
+    public static final int SATURATION_START_RATE = Integer.parseInt(System.getProperty("saturationStartRate", "100"));
+    public static final int SATURATION_RATE_STEP = Integer.parseInt(System.getProperty("saturationRateStep", "100"));
+    public static final int SATURATION_MAX_RATE = Integer.parseInt(System.getProperty("saturationMaxRate", "20000"));
+    public static final int SATURATION_STEP_DURATION_S = Integer.parseInt(System.getProperty("saturationStepDurationS", "10"));
+    public static final double SATURATION_SLO_P99_MS = Double.parseDouble(System.getProperty("saturationSloP99Ms", "100"));
+    public static final double SATURATION_SLO_ERROR_RATE = Double.parseDouble(System.getProperty("saturationSloErrorRate", "0.001"));
+
+    public static final int SOAK_RATE = Integer.parseInt(System.getProperty("soakRate", "100"));
+    public static final int SOAK_DURATION_S = Integer.parseInt(System.getProperty("soakDurationS", "14400"));
+    public static final int SOAK_SAMPLE_INTERVAL_S = Integer.parseInt(System.getProperty("soakSampleIntervalS", "60"));
+    public static final double SOAK_MAX_RSS_KB_SLOPE_PER_HOUR = Double.parseDouble(System.getProperty("soakMaxRssKbSlopePerHour", "10240"));
+    public static final double SOAK_MAX_FDS_SLOPE_PER_HOUR = Double.parseDouble(System.getProperty("soakMaxFdsSlopePerHour", "10"));
+
+    private static final String MODE_COMPARISON = "modeComparison.csv";
+    private static final double NANOS_IN_MICROSECOND = TimeUnit.MICROSECONDS.toNanos(1);
     private static final double NANOS_IN_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
-    private static final double MILLIS_IN_SECOND = TimeUnit.SECONDS.toMillis(1);
+    private static final double NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
 
     public void startStop(TestInfo testInfo, App app) throws IOException, InterruptedException {
         logger.info("Running startStop test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
@@ -85,311 +137,988 @@ public abstract class AbstractTemplateTest {
         MvnCmds mvnCmds = app.mavenCommands;
         String cn = testInfo.getTestClass().get().getCanonicalName();
         String mn = testInfo.getTestMethod().get().getName();
-        try {
-            // Cleanup
-            cleanTarget(app);
-            Files.createDirectories(Path.of(appDir.getAbsolutePath(), "logs"));
-
-            // Build first time to download dependencies
-            BuildResult buildResult = buildApp(app, mn, cn, whatIDidReport);
-            buildLogA = buildResult.getBuildLog();
-
-            assertTrue(buildLogA.exists());
-            checkLog(cn, mn, app, mvnCmds, buildLogA);
-
-            // Prepare for measurements
-            List<Long> buildTimeValues = new ArrayList<>(START_STOP_ITERATIONS);
-            List<Long> rssKbValues = new ArrayList<>(START_STOP_ITERATIONS);
-            List<Long> timeToFirstOKRequestValues = new ArrayList<>(START_STOP_ITERATIONS);
-            List<Long> startedInMsValues = new ArrayList<>(START_STOP_ITERATIONS);
-            List<Long> stoppedInMsValues = new ArrayList<>(START_STOP_ITERATIONS);
-            List<Long> openedFilesValues = new ArrayList<>(START_STOP_ITERATIONS);
-
-            for (int i = 0; i < START_STOP_ITERATIONS; i++) {
-                logger.info("Running... round " + i);
+        // AVG without min and max values needs at least 3 values
+        assertTrue(START_STOP_MIN_ITERATIONS >= 3 && START_STOP_MAX_ITERATIONS >= START_STOP_MIN_ITERATIONS,
+                "startStopMinIterations has to be at least 3 and startStopMaxIterations at least startStopMinIterations");
+        try (Slot slot = Slot.acquire()) {
+            try {
+                // Cleanup
+                cleanTarget(app);
+                Files.createDirectories(Path.of(appDir.getAbsolutePath(), "logs"));
+
+                // Build first time to download dependencies
+                BuildResult buildResult = buildApp(app, slot, mn, cn, whatIDidReport);
+                buildLogA = buildResult.getBuildLog();
+
+                assertTrue(buildLogA.exists());
+                checkLog(cn, mn, app, mvnCmds, buildLogA);
+
+                // Build once more for the build time, only the startup is measured in rounds, so that e.g. native builds
+                // and AppCDS training runs are not repeated up to startStopMaxIterations times
+                buildResult = buildApp(app, slot, mn, cn, whatIDidReport);
+                buildLogA = buildResult.getBuildLog();
+
+                assertTrue(buildLogA.exists());
+                checkLog(cn, mn, app, mvnCmds, buildLogA);
+
+                // Prepare for measurements
+                List<Long> rssKbValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> timeToFirstOKRequestValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> timeToPortOpenUsValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> timeToFirstOKRequestUsValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<StartupTimeline> timelines = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> startedInMsValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> stoppedInMsValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> openedFilesValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> cpuTimeToFirstOKRequestValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> rssKbPeakValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> ussKbValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> timeToFirstOKRequestWithoutCDSValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                List<Long> rssKbWithoutCDSValues = new ArrayList<>(START_STOP_MAX_ITERATIONS);
+                SampleStatistics timeToFirstOKRequestStatistics = null;
+                SampleStatistics rssKbStatistics = null;
+
+                for (int i = 0; i < START_STOP_MAX_ITERATIONS; i++) {
+                    logger.info("Running... round " + i);
+                    // Run
+                    RunInfo runInfo = startApp(app, slot, whatIDidReport);
+                    pA = runInfo.getProcess();
+                    runLogA = runInfo.getRunLog();
+
+                    logger.info("Terminate and scan logs...");
+
+                    ProcessSample sample = runInfo.getSampler().sample();
+                    long rssKb = sample.getRssKb();
+                    long openedFiles = sample.getOpenedFiles();
+                    MemoryUsage memoryUsage = runInfo.getSampler().memoryUsage();
+                    OpenedFiles openedFilesByType = runInfo.getSampler().openedFiles();
+                    closeJvmSampler(runInfo);
+
+                    processStopper(pA, false);
+                    runInfo.stopSampling();
+
+                    logger.info("Gonna wait for ports closed...");
+                    // Release ports
+                    assertTrue(waitForTcpClosed("localhost", slot.getPort(), 60),
+                            "Main port is still open");
+                    checkLog(cn, mn, app, mvnCmds, runLogA);
+                    checkListeningHost(cn, mn, mvnCmds, runLogA);
+
+                    float[] startedStopped = parseStartStopTimestamps(runLogA, app);
+                    long startedInMs = (long) (startedStopped[0] * 1000);
+                    long stoppedInMs = (long) (startedStopped[1] * 1000);
+                    StartupTimeline timeline = StartupTimeline.of(runInfo, startedInMs);
+                    timelines.add(timeline);
+
+                    RunInfo runInfoWithoutCDS = null;
+                    long rssKbWithoutCDS = SKIP;
+                    if (mvnCmds.isAppCDS()) {
+                        // The same build without the archive, alternating with the runs using it so that both see the same conditions
+                        runInfoWithoutCDS = startApp(app, mvnCmds.withoutAppCDS(), slot, whatIDidReport);
+                        pA = runInfoWithoutCDS.getProcess();
+                        rssKbWithoutCDS = runInfoWithoutCDS.getSampler().sample().getRssKb();
+                        closeJvmSampler(runInfoWithoutCDS);
+                        processStopper(pA, false);
+                        runInfoWithoutCDS.stopSampling();
+                        assertTrue(waitForTcpClosed("localhost", slot.getPort(), 60),
+                                "Main port is still open");
+                        checkLog(cn, mn, app, mvnCmds, runInfoWithoutCDS.getRunLog());
+                    }
+
+                    Path measurementsLog = getLogsDir(cn, mn).resolve("measurements.csv");
+                    LogBuilder logBuilder = new LogBuilder()
+                            .app(app)
+                            .mode(mvnCmds)
+                            .buildTimeMs(buildResult.getBuildTimeMs())
+                            .timeToFirstOKRequestMs(runInfo.getTimeToFirstOKRequest())
+                            .timeToPortOpenUs(runInfo.getTimeToPortOpenUs())
+                            .timeToFirstOKRequestUs(runInfo.getTimeToFirstOKRequestUs())
+                            .startedInMs(startedInMs)
+                            .stoppedInMs(stoppedInMs)
+                            .rssKb(rssKb)
+                            .openedFiles(openedFiles);
+                    memoryColumns(logBuilder, memoryUsage, openedFilesByType);
+                    jvmColumns(logBuilder, runInfo.getJvmSampler());
+                    timelineColumns(logBuilder, List.of(timeline));
+                    if (runInfoWithoutCDS != null) {
+                        logBuilder.timeToFirstOKRequestMsWithoutCDS(runInfoWithoutCDS.getTimeToFirstOKRequest())
+                                .rssKbWithoutCDS(rssKbWithoutCDS);
+                        timeToFirstOKRequestWithoutCDSValues.add(runInfoWithoutCDS.getTimeToFirstOKRequest());
+                        rssKbWithoutCDSValues.add(rssKbWithoutCDS);
+                    }
+                    if (memoryUsage != null) {
+                        rssKbPeakValues.add(memoryUsage.getPeakRssKb());
+                        ussKbValues.add(memoryUsage.getUssKb());
+                    }
+                    if (runInfo.getCpuTimeToFirstOKRequestNs() >= 0) {
+                        long cpuTimeToFirstOKRequestMs = TimeUnit.NANOSECONDS.toMillis(runInfo.getCpuTimeToFirstOKRequestNs());
+                        logBuilder.cpuTimeToFirstOKRequestMs(cpuTimeToFirstOKRequestMs);
+                        cpuTimeToFirstOKRequestValues.add(cpuTimeToFirstOKRequestMs);
+                    }
+                    LogBuilder.Log log = logBuilder.build();
+                    Logs.logMeasurements(log, measurementsLog);
+                    appendln(whatIDidReport, "Measurements:");
+                    appendln(whatIDidReport, log.headerMarkdown + "\n" + log.lineMarkdown);
+                    appendln(whatIDidReport, "Startup timeline:");
+                    appendln(whatIDidReport, timeline.toMarkdown());
+
+                    rssKbValues.add(rssKb);
+                    openedFilesValues.add(openedFiles);
+                    timeToFirstOKRequestValues.add(runInfo.getTimeToFirstOKRequest());
+                    timeToPortOpenUsValues.add(runInfo.getTimeToPortOpenUs());
+                    timeToFirstOKRequestUsValues.add(runInfo.getTimeToFirstOKRequestUs());
+                    startedInMsValues.add(startedInMs);
+                    stoppedInMsValues.add(stoppedInMs);
+
+                    if (i + 1 >= START_STOP_MIN_ITERATIONS) {
+                        timeToFirstOKRequestStatistics = SampleStatistics.of(timeToFirstOKRequestValues);
+                        rssKbStatistics = SampleStatistics.of(rssKbValues);
+                        logger.info("timeToFirstOKRequest after " + (i + 1) + " rounds: " + timeToFirstOKRequestStatistics);
+                        logger.info("rssKb after " + (i + 1) + " rounds: " + rssKbStatistics);
+                        if (timeToFirstOKRequestStatistics.getRelativeCiWidth() <= START_STOP_MAX_CI_WIDTH
+                                && rssKbStatistics.getRelativeCiWidth() <= START_STOP_MAX_CI_WIDTH) {
+                            break;
+                        }
+                    }
+                }
+                int iterations = timeToFirstOKRequestStatistics.getSize();
+                if (iterations == START_STOP_MAX_ITERATIONS) {
+                    logger.warn("Confidence intervals are still wider than " + START_STOP_MAX_CI_WIDTH + " of the mean after "
+                            + iterations + " rounds, the measurements are noisy");
+                }
+
+                long rssKbAvgWithoutMinMax = getAvgWithoutMinMax(rssKbValues);
+                long openedFilesAvgWithoutMinMax = getAvgWithoutMinMax(openedFilesValues);
+                long timeToFirstOKRequestAvgWithoutMinMax = getAvgWithoutMinMax(timeToFirstOKRequestValues);
+                long startedInMsAvgWithoutMinMax = getAvgWithoutMinMax(startedInMsValues);
+                long stoppedInMsAvgWithoutMinMax = getAvgWithoutMinMax(stoppedInMsValues);
+
+                Path measurementsSummary = getLogsDir().resolve("measurementsSummary.csv");
+
+                LogBuilder logBuilder = new LogBuilder()
+                        .app(app)
+                        .mode(mvnCmds)
+                        .buildTimeMs(buildResult.getBuildTimeMs())
+                        .timeToFirstOKRequestMs(timeToFirstOKRequestAvgWithoutMinMax)
+                        .timeToPortOpenUs(getAvgWithoutMinMax(timeToPortOpenUsValues))
+                        .timeToFirstOKRequestUs(getAvgWithoutMinMax(timeToFirstOKRequestUsValues))
+                        .startedInMs(startedInMsAvgWithoutMinMax)
+                        .stoppedInMs(stoppedInMsAvgWithoutMinMax)
+                        .rssKb(rssKbAvgWithoutMinMax)
+                        .openedFiles(openedFilesAvgWithoutMinMax)
+                        .timeToFirstOKRequestStatistics(timeToFirstOKRequestStatistics)
+                        .rssKbStatistics(rssKbStatistics)
+                        .startStopIterations(iterations);
+                if (cpuTimeToFirstOKRequestValues.size() == iterations) {
+                    logBuilder.cpuTimeToFirstOKRequestMs(getAvgWithoutMinMax(cpuTimeToFirstOKRequestValues));
+                }
+                timelineColumns(logBuilder, timelines);
+                if (rssKbPeakValues.size() == iterations) {
+                    logBuilder.rssKbPeak(getAvgWithoutMinMax(rssKbPeakValues))
+                            .ussKb(getAvgWithoutMinMax(ussKbValues));
+                }
+                if (mvnCmds.isAppCDS()) {
+                    long timeToFirstOKRequestWithoutCDSAvg = getAvgWithoutMinMax(timeToFirstOKRequestWithoutCDSValues);
+                    long rssKbWithoutCDSAvg = getAvgWithoutMinMax(rssKbWithoutCDSValues);
+                    logBuilder.timeToFirstOKRequestMsWithoutCDS(timeToFirstOKRequestWithoutCDSAvg)
+                            .rssKbWithoutCDS(rssKbWithoutCDSAvg);
+                    appendln(whatIDidReport, "AppCDS, AVG without min and max values:");
+                    appendln(whatIDidReport, "| | With archive | Without archive | Change |\n"
+                            + "| --- | --- | --- | --- |\n"
+                            + appCDSRow("timeToFirstOKRequestMs", timeToFirstOKRequestAvgWithoutMinMax, timeToFirstOKRequestWithoutCDSAvg) + "\n"
+                            + appCDSRow("RSSKb", rssKbAvgWithoutMinMax, rssKbWithoutCDSAvg));
+                }
+                LogBuilder.Log log = logBuilder.build();
+                Logs.logMeasurementsSummary(log, measurementsSummary);
+                appendln(whatIDidReport, "Statistics of " + iterations + " rounds:");
+                appendln(whatIDidReport, "| | Median | MAD | Mean | 95% CI |\n"
+                        + "| --- | --- | --- | --- | --- |\n"
+                        + statisticsRow("timeToFirstOKRequestMs", timeToFirstOKRequestStatistics) + "\n"
+                        + statisticsRow("RSSKb", rssKbStatistics));
+
+                logger.info("AVG timeToFirstOKRequest without min and max values: " + timeToFirstOKRequestAvgWithoutMinMax);
+                logger.info("AVG rssKb without min and max values: " + rssKbAvgWithoutMinMax);
+                ModeComparison.record(getLogsDir().resolve(MODE_COMPARISON), app, Map.of(
+                        ModeComparison.TIME_TO_FIRST_OK_REQUEST_MS, (double) timeToFirstOKRequestAvgWithoutMinMax,
+                        ModeComparison.RSS_KB, (double) rssKbAvgWithoutMinMax));
+                // The median of many starts, a single slow start shouldn't fail the test
+                checkThreshold(app, mvnCmds, Math.round(rssKbStatistics.getMedian()), Math.round(timeToFirstOKRequestStatistics.getMedian()), SKIP);
+            } finally {
+                // Make sure processes are down even if there was an exception / failure
+                if (pA != null) {
+                    processStopper(pA, true);
+                }
+                // Archive logs no matter what
+                archiveLogs(cn, mn, appDir.toPath().resolve("logs"));
+                writeReport(cn, mn, whatIDidReport.toString());
+            }
+        }
+    }
+
+    private static String appCDSRow(String name, long withArchive, long withoutArchive) {
+        return String.format("| %s | %d | %d | %+.1f %% |", name, withArchive, withoutArchive, 100.0 * (withArchive - withoutArchive) / withoutArchive);
+    }
+
+    private static String statisticsRow(String name, SampleStatistics statistics) {
+        return String.format("| %s | %.0f | %.0f | %.0f | %.0f - %.0f |", name, statistics.getMedian(), statistics.getMad(), statistics.getMean(),
+                statistics.getCiLow(), statistics.getCiHigh());
+    }
+
+    private long getAvgWithoutMinMax(List<Long> listOfValues) {
+        listOfValues.remove(Collections.min(listOfValues));
+        listOfValues.remove(Collections.max(listOfValues));
+        return (long) listOfValues.stream().mapToLong(val -> val).average().orElse(Long.MAX_VALUE);
+    }
+
+    public void loadTest(TestInfo testInfo, App app, HTTPRequestInfo requestInfo) throws IOException, InterruptedException {
+        loadTest(testInfo, app, Workload.of(requestInfo));
+    }
+
+    /**
+     * Load test of a weighted mix of requests. Apart from the aggregate measurements, the measurements of the individual requests
+     * go to requests.csv and to the report when there is more than one.
+     */
+    public void loadTest(TestInfo testInfo, App app, Workload workload) throws IOException, InterruptedException {
+        logger.info("Running loadTest test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
+
+        Process pA = null;
+        File buildLogA = null;
+        File runLogA = null;
+        StringBuilder whatIDidReport = new StringBuilder();
+        File appDir = app.getAppDir();
+        MvnCmds mvnCmds = app.mavenCommands;
+        String cn = testInfo.getTestClass().get().getCanonicalName();
+        String mn = testInfo.getTestMethod().get().getName();
+        try (Slot slot = Slot.acquire()) {
+            try {
+                // Cleanup
+                cleanTarget(app);
+                Files.createDirectories(Path.of(appDir.getAbsolutePath(), "logs"));
+
                 // Build
-                buildResult = buildApp(app, mn, cn, whatIDidReport);
+                BuildResult buildResult = buildApp(app, slot, mn, cn, whatIDidReport);
                 buildLogA = buildResult.getBuildLog();
 
                 assertTrue(buildLogA.exists());
                 checkLog(cn, mn, app, mvnCmds, buildLogA);
 
-                // Run
-                RunInfo runInfo = startApp(app, whatIDidReport);
+                // Start the App
+                RunInfo runInfo = startApp(app, slot, whatIDidReport);
+                if (slot.getAppCpus() != null) {
+                    setCPUAffinity(runInfo, slot.getAppCpus());
+                }
+                slot.pinLoadGenerator();
                 pA = runInfo.getProcess();
                 runLogA = runInfo.getRunLog();
 
-                logger.info("Terminate and scan logs...");
+                long rssKb = runInfo.getSampler().sample().getRssKb();
+                List<LogBuilder.Log> nativeMemoryLogs = new ArrayList<>();
+                NativeMemory nativeMemory = runInfo.getNativeMemoryAtAllURLsOK();
+                if (nativeMemory != null) {
+                    nativeMemoryLogs.add(nativeMemoryLog(app, "All URLs OK", nativeMemory, rssKb));
+                }
+
+                LoadResult result;
+                WarmUp.Result warmUpResult;
+                long firstResponseTime;
+                long cpuTimeBeforeWarmUpNs;
+                long cpuTimeBeforeLoadNs;
+                long cpuTimeAfterLoadNs;
+                long loadStartMs;
+                long loadEndMs;
+                List<ThreadUsage> threadSamples;
+                JfrSummary jfrSummary = null;
+                Map<String, Double> perfCounters;
+                workload = withPayloads(workload.map(requestInfo -> requestInfo.withPort(runInfo.getPort())), whatIDidReport);
+                try (LoadClient client = LOAD_CLIENT.create(LOAD_CONCURRENCY)) {
+                    appendln(whatIDidReport, "Load client: " + LOAD_CLIENT);
+                    if (LOAD_RATE > 0) {
+                        appendln(whatIDidReport, "Open model, constant arrival rate of " + LOAD_RATE + " requests/s, "
+                                + LOAD_CONCURRENCY + " connection(s)");
+                    } else {
+                        appendln(whatIDidReport, "Closed model, " + LOAD_CONCURRENCY + " request(s) in flight");
+                    }
+                    LoadGenerator loadGenerator = new LoadGenerator(client, LOAD_CONCURRENCY);
+
+                    // Warm up run
+                    if (workload.size() > 1) {
+                        appendln(whatIDidReport, "Workload: " + workload);
+                    }
+                    cpuTimeBeforeWarmUpNs = runInfo.getSampler().sample().getCpuTimeNs();
+                    warmUpResult = warmUp(loadGenerator, workload, LOAD_RATE, whatIDidReport);
+                    firstResponseTime = warmUpResult.getFirstResponseTimeNs();
+                    if (nativeMemory != null) {
+                        nativeMemory = readNativeMemory(pA.pid());
+                        nativeMemoryLogs.add(nativeMemoryLog(app, "After warm up", nativeMemory, runInfo.getSampler().sample().getRssKb()));
+                    }
+
+                    // Measurements run
+                    cpuTimeBeforeLoadNs = runInfo.getSampler().sample().getCpuTimeNs();
+                    PerfStat perfStat = USE_PERF && PerfStat.AVAILABLE ? PerfStat.attach(pA.pid(), getLogsDir(cn, mn).resolve("perf-stat.csv")) : null;
+                    JfrRecording jfrRecording = JFR && mvnCmds.isJVM() ? JfrRecording.start(pA.pid(), getLogsDir(cn, mn).resolve("measurements.jfr")) : null;
+                    runInfo.getSampler().startThreadSampling(THREAD_SAMPLING_INTERVAL_MS);
+                    loadStartMs = System.currentTimeMillis();
+                    result = loadGenerator.run(workload, 20000, LOAD_RATE);
+                    loadEndMs = System.currentTimeMillis();
+                    threadSamples = runInfo.getSampler().stopThreadSampling();
+                    if (nativeMemory != null) {
+                        nativeMemory = readNativeMemory(pA.pid());
+                        nativeMemoryLogs.add(nativeMemoryLog(app, "End of load", nativeMemory, runInfo.getSampler().sample().getRssKb()));
+                    }
+                    if (jfrRecording != null) {
+                        jfrSummary = jfrRecording.stop();
+                        appendln(whatIDidReport, "JFR recording of the measurements: " + jfrRecording.getOutput());
+                    }
+                    perfCounters = perfStat != null ? perfStat.stop() : Collections.emptyMap();
+                    cpuTimeAfterLoadNs = runInfo.getSampler().sample().getCpuTimeNs();
+                    assertTrue(result.getErrors() == 0, result.getErrors() + " requests failed during measurements");
+                }
 
-                long rssKb = getRSSkB(pA.pid());
-                long openedFiles = getOpenedFDs(pA.pid());
+                LatencyHistogram values = result.getLatencies();
+                double avgResponseTimeMs = values.getMean() / NANOS_IN_MILLISECOND;
+                double firstResponseTimeMs = firstResponseTime / NANOS_IN_MILLISECOND;
+                double totalDurationS = result.getDurationNs() / NANOS_IN_SECOND;
+                double throughputRps = result.getThroughput();
 
+                ProcessSample finalSample = runInfo.getSampler().sample();
+                long rssKbFinal = finalSample.getRssKb();
+                long openedFiles = finalSample.getOpenedFiles(); // TODO also do before the "test" itself? Maybe not needed as before is covered in a startStop test
+                MemoryUsage memoryUsage = runInfo.getSampler().memoryUsage();
+                OpenedFiles openedFilesByType = runInfo.getSampler().openedFiles();
+                closeJvmSampler(runInfo);
+
+                // Stop the App
                 processStopper(pA, false);
+                runInfo.stopSampling();
 
                 logger.info("Gonna wait for ports closed...");
                 // Release ports
-                assertTrue(waitForTcpClosed("localhost", parsePort(app.urlContent.urlContent[0][0]), 60),
+                assertTrue(waitForTcpClosed("localhost", slot.getPort(), 60),
                         "Main port is still open");
                 checkLog(cn, mn, app, mvnCmds, runLogA);
                 checkListeningHost(cn, mn, mvnCmds, runLogA);
 
-                float[] startedStopped = parseStartStopTimestamps(runLogA, app);
+                GcLog gcLog = runInfo.getGcLog() != null ? GcLog.parse(runInfo.getGcLog().toPath(), loadStartMs, loadEndMs) : null;
+
+                float[] startedStopped = parseStartStopTimestamps(runLogA, app);// Don't need this in the load test?
                 long startedInMs = (long) (startedStopped[0] * 1000);
                 long stoppedInMs = (long) (startedStopped[1] * 1000);
 
                 Path measurementsLog = getLogsDir(cn, mn).resolve("measurements.csv");
-                LogBuilder.Log log = new LogBuilder()
+                Path measurementsSummaryLog = getLogsDir().resolve("measurementsSummary.csv");
+                LogBuilder logBuilder = new LogBuilder()
                         .app(app)
                         .mode(mvnCmds)
                         .buildTimeMs(buildResult.getBuildTimeMs())
                         .timeToFirstOKRequestMs(runInfo.getTimeToFirstOKRequest())
+                        .timeToPortOpenUs(runInfo.getTimeToPortOpenUs())
+                        .timeToFirstOKRequestUs(runInfo.getTimeToFirstOKRequestUs())
                         .startedInMs(startedInMs)
                         .stoppedInMs(stoppedInMs)
                         .rssKb(rssKb)
-                        .openedFiles(openedFiles)
-                        .build();
+                        .rssKbFinal(rssKbFinal)
+                        .avgResponseTime(avgResponseTimeMs)
+                        .responseTimePercentiles(values)
+                        .firstResponseTime(firstResponseTimeMs)
+                        .warmUpRequests(warmUpResult.getRequests())
+                        .warmUpDuration(warmUpResult.getDurationNs() / NANOS_IN_SECOND)
+                        .totalDuration(totalDurationS)
+                        .concurrency(LOAD_CONCURRENCY)
+                        .throughput(throughputRps)
+                        .openedFiles(openedFiles);
+                memoryColumns(logBuilder, memoryUsage, openedFilesByType);
+                jvmColumns(logBuilder, runInfo.getJvmSampler());
+                gcColumns(logBuilder, gcLog, result.getRequests());
+                threadColumns(logBuilder, threadSamples, result.getRequests());
+                cpuColumns(logBuilder, runInfo, cpuTimeBeforeWarmUpNs, cpuTimeBeforeLoadNs, cpuTimeAfterLoadNs, perfCounters, result.getRequests());
+                LogBuilder.Log log = logBuilder.build();
+
                 Logs.logMeasurements(log, measurementsLog);
+
+                LogBuilder summaryLogBuilder = new LogBuilder()
+                        .app(app)
+                        .mode(mvnCmds)
+                        .rssKbFinal(rssKbFinal)
+                        .avgResponseTime(avgResponseTimeMs)
+                        .responseTimePercentiles(values)
+                        .firstResponseTime(firstResponseTimeMs)
+                        .warmUpRequests(warmUpResult.getRequests())
+                        .warmUpDuration(warmUpResult.getDurationNs() / NANOS_IN_SECOND)
+                        .totalDuration(totalDurationS)
+                        .concurrency(LOAD_CONCURRENCY)
+                        .throughput(throughputRps);
+                if (memoryUsage != null) {
+                    summaryLogBuilder.rssKbPeak(memoryUsage.getPeakRssKb())
+                            .pssKb(memoryUsage.getPssKb())
+                            .ussKb(memoryUsage.getUssKb());
+                }
+                jvmColumns(summaryLogBuilder, runInfo.getJvmSampler());
+                gcColumns(summaryLogBuilder, gcLog, result.getRequests());
+                threadColumns(summaryLogBuilder, threadSamples, result.getRequests());
+                if (nativeMemory != null) {
+                    nmtColumns(summaryLogBuilder, nativeMemory);
+                }
+                cpuColumns(summaryLogBuilder, runInfo, cpuTimeBeforeWarmUpNs, cpuTimeBeforeLoadNs, cpuTimeAfterLoadNs, perfCounters, result.getRequests());
+                LogBuilder.Log summaryLog = summaryLogBuilder.build();
+                Logs.logMeasurementsSummary(summaryLog, measurementsSummaryLog);
+                ModeComparison.record(getLogsDir().resolve(MODE_COMPARISON), app, Map.of(
+                        ModeComparison.THROUGHPUT_AFTER_WARM_UP, throughputRps,
+                        ModeComparison.RSS_KB_FINAL, (double) rssKbFinal));
                 appendln(whatIDidReport, "Measurements:");
                 appendln(whatIDidReport, log.headerMarkdown + "\n" + log.lineMarkdown);
+                logCollectors(runInfo.getJvmSampler(), whatIDidReport);
+                logNativeMemory(nativeMemoryLogs, getLogsDir(cn, mn).resolve("nmt.csv"), whatIDidReport);
+                logThreadPools(threadSamples, getLogsDir(cn, mn).resolve("threads.csv"), whatIDidReport);
+                if (jfrSummary != null) {
+                    // Before the threshold checks, so the profile is in the report when they fail
+                    appendln(whatIDidReport, jfrSummary.toMarkdown(JFR_TOP));
+                }
+                if (result.getRequestResults().size() > 1) {
+                    logRequestMeasurements(app, result, getLogsDir(cn, mn).resolve("requests.csv"), "Measurements per request:", whatIDidReport);
+                }
 
-                buildTimeValues.add(buildResult.getBuildTimeMs());
-                rssKbValues.add(rssKb);
-                openedFilesValues.add(openedFiles);
-                timeToFirstOKRequestValues.add(runInfo.getTimeToFirstOKRequest());
-                startedInMsValues.add(startedInMs);
-                stoppedInMsValues.add(stoppedInMs);
+                // TODO check other load test-related metrics here, e.g. rssKbFinal
+                checkThreshold(app, mvnCmds, rssKb, runInfo.getTimeToFirstOKRequest(), SKIP);
+            } finally {
+                // Make sure processes are down even if there was an exception / failure
+                if (pA != null) {
+                    processStopper(pA, true);
+                }
+                // Archive logs no matter what
+                archiveLogs(cn, mn, appDir.toPath().resolve("logs"));
+                writeReport(cn, mn, whatIDidReport.toString());
             }
+        }
+    }
 
-            long buildTimeAvgWithoutMinMax = getAvgWithoutMinMax(buildTimeValues);
-            long rssKbAvgWithoutMinMax = getAvgWithoutMinMax(rssKbValues);
-            long openedFilesAvgWithoutMinMax = getAvgWithoutMinMax(openedFilesValues);
-            long timeToFirstOKRequestAvgWithoutMinMax = getAvgWithoutMinMax(timeToFirstOKRequestValues);
-            long startedInMsAvgWithoutMinMax = getAvgWithoutMinMax(startedInMsValues);
-            long stoppedInMsAvgWithoutMinMax = getAvgWithoutMinMax(stoppedInMsValues);
+    /**
+     * Steps up the offered load (constant arrival rate) until the p99 latency or the error rate SLO is violated.
+     * The maximum throughput that still met the SLO goes to the measurements summary, the latency curve
+     * up to the violation to saturation.csv and to the report.
+     */
+    public void saturationTest(TestInfo testInfo, App app, HTTPRequestInfo requestInfo) throws IOException, InterruptedException {
+        logger.info("Running saturationTest test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
 
-            Path measurementsSummary = getLogsDir().resolve("measurementsSummary.csv");
+        runScenario(testInfo, app, (runInfo, cn, mn, whatIDidReport) -> {
+            appendln(whatIDidReport, "Saturation search with " + LOAD_CLIENT + ", " + SATURATION_CONCURRENCY + " connection(s). SLO: p99 <= "
+                    + SATURATION_SLO_P99_MS + " ms, error rate <= " + SATURATION_SLO_ERROR_RATE);
+            Path saturationLog = getLogsDir(cn, mn).resolve("saturation.csv");
+            StringBuilder latencyCurve = new StringBuilder();
+            double maxSustainableThroughput = -1.0;
+            int lastSustainableRate = -1;
+            Workload workload = withPayloads(Workload.of(requestInfo.withPort(runInfo.getPort())), whatIDidReport);
+            try (LoadClient client = LOAD_CLIENT.create(SATURATION_CONCURRENCY)) {
+                LoadGenerator loadGenerator = new LoadGenerator(client, SATURATION_CONCURRENCY);
 
-            LogBuilder.Log log = new LogBuilder()
+                // Warm up run
+                warmUp(loadGenerator, workload, 0, whatIDidReport);
+
+                for (int rate = SATURATION_START_RATE; rate <= SATURATION_MAX_RATE; rate += SATURATION_RATE_STEP) {
+                    logger.info("Offering " + rate + " requests/s for " + SATURATION_STEP_DURATION_S + " s");
+                    LoadResult result = loadGenerator.run(workload, rate * SATURATION_STEP_DURATION_S, rate);
+
+                    LogBuilder stepLogBuilder = new LogBuilder()
+                            .app(app)
+                            .mode(app.mavenCommands)
+                            .offeredRate(rate)
+                            .errorRate(result.getErrorRate());
+                    if (result.getLatencies().getTotalCount() > 0) {
+                        stepLogBuilder.throughput(result.getThroughput())
+                                .responseTimePercentiles(result.getLatencies());
+                    }
+                    LogBuilder.Log stepLog = stepLogBuilder.build();
+                    Logs.logMeasurements(stepLog, saturationLog);
+                    if (latencyCurve.length() == 0) {
+                        latencyCurve.append(stepLog.headerMarkdown);
+                    }
+                    latencyCurve.append('\n').append(stepLog.lineMarkdown);
+
+                    double p99Ms = result.getLatencies().getValueAtPercentile(99.0) / NANOS_IN_MILLISECOND;
+                    if (result.getLatencies().getTotalCount() == 0 || p99Ms > SATURATION_SLO_P99_MS || result.getErrorRate() > SATURATION_SLO_ERROR_RATE) {
+                        logger.info("SLO violated at " + rate + " requests/s: p99 " + p99Ms + " ms, error rate " + result.getErrorRate());
+                        break;
+                    }
+                    maxSustainableThroughput = result.getThroughput();
+                    lastSustainableRate = rate;
+                }
+            }
+            appendln(whatIDidReport, "Latency curve:");
+            appendln(whatIDidReport, latencyCurve.toString());
+            assertTrue(maxSustainableThroughput > 0, "SLO was violated already at " + SATURATION_START_RATE + " requests/s");
+            appendln(whatIDidReport, "Maximum sustainable throughput: " + maxSustainableThroughput + " requests/s (offered " + lastSustainableRate + " requests/s)");
+
+            LogBuilder.Log summaryLog = new LogBuilder()
                     .app(app)
-                    .mode(mvnCmds)
-                    .buildTimeMs(buildTimeAvgWithoutMinMax)
-                    .timeToFirstOKRequestMs(timeToFirstOKRequestAvgWithoutMinMax)
-                    .startedInMs(startedInMsAvgWithoutMinMax)
-                    .stoppedInMs(stoppedInMsAvgWithoutMinMax)
-                    .rssKb(rssKbAvgWithoutMinMax)
-                    .openedFiles(openedFilesAvgWithoutMinMax)
+                    .mode(app.mavenCommands)
+                    .maxSustainableThroughput(maxSustainableThroughput)
                     .build();
-            Logs.logMeasurementsSummary(log, measurementsSummary);
-
-            logger.info("AVG timeToFirstOKRequest without min and max values: " + timeToFirstOKRequestAvgWithoutMinMax);
-            logger.info("AVG rssKb without min and max values: " + rssKbAvgWithoutMinMax);
-            checkThreshold(app, mvnCmds, rssKbAvgWithoutMinMax, timeToFirstOKRequestAvgWithoutMinMax, SKIP);
-        } finally {
-            // Make sure processes are down even if there was an exception / failure
-            if (pA != null) {
-                processStopper(pA, true);
-            }
-            // Archive logs no matter what
-            archiveLogs(cn, mn, appDir.toPath().resolve("logs"));
-            writeReport(cn, mn, whatIDidReport.toString());
+            Logs.logMeasurementsSummary(summaryLog, getLogsDir().resolve("measurementsSummary.csv"));
+            ModeComparison.record(getLogsDir().resolve(MODE_COMPARISON), app, Map.of(ModeComparison.MAX_SUSTAINABLE_THROUGHPUT, maxSustainableThroughput));
+        });
+    }
+
+    /**
+     * Adds the durations of the startup phases, averaged without min and max for several starts. The framework start is
+     * only estimated from the "started in" time, which is logged already, so the phases around it are left out.
+     */
+    private void timelineColumns(LogBuilder logBuilder, List<StartupTimeline> timelines) {
+        long[] jvmInitUs = timelines.stream().mapToLong(t -> t.getMilestoneUs(StartupTimeline.JVM_INITIALIZED)).toArray();
+        if (Arrays.stream(jvmInitUs).allMatch(us -> us >= 0)) {
+            logBuilder.jvmInitUs(averagePhaseUs(timelines, t -> t.getMilestoneUs(StartupTimeline.JVM_INITIALIZED)));
         }
+        logBuilder.firstOKAfterPortOpenUs(averagePhaseUs(timelines, t -> t.getPhaseUs(StartupTimeline.PORT_OPEN, StartupTimeline.FIRST_OK_REQUEST)))
+                .allURLsAfterFirstOKUs(averagePhaseUs(timelines, t -> t.getPhaseUs(StartupTimeline.FIRST_OK_REQUEST, StartupTimeline.ALL_URLS_OK)));
     }
 
-    private long getAvgWithoutMinMax(List<Long> listOfValues) { // TODO Median?
-        listOfValues.remove(Collections.min(listOfValues));
-        listOfValues.remove(Collections.max(listOfValues));
-        return (long) listOfValues.stream().mapToLong(val -> val).average().orElse(Long.MAX_VALUE);
+    private long averagePhaseUs(List<StartupTimeline> timelines, ToLongFunction<StartupTimeline> phaseUs) {
+        List<Long> values = timelines.stream().map(phaseUs::applyAsLong).collect(Collectors.toList());
+        return values.size() > 2 ? getAvgWithoutMinMax(values) : values.get(values.size() - 1);
     }
 
-    public void loadTest(TestInfo testInfo, App app, HTTPRequestInfo requestInfo) throws IOException, InterruptedException {
-        logger.info("Running loadTest test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
+    /**
+     * Adds the peak, proportional and unique memory and the opened files by type, if /proc is available.
+     */
+    private static void memoryColumns(LogBuilder logBuilder, MemoryUsage memoryUsage, OpenedFiles openedFiles) {
+        if (memoryUsage != null) {
+            logBuilder.rssKbPeak(memoryUsage.getPeakRssKb())
+                    .pssKb(memoryUsage.getPssKb())
+                    .ussKb(memoryUsage.getUssKb())
+                    .anonymousKb(memoryUsage.getAnonymousKb())
+                    .fileBackedKb(memoryUsage.getFileBackedKb())
+                    .jarMappedKb(memoryUsage.getJarMappedKb())
+                    .sharedLibraryMappedKb(memoryUsage.getSharedLibraryMappedKb());
+        }
+        if (openedFiles != null) {
+            logBuilder.socketFDs(openedFiles.getSockets())
+                    .jarFDs(openedFiles.getJars())
+                    .sharedLibraryFDs(openedFiles.getSharedLibraries())
+                    .regularFileFDs(openedFiles.getRegularFiles());
+        }
+    }
 
-        Process pA = null;
-        File buildLogA = null;
-        File runLogA = null;
-        StringBuilder whatIDidReport = new StringBuilder();
-        File appDir = app.getAppDir();
-        MvnCmds mvnCmds = app.mavenCommands;
-        String cn = testInfo.getTestClass().get().getCanonicalName();
-        String mn = testInfo.getTestMethod().get().getName();
-        try {
-            // Cleanup
-            cleanTarget(app);
-            Files.createDirectories(Path.of(appDir.getAbsolutePath(), "logs"));
-
-            // Build
-            BuildResult buildResult = buildApp(app, mn, cn, whatIDidReport);
-            buildLogA = buildResult.getBuildLog();
-
-            assertTrue(buildLogA.exists());
-            checkLog(cn, mn, app, mvnCmds, buildLogA);
-
-            // Start the App
-            RunInfo runInfo = startApp(app, whatIDidReport);
-            if (CPU_AFFINITY > 0) {
-                setCPUAffinity(runInfo, CPU_AFFINITY);
+    /**
+     * Takes the final JVM sample and the safepoint statistics, which has to happen before the app is stopped.
+     */
+    private static void closeJvmSampler(RunInfo runInfo) {
+        if (runInfo.getJvmSampler() != null) {
+            runInfo.getJvmSampler().close();
+        }
+    }
+
+    /**
+     * Adds the heap, metaspace, code cache, GC, JIT, class and thread telemetry of the final JVM sample, if sampled.
+     */
+    private static void jvmColumns(LogBuilder logBuilder, JvmSampler jvmSampler) {
+        if (jvmSampler == null || jvmSampler.getSamples().isEmpty()) {
+            return;
+        }
+        List<JvmSample> samples = jvmSampler.getSamples();
+        JvmSample sample = samples.get(samples.size() - 1);
+        logBuilder.heapUsedKb(sample.getHeapUsedKb())
+                .heapUsedKbMax(jvmSampler.getMaxHeapUsedKb())
+                .heapCommittedKb(sample.getHeapCommittedKb())
+                .metaspaceUsedKb(sample.getMetaspaceUsedKb())
+                .codeCacheUsedKb(sample.getCodeCacheUsedKb())
+                .gcCount(sample.getGcCount())
+                .gcTimeMs(sample.getGcTimeMs())
+                .loadedClasses(sample.getLoadedClasses())
+                .jvmThreads(sample.getThreads());
+        if (sample.getCompilationTimeMs() >= 0) {
+            logBuilder.jitTimeMs(sample.getCompilationTimeMs());
+        }
+        if (jvmSampler.getSafepoints() >= 0) {
+            logBuilder.safepoints(jvmSampler.getSafepoints())
+                    .safepointTimeMs(jvmSampler.getSafepointTimeMs());
+        }
+    }
+
+    /**
+     * Adds the allocation and promotion rates and the GC pauses of the measurements, if the GC log was written.
+     */
+    private static void gcColumns(LogBuilder logBuilder, GcLog gcLog, long requests) {
+        if (gcLog == null) {
+            return;
+        }
+        LatencyHistogram pauses = gcLog.getPauses();
+        logBuilder.allocationRateMBps(gcLog.getAllocationRateMBps())
+                .promotionRateMBps(gcLog.getPromotionRateMBps())
+                .gcPauses(pauses.getTotalCount())
+                .gcPauseP50Ms(pauses.getValueAtPercentile(50) / NANOS_IN_MILLISECOND)
+                .gcPauseP99Ms(pauses.getValueAtPercentile(99) / NANOS_IN_MILLISECOND)
+                .gcPauseMaxMs(pauses.getMaxValue() / NANOS_IN_MILLISECOND);
+        if (requests > 0) {
+            logBuilder.allocatedBytesPerRequest((double) gcLog.getAllocatedBytes() / requests);
+        }
+    }
+
+    /**
+     * Adds the peak thread count, the context switches and the run queue wait per request and the peak context
+     * switch rates between the thread snapshots of the measurements, if /proc is available.
+     */
+    private static void threadColumns(LogBuilder logBuilder, List<ThreadUsage> threadSamples, long requests) {
+        if (threadSamples.size() < 2 || requests == 0) {
+            return;
+        }
+        ThreadUsage measurements = threadSamples.get(threadSamples.size() - 1).since(threadSamples.get(0));
+        double voluntaryPerSecMax = 0;
+        double nonvoluntaryPerSecMax = 0;
+        for (int i = 1; i < threadSamples.size(); i++) {
+            ThreadUsage interval = threadSamples.get(i).since(threadSamples.get(i - 1));
+            double intervalS = interval.getTimeNs() / NANOS_IN_SECOND;
+            if (intervalS > 0) {
+                voluntaryPerSecMax = Math.max(voluntaryPerSecMax, interval.getVoluntaryContextSwitches() / intervalS);
+                nonvoluntaryPerSecMax = Math.max(nonvoluntaryPerSecMax, interval.getNonvoluntaryContextSwitches() / intervalS);
             }
-            pA = runInfo.getProcess();
-            runLogA = runInfo.getRunLog();
-
-            long rssKb = getRSSkB(pA.pid());
-
-            List<Long> values = new ArrayList<>(20000);
-
-            // Intentionally commented, still considering implementing a pluggable REST client interface
-            // Plain OLD Java "HTTP Client"
-            //            long startTime = System.currentTimeMillis();
-            //            for (int i = 0; i < 20000; i++) {
-            //                long requestStartTime = System.nanoTime();
-            //                HttpURLConnection c = (HttpURLConnection) new URL(requestInfo.getURI()).openConnection();
-            //                requestInfo.getHeaders().forEach(c::setRequestProperty);
-            //                c.setRequestMethod(requestInfo.getMethod());
-            //                c.setDoOutput(true);
-            //                c.setConnectTimeout(500);
-            //
-            //                try (OutputStream os = c.getOutputStream()) {
-            //                    os.write(requestInfo.getBody().getBytes());
-            //                }
-            //
-            //                try (Scanner scanner = new Scanner(c.getInputStream(), StandardCharsets.UTF_8.toString())) {
-            //                    Assertions.assertThat(c.getResponseCode()).isEqualTo(requestInfo.getExpectedResponseStatusCode());
-            ////                    System.out.println("Response code: " + c.getResponseCode());
-            //                    scanner.useDelimiter("\\A");
-            //                    String webPage = scanner.hasNext() ? scanner.next() : "";
-            ////                    System.out.println("Page is: " + webPage);
-            //                } catch (Exception e) {
-            //                    LOGGER.info("Error when executing request on " + requestInfo.getURI(), e);
-            //                }
-            //
-            //                long requestEndTime = System.nanoTime();
-            //                long duration = requestEndTime - requestStartTime;
-            //                values.add(duration);
-            ////                System.out.println(duration);
-            //            }
-            //            long endTime = System.currentTimeMillis();
-
-            // Java 11 HTTP Client
-
-            //            HttpClient httpClient = HttpClient.newHttpClient();
-            //            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(requestInfo.getURI()))
-            //                    .POST(HttpRequest.BodyPublishers.ofString(requestInfo.getBody()));
-            //            requestInfo.getHeaders().forEach(requestBuilder::header);
-            //            HttpRequest request = requestBuilder.build();
-            //
-            //
-            //
-            //
-            //            long startTime = System.currentTimeMillis();
-            //            for (int i = 0; i < 20000; i++) {
-            //                long requestStartTime = System.nanoTime();
-            //                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            //                Assertions.assertThat(response.statusCode()).isEqualTo(requestInfo.getExpectedResponseStatusCode());
-            ////                System.out.println("Response code: " + response.statusCode());
-            ////                System.out.println("Page is: " + response.body());
-            //                long requestEndTime = System.nanoTime();
-            //                long duration = requestEndTime - requestStartTime;
-            //                values.add(duration);
-            ////                System.out.println(duration);
-            //            }
-            //            long endTime = System.currentTimeMillis();
-
-            // Apache HTTP Client 4
-            long totalDuration;
-            long firstResponseTime;
-            try (CloseableHttpClient client = HttpClients.createDefault()) {
-                HttpPost postRequest = new HttpPost(requestInfo.getURI());
-                postRequest.setEntity(new StringEntity(requestInfo.getBody()));
-                requestInfo.getHeaders().forEach(postRequest::setHeader);
+        }
+        logBuilder.threadsMax(threadSamples.stream().mapToInt(ThreadUsage::getThreads).max().getAsInt())
+                .voluntaryCtxSwitchesPerRequest((double) measurements.getVoluntaryContextSwitches() / requests)
+                .nonvoluntaryCtxSwitchesPerRequest((double) measurements.getNonvoluntaryContextSwitches() / requests)
+                .voluntaryCtxSwitchesPerSecMax(voluntaryPerSecMax)
+                .nonvoluntaryCtxSwitchesPerSecMax(nonvoluntaryPerSecMax);
+        if (measurements.getRunQueueWaitNs() >= 0) {
+            logBuilder.runQueueWaitPerRequestUs(measurements.getRunQueueWaitNs() / NANOS_IN_MICROSECOND / requests);
+        }
+    }
 
-                // Warm up run
-                runRequests(client, postRequest, 1000, requestInfo.getExpectedResponseStatusCode(), values);
+    private static void logThreadPools(List<ThreadUsage> threadSamples, Path threadsLog, StringBuilder whatIDidReport) throws IOException {
+        if (threadSamples.size() < 2) {
+            return;
+        }
+        ThreadUsage measurements = threadSamples.get(threadSamples.size() - 1).since(threadSamples.get(0));
+        measurements.writePools(threadsLog);
+        appendln(whatIDidReport, "Thread pools by CPU time during the measurements:");
+        measurements.getPools().stream().limit(5).forEach(pool -> appendln(whatIDidReport, pool.getName() + ": "
+                + TimeUnit.NANOSECONDS.toMillis(pool.getCpuTimeNs()) + " ms CPU, " + pool.getVoluntaryContextSwitches() + " voluntary and "
+                + pool.getNonvoluntaryContextSwitches() + " nonvoluntary context switches"));
+    }
 
-                firstResponseTime = values.get(0);
-                values.clear();
+    private static void logCollectors(JvmSampler jvmSampler, StringBuilder whatIDidReport) {
+        if (jvmSampler == null || jvmSampler.getSamples().isEmpty()) {
+            return;
+        }
+        List<JvmSample> samples = jvmSampler.getSamples();
+        JvmSample sample = samples.get(samples.size() - 1);
+        List<String> collectors = jvmSampler.getCollectorNames();
+        appendln(whatIDidReport, "Garbage collectors:");
+        for (int i = 0; i < collectors.size(); i++) {
+            appendln(whatIDidReport, collectors.get(i) + ": " + sample.getGcCounts()[i] + " collections, " + sample.getGcTimesMs()[i] + " ms");
+        }
+        if (jvmSampler.getSafepoints() >= 0) {
+            appendln(whatIDidReport, "Safepoints: " + jvmSampler.getSafepoints() + ", " + jvmSampler.getSafepointTimeMs() + " ms of which "
+                    + jvmSampler.getSafepointSyncTimeMs() + " ms to reach them");
+        }
+    }
 
-                // Measurements run
-                long startTime = System.currentTimeMillis();
-                runRequests(client, postRequest, 20000, requestInfo.getExpectedResponseStatusCode(), values);
-                long endTime = System.currentTimeMillis();
-                totalDuration = endTime - startTime;
+    /**
+     * Adds the CPU time of the startup, warm up and measurements phases and the CPU cost per request, if available.
+     */
+    private static void cpuColumns(LogBuilder logBuilder, RunInfo runInfo, long cpuTimeBeforeWarmUpNs, long cpuTimeBeforeLoadNs, long cpuTimeAfterLoadNs,
+            Map<String, Double> perfCounters, long requests) {
+        if (runInfo.getCpuTimeToFirstOKRequestNs() >= 0) {
+            logBuilder.cpuTimeToFirstOKRequestMs(TimeUnit.NANOSECONDS.toMillis(runInfo.getCpuTimeToFirstOKRequestNs()));
+        }
+        if (cpuTimeBeforeWarmUpNs >= 0 && cpuTimeAfterLoadNs >= 0 && requests > 0) {
+            logBuilder.warmUpCpuTime(TimeUnit.NANOSECONDS.toMillis(cpuTimeBeforeLoadNs - cpuTimeBeforeWarmUpNs))
+                    .loadCpuTime(TimeUnit.NANOSECONDS.toMillis(cpuTimeAfterLoadNs - cpuTimeBeforeLoadNs))
+                    .cpuTimePerRequest((cpuTimeAfterLoadNs - cpuTimeBeforeLoadNs) / NANOS_IN_MICROSECOND / requests);
+        }
+        if (requests == 0) {
+            return;
+        }
+        if (perfCounters.containsKey("cycles")) {
+            logBuilder.cyclesPerRequest(perfCounters.get("cycles") / requests);
+        }
+        if (perfCounters.containsKey("instructions")) {
+            logBuilder.instructionsPerRequest(perfCounters.get("instructions") / requests);
+        }
+    }
+
+    /**
+     * Replaces the constant bodies with corpora of randomized bodies if payloadCorpusSize is set and the requests
+     * have a generator. The corpora are generated before the app is measured and the seed keeps runs comparable.
+     */
+    private Workload withPayloads(Workload workload, StringBuilder whatIDidReport) {
+        if (PAYLOAD_CORPUS_SIZE <= 0) {
+            return workload;
+        }
+        appendln(whatIDidReport, "Cycling through " + PAYLOAD_CORPUS_SIZE + " generated payloads, seed " + PAYLOAD_SEED);
+        return workload.map(requestInfo -> requestInfo.getPayloadGenerator() == null
+                ? requestInfo
+                : requestInfo.toBuilder()
+                        .payloads(requestInfo.getPayloadGenerator().generate(PAYLOAD_CORPUS_SIZE, PAYLOAD_SEED))
+                        .build());
+    }
+
+    private static LogBuilder.Log nativeMemoryLog(App app, String phase, NativeMemory nativeMemory, long rssKb) {
+        LogBuilder logBuilder = new LogBuilder()
+                .app(app)
+                .mode(app.mavenCommands)
+                .phase(phase)
+                .rssKb(rssKb);
+        if (nativeMemory != null) {
+            nmtColumns(logBuilder, nativeMemory);
+        }
+        return logBuilder.build();
+    }
+
+    private static void nmtColumns(LogBuilder logBuilder, NativeMemory nativeMemory) {
+        logBuilder.nmtCommittedKb(nativeMemory.getCommittedKb())
+                .nmtJavaHeapKb(nativeMemory.getCommittedKb("Java Heap"))
+                .nmtClassKb(nativeMemory.getCommittedKb("Class"))
+                .nmtThreadKb(nativeMemory.getCommittedKb("Thread"))
+                .nmtCodeKb(nativeMemory.getCommittedKb("Code"))
+                .nmtGcKb(nativeMemory.getCommittedKb("GC"))
+                .nmtInternalKb(nativeMemory.getCommittedKb("Internal"))
+                .nmtSymbolKb(nativeMemory.getCommittedKb("Symbol"));
+    }
+
+    /**
+     * Logs the committed memory per NMT category next to the RSS, which shows what the RSS threshold is made of.
+     */
+    private static void logNativeMemory(List<LogBuilder.Log> nativeMemoryLogs, Path nmtLog, StringBuilder whatIDidReport) throws IOException {
+        if (nativeMemoryLogs.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder();
+        for (LogBuilder.Log log : nativeMemoryLogs) {
+            Logs.logMeasurements(log, nmtLog);
+            if (table.length() == 0) {
+                table.append(log.headerMarkdown);
+            }
+            table.append('\n').append(log.lineMarkdown);
+        }
+        appendln(whatIDidReport, "Native Memory Tracking, committed kB:");
+        appendln(whatIDidReport, table.toString());
+    }
+
+    private void logRequestMeasurements(App app, LoadResult result, Path requestsLog, String title, StringBuilder whatIDidReport) throws IOException {
+        StringBuilder table = new StringBuilder();
+        for (Map.Entry<String, LoadResult> request : result.getRequestResults().entrySet()) {
+            LoadResult requestResult = request.getValue();
+            LogBuilder requestLogBuilder = new LogBuilder()
+                    .app(app)
+                    .mode(app.mavenCommands)
+                    .request(request.getKey())
+                    .errorRate(requestResult.getErrorRate());
+            if (requestResult.getLatencies().getTotalCount() > 0) {
+                requestLogBuilder.avgResponseTime(requestResult.getLatencies().getMean() / NANOS_IN_MILLISECOND)
+                        .responseTimePercentiles(requestResult.getLatencies())
+                        .throughput(requestResult.getThroughput());
+            }
+            LogBuilder.Log requestLog = requestLogBuilder.build();
+            Logs.logMeasurements(requestLog, requestsLog);
+            if (table.length() == 0) {
+                table.append(requestLog.headerMarkdown);
             }
+            table.append('\n').append(requestLog.lineMarkdown);
+        }
+        appendln(whatIDidReport, title);
+        appendln(whatIDidReport, table.toString());
+    }
 
-            double avgResponseTimeMs = values.stream().mapToLong(Long::longValue).average().orElse(-1) / NANOS_IN_MILLISECOND;
-            double firstResponseTimeMs = firstResponseTime / NANOS_IN_MILLISECOND;
-            double totalDurationS = totalDuration / MILLIS_IN_SECOND;
+    /**
+     * Keeps a steady load for hours and samples RSS, opened files, threads and latency percentiles every sampling interval
+     * into soak.csv. Fails when the slope of the line fitted through the RSS or opened files samples exceeds its budget,
+     * as slow leaks don't show in a short load test.
+     */
+    public void soakTest(TestInfo testInfo, App app, HTTPRequestInfo requestInfo) throws IOException, InterruptedException {
+        logger.info("Running soakTest test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
 
-            long rssKbFinal = getRSSkB(pA.pid());
-            long openedFiles = getOpenedFDs(pA.pid()); // TODO also do before the "test" itself? Maybe not needed as before is covered in a startStop test
+        runScenario(testInfo, app, (runInfo, cn, mn, whatIDidReport) -> {
+            appendln(whatIDidReport, "Soak test with " + LOAD_CLIENT + ", " + SOAK_RATE + " requests/s for " + SOAK_DURATION_S + " s, sampled every "
+                    + SOAK_SAMPLE_INTERVAL_S + " s. Budget: RSS <= " + SOAK_MAX_RSS_KB_SLOPE_PER_HOUR + " kB/h, FDs <= " + SOAK_MAX_FDS_SLOPE_PER_HOUR + " /h");
+            Workload workload = withPayloads(Workload.of(requestInfo.withPort(runInfo.getPort())), whatIDidReport);
+            Path soakLog = getLogsDir(cn, mn).resolve("soak.csv");
+            List<Double> elapsedHours = new ArrayList<>();
+            List<Double> rssKbSamples = new ArrayList<>();
+            List<Double> openedFilesSamples = new ArrayList<>();
+            long errors = 0;
+            try (LoadClient client = LOAD_CLIENT.create(LOAD_CONCURRENCY)) {
+                LoadGenerator loadGenerator = new LoadGenerator(client, LOAD_CONCURRENCY);
 
-            // Stop the App
-            processStopper(pA, false);
+                // Warm up run, so that the JIT and the heap sizing don't show up as a leak
+                warmUp(loadGenerator, workload, SOAK_RATE, whatIDidReport);
 
-            logger.info("Gonna wait for ports closed...");
-            // Release ports
-            assertTrue(waitForTcpClosed("localhost", parsePort(app.urlContent.urlContent[0][0]), 60),
-                    "Main port is still open");
-            checkLog(cn, mn, app, mvnCmds, runLogA);
-            checkListeningHost(cn, mn, mvnCmds, runLogA);
+                long startTime = System.nanoTime();
+                double elapsedS;
+                do {
+                    LoadResult window = loadGenerator.run(workload, SOAK_RATE * SOAK_SAMPLE_INTERVAL_S, SOAK_RATE);
+                    errors += window.getErrors();
+                    elapsedS = (System.nanoTime() - startTime) / NANOS_IN_SECOND;
+                    ProcessSample sample = runInfo.getSampler().sample();
+                    long rssKb = sample.getRssKb();
+                    long openedFiles = sample.getOpenedFiles();
+                    long threads = sample.getThreads();
+                    elapsedHours.add(elapsedS / TimeUnit.HOURS.toSeconds(1));
+                    rssKbSamples.add((double) rssKb);
+                    openedFilesSamples.add((double) openedFiles);
 
-            float[] startedStopped = parseStartStopTimestamps(runLogA, app);// Don't need this in the load test?
-            long startedInMs = (long) (startedStopped[0] * 1000);
-            long stoppedInMs = (long) (startedStopped[1] * 1000);
+                    LogBuilder sampleLogBuilder = new LogBuilder()
+                            .app(app)
+                            .mode(app.mavenCommands)
+                            .elapsed(elapsedS)
+                            .rssKb(rssKb)
+                            .openedFiles(openedFiles)
+                            .errorRate(window.getErrorRate());
+                    if (threads > 0) {
+                        sampleLogBuilder.threads(threads);
+                    }
+                    if (window.getLatencies().getTotalCount() > 0) {
+                        sampleLogBuilder.throughput(window.getThroughput())
+                                .responseTimePercentiles(window.getLatencies());
+                    }
+                    Logs.logMeasurements(sampleLogBuilder.build(), soakLog);
+                } while (elapsedS < SOAK_DURATION_S);
+            }
 
-            Path measurementsLog = getLogsDir(cn, mn).resolve("measurements.csv");
-            Path measurementsSummaryLog = getLogsDir().resolve("measurementsSummary.csv");
+            double rssKbSlope = TrendLine.fit(elapsedHours, rssKbSamples).getSlope();
+            double openedFilesSlope = TrendLine.fit(elapsedHours, openedFilesSamples).getSlope();
             LogBuilder.Log log = new LogBuilder()
                     .app(app)
-                    .mode(mvnCmds)
-                    .buildTimeMs(buildResult.getBuildTimeMs())
-                    .timeToFirstOKRequestMs(runInfo.getTimeToFirstOKRequest())
-                    .startedInMs(startedInMs)
-                    .stoppedInMs(stoppedInMs)
-                    .rssKb(rssKb)
-                    .rssKbFinal(rssKbFinal)
-                    .avgResponseTime(avgResponseTimeMs)
-                    .firstResponseTime(firstResponseTimeMs)
-                    .totalDuration(totalDurationS)
-                    .openedFiles(openedFiles)
+                    .mode(app.mavenCommands)
+                    .rssKbFinal(rssKbSamples.get(rssKbSamples.size() - 1).longValue())
+                    .rssKbSlope(rssKbSlope)
+                    .openedFilesSlope(openedFilesSlope)
                     .build();
+            Logs.logMeasurements(log, getLogsDir(cn, mn).resolve("measurements.csv"));
+            Logs.logMeasurementsSummary(log, getLogsDir().resolve("measurementsSummary.csv"));
+            appendln(whatIDidReport, "Measurements:");
+            appendln(whatIDidReport, log.headerMarkdown + "\n" + log.lineMarkdown);
 
-            Logs.logMeasurements(log, measurementsLog);
+            assertTrue(errors == 0, errors + " requests failed during the soak test");
+            assertTrue(rssKbSlope <= SOAK_MAX_RSS_KB_SLOPE_PER_HOUR,
+                    "RSS grows by " + rssKbSlope + " kB/h, budget is " + SOAK_MAX_RSS_KB_SLOPE_PER_HOUR + " kB/h");
+            assertTrue(openedFilesSlope <= SOAK_MAX_FDS_SLOPE_PER_HOUR,
+                    "Opened files grow by " + openedFilesSlope + " /h, budget is " + SOAK_MAX_FDS_SLOPE_PER_HOUR + " /h");
+        });
+    }
 
-            LogBuilder.Log summaryLog = new LogBuilder()
+    /**
+     * Takes process instances through their whole lifecycle (create, query, advance, delete, ...) with the ids chained
+     * from the create responses. The aggregate measurements go to measurements.csv and the summary,
+     * the measurements of the individual steps to steps.csv and to the report.
+     */
+    public void lifecycleTest(TestInfo testInfo, App app, ProcessLifecycle lifecycle) throws IOException, InterruptedException {
+        logger.info("Running lifecycleTest test. Testing app: " + app.toString() + ", mode: " + app.mavenCommands.toString());
+
+        runScenario(testInfo, app, (runInfo, cn, mn, whatIDidReport) -> {
+            appendln(whatIDidReport, "Process instance lifecycle: " + lifecycle + ", " + LIFECYCLE_INSTANCES + " instances, "
+                    + LOAD_CLIENT + ", " + LOAD_CONCURRENCY + " connection(s)"
+                    + (LOAD_RATE > 0 ? ", " + LOAD_RATE + " new instances/s" : ""));
+            ProcessLifecycle lifecycleInSlot = lifecycle.map(requestInfo -> requestInfo.withPort(runInfo.getPort()));
+            LoadResult result;
+            WarmUp.Result warmUpResult;
+            try (LoadClient client = LOAD_CLIENT.create(LOAD_CONCURRENCY)) {
+                LoadGenerator loadGenerator = new LoadGenerator(client, LOAD_CONCURRENCY);
+
+                // A single instance first, so a lifecycle the app doesn't serve fails at once, naming its step
+                loadGenerator.run(lifecycleInSlot, 1, 0).getRequestResults().forEach((step, stepResult) -> assertTrue(stepResult.getErrors() == 0,
+                        "Step " + step + " of " + lifecycle + " failed, the app doesn't serve the lifecycle; see the log for the response"));
+
+                // Warm up run
+                warmUpResult = checkWarmUp(newWarmUp().run(loadGenerator, lifecycleInSlot, LOAD_RATE), whatIDidReport);
+
+                // Measurements run
+                result = loadGenerator.run(lifecycleInSlot, LIFECYCLE_INSTANCES, LOAD_RATE);
+                assertTrue(result.getErrors() == 0, result.getErrors() + " requests failed during measurements");
+            }
+
+            LogBuilder.Log log = new LogBuilder()
                     .app(app)
-                    .mode(mvnCmds)
-                    .rssKbFinal(rssKbFinal)
-                    .avgResponseTime(avgResponseTimeMs)
-                    .firstResponseTime(firstResponseTimeMs)
-                    .totalDuration(totalDurationS)
+                    .mode(app.mavenCommands)
+                    .avgResponseTime(result.getLatencies().getMean() / NANOS_IN_MILLISECOND)
+                    .responseTimePercentiles(result.getLatencies())
+                    .warmUpRequests(warmUpResult.getRequests())
+                    .warmUpDuration(warmUpResult.getDurationNs() / NANOS_IN_SECOND)
+                    .totalDuration(result.getDurationNs() / NANOS_IN_SECOND)
+                    .concurrency(LOAD_CONCURRENCY)
+                    .throughput(result.getThroughput())
                     .build();
-            Logs.logMeasurementsSummary(summaryLog, measurementsSummaryLog);
+            Logs.logMeasurements(log, getLogsDir(cn, mn).resolve("measurements.csv"));
+            Logs.logMeasurementsSummary(log, getLogsDir().resolve("measurementsSummary.csv"));
             appendln(whatIDidReport, "Measurements:");
             appendln(whatIDidReport, log.headerMarkdown + "\n" + log.lineMarkdown);
+            logRequestMeasurements(app, result, getLogsDir(cn, mn).resolve("steps.csv"), "Measurements per step:", whatIDidReport);
+        });
+    }
 
-            // TODO check other load test-related metrics here, e.g. rssKbFinal
-            checkThreshold(app, mvnCmds, rssKb, runInfo.getTimeToFirstOKRequest(), SKIP);
-        } finally {
-            // Make sure processes are down even if there was an exception / failure
-            if (pA != null) {
-                processStopper(pA, true);
-            }
-            // Archive logs no matter what
-            archiveLogs(cn, mn, appDir.toPath().resolve("logs"));
-            writeReport(cn, mn, whatIDidReport.toString());
-        }
+    private WarmUp.Result warmUp(LoadGenerator loadGenerator, Workload workload, int requestsPerSecond, StringBuilder whatIDidReport)
+            throws IOException, InterruptedException {
+        return checkWarmUp(newWarmUp().run(loadGenerator, workload, requestsPerSecond), whatIDidReport);
+    }
+
+    private WarmUp newWarmUp() {
+        return new WarmUp(WARM_UP_WINDOW_REQUESTS, WARM_UP_WINDOWS, WARM_UP_MAX_CV, WARM_UP_MAX_REQUESTS);
+    }
+
+    private WarmUp.Result checkWarmUp(WarmUp.Result warmUpResult, StringBuilder whatIDidReport) {
+        assertTrue(warmUpResult.getErrors() == 0, warmUpResult.getErrors() + " requests failed during warm up");
+        appendln(whatIDidReport, "Warm up: " + warmUpResult.getRequests() + " requests in " + warmUpResult.getDurationNs() / NANOS_IN_SECOND + " s, "
+                + (warmUpResult.isSteady() ? "steady state reached" : "steady state NOT reached"));
+        return warmUpResult;
+    }
+
+    @FunctionalInterface
+    protected interface Scenario {
+        void run(RunInfo runInfo, String cn, String mn, StringBuilder whatIDidReport) throws IOException, InterruptedException;
     }
 
-    private void runRequests(CloseableHttpClient client, HttpUriRequest request, int count, int expectedResponseStatusCode, List<Long> values) throws IOException {
-        for (int i = 0; i < count; i++) {
-            long requestStartTime = System.nanoTime();
-            try (CloseableHttpResponse response = client.execute(request)) {
-                Assertions.assertThat(response.getStatusLine().getStatusCode()).isEqualTo(expectedResponseStatusCode);
-                EntityUtils.consume(response.getEntity());
+    /**
+     * Builds and starts the app, runs the scenario against it and stops the app again, checking its logs.
+     */
+    protected void runScenario(TestInfo testInfo, App app, Scenario scenario) throws IOException, InterruptedException {
+        Process pA = null;
+        File buildLogA = null;
+        File runLogA = null;
+        StringBuilder whatIDidReport = new StringBuilder();
+        File appDir = app.getAppDir();
+        MvnCmds mvnCmds = app.mavenCommands;
+        String cn = testInfo.getTestClass().get().getCanonicalName();
+        String mn = testInfo.getTestMethod().get().getName();
+        try (Slot slot = Slot.acquire()) {
+            try {
+                // Cleanup
+                cleanTarget(app);
+                Files.createDirectories(Path.of(appDir.getAbsolutePath(), "logs"));
+
+                // Build
+                BuildResult buildResult = buildApp(app, slot, mn, cn, whatIDidReport);
+                buildLogA = buildResult.getBuildLog();
+
+                assertTrue(buildLogA.exists());
+                checkLog(cn, mn, app, mvnCmds, buildLogA);
+
+                // Start the App
+                RunInfo runInfo = startApp(app, slot, whatIDidReport);
+                if (slot.getAppCpus() != null) {
+                    setCPUAffinity(runInfo, slot.getAppCpus());
+                }
+                slot.pinLoadGenerator();
+                pA = runInfo.getProcess();
+                runLogA = runInfo.getRunLog();
+
+                scenario.run(runInfo, cn, mn, whatIDidReport);
+
+                // Stop the App
+                closeJvmSampler(runInfo);
+                processStopper(pA, false);
+                runInfo.stopSampling();
+
+                logger.info("Gonna wait for ports closed...");
+                // Release ports
+                assertTrue(waitForTcpClosed("localhost", slot.getPort(), 60),
+                        "Main port is still open");
+                checkLog(cn, mn, app, mvnCmds, runLogA);
+                checkListeningHost(cn, mn, mvnCmds, runLogA);
+            } finally {
+                // Make sure processes are down even if there was an exception / failure
+                if (pA != null) {
+                    processStopper(pA, true);
+                }
+                // Archive logs no matter what
+                archiveLogs(cn, mn, appDir.toPath().resolve("logs"));
+                writeReport(cn, mn, whatIDidReport.toString());
             }
-            long requestEndTime = System.nanoTime();
-            long duration = requestEndTime - requestStartTime;
-            values.add(duration);
         }
     }
-
 }
@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.kie.kogito.benchmarks.framework.App;
 import org.kie.kogito.benchmarks.framework.HTTPRequestInfo;
 
@@ -26,22 +27,53 @@ public class PMMLMineQuarkusTest extends AbstractTemplateTest {
 
     private static final App APP_TO_TEST = App.PMML_MINE_QUARKUS_JVM;
 
+    private static final HTTPRequestInfo REQUEST_INFO = HTTPRequestInfo.builder()
+            .URI(LOCALHOST + "/SampleMineTreeModelWithTransformations")
+            .body(HTTPRequestInfo.Body.PMML_MINE)
+            .payloadGenerator(HTTPRequestInfo.Payloads.PMML_MINE)
+            .method("POST")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .expectedResponseStatusCode(200)
+            .build();
+
     @Test
     public void startStop(TestInfo testInfo) throws IOException, InterruptedException {
         startStop(testInfo, APP_TO_TEST);
     }
 
+    @Test
+    @EnabledIfSystemProperty(named = "nativeTest", matches = "true")
+    public void startStopNative(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_MINE_QUARKUS_NATIVE);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "appCDSTest", matches = "true")
+    public void startStopAppCDS(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_MINE_QUARKUS_JVM_CDS);
+    }
+
     @Test
     public void loadTest(TestInfo testInfo) throws IOException, InterruptedException {
-        HTTPRequestInfo requestInfo = HTTPRequestInfo.builder()
-                .URI(LOCALHOST + "/SampleMineTreeModelWithTransformations")
-                .body(HTTPRequestInfo.Body.PMML_MINE)
-                .method("POST")
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .expectedResponseStatusCode(200)
-                .build();
-
-        loadTest(testInfo, APP_TO_TEST, requestInfo);
+        loadTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nativeTest", matches = "true")
+    public void loadTestNative(TestInfo testInfo) throws IOException, InterruptedException {
+        loadTest(testInfo, App.PMML_MINE_QUARKUS_NATIVE, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "saturationTest", matches = "true")
+    public void saturationTest(TestInfo testInfo) throws IOException, InterruptedException {
+        saturationTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "soakTest", matches = "true")
+    public void soakTest(TestInfo testInfo) throws IOException, InterruptedException {
+        soakTest(testInfo, APP_TO_TEST, REQUEST_INFO);
     }
 }
@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.kie.kogito.benchmarks.framework.App;
 import org.kie.kogito.benchmarks.framework.HTTPRequestInfo;
 
@@ -26,22 +27,59 @@ public class PMMLScorecardSpringBootTest extends AbstractTemplateTest {
 
     private static final App APP_TO_TEST = App.PMML_SCORECARD_SPRING_BOOT;
 
+    private static final HTTPRequestInfo REQUEST_INFO = HTTPRequestInfo.builder()
+            .URI(LOCALHOST + "/SimpleScorecardWithTransformations")
+            .body(HTTPRequestInfo.Body.PMML_SCORECARD)
+            .payloadGenerator(HTTPRequestInfo.Payloads.PMML_SCORECARD)
+            .method("POST")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .expectedResponseStatusCode(200)
+            .build();
+
     @Test
     public void startStop(TestInfo testInfo) throws IOException, InterruptedException {
         startStop(testInfo, APP_TO_TEST);
     }
 
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopAOT(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_SCORECARD_SPRING_BOOT_AOT);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopExploded(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_SCORECARD_SPRING_BOOT_EXPLODED);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopLazyInit(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_SCORECARD_SPRING_BOOT_LAZY_INIT);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "appCDSTest", matches = "true")
+    public void startStopAppCDS(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.PMML_SCORECARD_SPRING_BOOT_CDS);
+    }
+
     @Test
     public void loadTest(TestInfo testInfo) throws IOException, InterruptedException {
-        HTTPRequestInfo requestInfo = HTTPRequestInfo.builder()
-                .URI(LOCALHOST + "/SimpleScorecardWithTransformations")
-                .body(HTTPRequestInfo.Body.PMML_SCORECARD)
-                .method("POST")
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .expectedResponseStatusCode(200)
-                .build();
-
-        loadTest(testInfo, APP_TO_TEST, requestInfo);
+        loadTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "saturationTest", matches = "true")
+    public void saturationTest(TestInfo testInfo) throws IOException, InterruptedException {
+        saturationTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "soakTest", matches = "true")
+    public void soakTest(TestInfo testInfo) throws IOException, InterruptedException {
+        soakTest(testInfo, APP_TO_TEST, REQUEST_INFO);
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import org.kie.kogito.benchmarks.framework.HTTPRequestInfo;
+import org.kie.kogito.benchmarks.framework.ProcessLifecycle;
+import org.kie.kogito.benchmarks.framework.Workload;
+
+import static org.kie.kogito.benchmarks.AbstractTemplateTest.LOCALHOST;
+
+/**
+ * Requests of the STP smart house apps, which expose the same REST API on Quarkus and Spring Boot.
+ */
+final class SmartHouseSTPRequests {
+
+    // This may be directly replaced for example by Apache-specific class, but this keeps it detached from any framework
+    static final HTTPRequestInfo REQUEST_INFO = HTTPRequestInfo.builder()
+            .URI(LOCALHOST + "/smartHouse")
+            .body(HTTPRequestInfo.Body.SMARTHOUSE_BPMN_DMN)
+            .payloadGenerator(HTTPRequestInfo.Payloads.SMARTHOUSE_BPMN_DMN)
+            .method("POST")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .expectedResponseStatusCode(201)
+            .build();
+
+    static final HTTPRequestInfo HEATING_REQUEST_INFO = HTTPRequestInfo.builder()
+            .URI(LOCALHOST + "/heating")
+            .body(HTTPRequestInfo.Body.HEATING_02)
+            .payloadGenerator(HTTPRequestInfo.Payloads.HEATING_02)
+            .method("POST")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .expectedResponseStatusCode(200)
+            .build();
+
+    // Mostly decision evaluations and some process instances, each read by its id and deleted by the worker which created
+    // it, so the number of live instances and with it the cost of the queries doesn't grow with the length of the run
+    static final Workload MIXED_WORKLOAD = Workload.builder()
+            .request("heating", HEATING_REQUEST_INFO, 80)
+            .lifecycle("smartHouse", ProcessLifecycle.builder()
+                    .create("start", REQUEST_INFO)
+                    .step("query", HTTPRequestInfo.builder()
+                            .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER)
+                            .method("GET")
+                            .header("Accept", "application/json")
+                            .expectedResponseStatusCode(200)
+                            .build())
+                    .step("delete", HTTPRequestInfo.builder()
+                            .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER)
+                            .method("DELETE")
+                            .header("Accept", "application/json")
+                            .expectedResponseStatusCode(200)
+                            .build())
+                    .build(), 20)
+            .build();
+
+    // Create an instance, read it, complete its first work item and delete it; {id} is the id of the created instance,
+    // {taskName} and {workItemId} are taken from the list of its work items. The URIs are the ones Kogito generates
+    // for a process with user tasks: GET /{process}/{id}/tasks lists the work items as [{"id", "name", ...}] and
+    // POST /{process}/{id}/{taskName}/{workItemId}?phase=complete completes one; AbstractTemplateTest#lifecycleTest
+    // sends one instance before the warm up, so a chain the app doesn't serve fails at once, naming the step.
+    static final ProcessLifecycle LIFECYCLE = ProcessLifecycle.builder()
+            .create("create", REQUEST_INFO)
+            .step("get", HTTPRequestInfo.builder()
+                    .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER)
+                    .method("GET")
+                    .header("Accept", "application/json")
+                    .expectedResponseStatusCode(200)
+                    .build())
+            .step("tasks", HTTPRequestInfo.builder()
+                    .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER + "/tasks")
+                    .method("GET")
+                    .header("Accept", "application/json")
+                    .expectedResponseStatusCode(200)
+                    .build())
+            .capture("workItemId", "id")
+            .capture("taskName", "name")
+            .step("complete", HTTPRequestInfo.builder()
+                    .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER + "/" + HTTPRequestInfo.placeholder("taskName") + "/"
+                            + HTTPRequestInfo.placeholder("workItemId") + "?phase=complete")
+                    .body("{}")
+                    .method("POST")
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .expectedResponseStatusCode(200)
+                    .build())
+            .step("delete", HTTPRequestInfo.builder()
+                    .URI(LOCALHOST + "/smartHouse/" + HTTPRequestInfo.ID_PLACEHOLDER)
+                    .method("DELETE")
+                    .header("Accept", "application/json")
+                    .expectedResponseStatusCode(200)
+                    .build())
+            .build();
+
+    private SmartHouseSTPRequests() {
+    }
+}
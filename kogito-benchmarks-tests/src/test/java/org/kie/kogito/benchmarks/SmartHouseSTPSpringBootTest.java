@@ -19,8 +19,12 @@ import java.io.IOException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.kie.kogito.benchmarks.framework.App;
-import org.kie.kogito.benchmarks.framework.HTTPRequestInfo;
+
+import static org.kie.kogito.benchmarks.SmartHouseSTPRequests.LIFECYCLE;
+import static org.kie.kogito.benchmarks.SmartHouseSTPRequests.MIXED_WORKLOAD;
+import static org.kie.kogito.benchmarks.SmartHouseSTPRequests.REQUEST_INFO;
 
 public class SmartHouseSTPSpringBootTest extends AbstractTemplateTest {
 
@@ -31,18 +35,56 @@ public class SmartHouseSTPSpringBootTest extends AbstractTemplateTest {
         startStop(testInfo, APP_TO_TEST);
     }
 
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopAOT(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.SMARTHOUSE_STP_SPRING_BOOT_AOT);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopExploded(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.SMARTHOUSE_STP_SPRING_BOOT_EXPLODED);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "springBootModesTest", matches = "true")
+    public void startStopLazyInit(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.SMARTHOUSE_STP_SPRING_BOOT_LAZY_INIT);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "appCDSTest", matches = "true")
+    public void startStopAppCDS(TestInfo testInfo) throws IOException, InterruptedException {
+        startStop(testInfo, App.SMARTHOUSE_STP_SPRING_BOOT_CDS);
+    }
+
     @Test
     public void loadTest(TestInfo testInfo) throws IOException, InterruptedException {
-        HTTPRequestInfo requestInfo = HTTPRequestInfo.builder()
-                .URI(LOCALHOST + "/smartHouse")
-                .body(HTTPRequestInfo.Body.SMARTHOUSE_BPMN_DMN)
-                .method("POST")
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .expectedResponseStatusCode(201)
-                .build(); // This may be directly replaced for example by Apache-specific class, but this keeps
-                                                                                                                                                                                                                                                                                              // it detached from any framework
-
-        loadTest(testInfo, APP_TO_TEST, requestInfo);
+        loadTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "saturationTest", matches = "true")
+    public void saturationTest(TestInfo testInfo) throws IOException, InterruptedException {
+        saturationTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "soakTest", matches = "true")
+    public void soakTest(TestInfo testInfo) throws IOException, InterruptedException {
+        soakTest(testInfo, APP_TO_TEST, REQUEST_INFO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "mixedLoadTest", matches = "true")
+    public void mixedLoadTest(TestInfo testInfo) throws IOException, InterruptedException {
+        loadTest(testInfo, APP_TO_TEST, MIXED_WORKLOAD);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "lifecycleTest", matches = "true")
+    public void lifecycleTest(TestInfo testInfo) throws IOException, InterruptedException {
+        lifecycleTest(testInfo, APP_TO_TEST, LIFECYCLE);
     }
 }